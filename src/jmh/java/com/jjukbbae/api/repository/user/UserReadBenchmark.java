@@ -0,0 +1,119 @@
+package com.jjukbbae.api.repository.user;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.api.entity.user.UserCredentials;
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.entity.RoleType;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.query.SelectionQuery;
+import org.openjdk.jmh.annotations.*;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * application-test.yml 과 같은 H2 (MySQL mode) 에서 인증 경로의 사용자 조회 방식을 비교한다.
+ * 매 호출마다 새 session 을 열어 요청 하나의 조회를 흉내 낸다. cache 를 쓰는 두 benchmark 는
+ * UserRepositoryCustomImpl.load 와 findCredentialsByUserId 가 near cache 밖에서 타는 경로와 같다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserReadBenchmark {
+
+    private static final int USERS = 1_000;
+    private static final String CREDENTIALS_QUERY = "select new com.jjukbbae.api.entity.user.UserCredentials(u.userId, u.password, u.providerType) "
+            + "from User u where u.userId = :userId";
+
+    private CacheManager cacheManager;
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("benchmark"), getClass().getClassLoader());
+        cacheManager.createCache(User.CACHE_REGION, new CaffeineConfiguration<>());
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, new CaffeineConfiguration<>());
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, new CaffeineConfiguration<>());
+
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(User.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;MODE=MySQL")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, "")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true")
+                .setProperty(AvailableSettings.USE_QUERY_CACHE, "true")
+                .setProperty(AvailableSettings.CACHE_REGION_FACTORY, "jcache")
+                .setProperty(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        configuration.getProperties().put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        sessionFactory = configuration.buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < USERS; i++) {
+                session.persist(new User("user-" + i, "User " + i, "user-" + i + "@example.com", "Y",
+                        "http://test.com/profile/" + i + ".jpg", ProviderType.KAKAO, RoleType.USER, now, now));
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        cacheManager.close();
+    }
+
+    @Benchmark
+    public User entityByUserId() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery("select u from User u where u.userId = :userId", User.class)
+                    .setParameter("userId", randomUserId())
+                    .getSingleResult();
+        }
+    }
+
+    @Benchmark
+    public UserCredentials projectionByUserId() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery(CREDENTIALS_QUERY, UserCredentials.class)
+                    .setParameter("userId", randomUserId())
+                    .getSingleResult();
+        }
+    }
+
+    @Benchmark
+    public User entityByUserIdFromSecondLevelCache() {
+        try (Session session = sessionFactory.openSession()) {
+            SelectionQuery<Long> query = session.createSelectionQuery("select u.userSeq from User u where u.userId = :userId", Long.class)
+                    .setParameter("userId", randomUserId())
+                    .setCacheable(true);
+            return session.find(User.class, query.getSingleResult());
+        }
+    }
+
+    @Benchmark
+    public UserCredentials projectionByUserIdFromQueryCache() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery(CREDENTIALS_QUERY, UserCredentials.class)
+                    .setParameter("userId", randomUserId())
+                    .setCacheable(true)
+                    .getSingleResult();
+        }
+    }
+
+    private static String randomUserId() {
+        return "user-" + ThreadLocalRandom.current().nextInt(USERS);
+    }
+}
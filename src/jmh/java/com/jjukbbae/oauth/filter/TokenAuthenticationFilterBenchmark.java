@@ -0,0 +1,44 @@
+package com.jjukbbae.oauth.filter;
+
+import com.jjukbbae.oauth.token.AuthTokenProvider;
+import com.jjukbbae.oauth.token.BenchmarkTokens;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TokenAuthenticationFilterBenchmark {
+
+    @Param({"VALID", "EXPIRED", "MALFORMED", "BAD_SIGNATURE"})
+    private BenchmarkTokens.Kind kind;
+
+    private TokenAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain filterChain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        AuthTokenProvider provider = new AuthTokenProvider(BenchmarkTokens.SECRET);
+        filter = new TokenAuthenticationFilter(provider);
+        request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + BenchmarkTokens.create(provider, kind));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object doFilterInternal() throws ServletException, IOException {
+        filter.doFilterInternal(request, response, filterChain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
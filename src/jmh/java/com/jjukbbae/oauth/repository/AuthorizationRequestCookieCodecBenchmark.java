@@ -0,0 +1,82 @@
+package com.jjukbbae.oauth.repository;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.util.SerializationUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * authorization request cookie 의 Java 직렬화와 AuthorizationRequestCookieCodec 비교.
+ * Java 직렬화 cookie 의 decode 는 codec 의 legacy reader (역직렬화 filter 포함) 로 잰다.
+ * cookie 크기 (문자 수) 는 encode benchmark 의 보조 counter (chars) 로 나온다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AuthorizationRequestCookieCodecBenchmark {
+
+    private AuthorizationRequestCookieCodec codec;
+    private OAuth2AuthorizationRequest authorizationRequest;
+    private String encoded;
+    private String serialized;
+
+    @Setup
+    public void setUp() {
+        codec = new AuthorizationRequestCookieCodec("benchmark-secret".getBytes(StandardCharsets.UTF_8), 180, true);
+        authorizationRequest = OAuth2AuthorizationRequest.authorizationCode()
+                .authorizationUri("https://accounts.google.com/o/oauth2/v2/auth")
+                .clientId("1234567890-abcdefghijklmnopqrstuvwxyz.apps.googleusercontent.com")
+                .redirectUri("https://api.jjukbbae.com/login/oauth2/code/google")
+                .scopes(Set.of("openid", "profile", "email"))
+                .state("Nf4qZ3x8kR1vT6yW9bC2dE5gH7jK0mP3sU6wX9zA1cF=")
+                .additionalParameters(Map.of("nonce", "Yb3kR8vT1xW4zA7cF0hJ3mP6sU9wX2zB5dG8jL1nQ4t"))
+                .attributes(Map.of("registration_id", "google", "nonce", "q8Zk2Lx7Vn4Rb1Ty6Wc9Ep3Gh5Jm0Ps"))
+                .build();
+        encoded = codec.encode(authorizationRequest);
+        serialized = javaSerialize();
+    }
+
+    @Benchmark
+    public String encodeCodec(CookieSize cookieSize) {
+        return cookieSize.record(codec.encode(authorizationRequest));
+    }
+
+    @Benchmark
+    public OAuth2AuthorizationRequest decodeCodec() {
+        return codec.decode(encoded);
+    }
+
+    @Benchmark
+    public String encodeJavaSerialization(CookieSize cookieSize) {
+        return cookieSize.record(javaSerialize());
+    }
+
+    @Benchmark
+    public OAuth2AuthorizationRequest decodeJavaSerialization() {
+        return codec.decode(serialized);
+    }
+
+    private String javaSerialize() {
+        return Base64.getUrlEncoder().encodeToString(SerializationUtils.serialize(authorizationRequest));
+    }
+
+    /**
+     * 결과 표에 cookie 크기를 함께 남긴다. 합산하지 않고 마지막으로 만든 cookie 의 크기를 둔다.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CookieSize {
+
+        public long chars;
+
+        String record(String cookie) {
+            chars = cookie.length();
+            return cookie;
+        }
+    }
+}
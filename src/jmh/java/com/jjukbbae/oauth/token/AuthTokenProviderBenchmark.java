@@ -0,0 +1,61 @@
+package com.jjukbbae.oauth.token;
+
+import com.jjukbbae.oauth.exception.TokenValidFailedException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AuthTokenProviderBenchmark {
+
+    private AuthTokenProvider provider;
+    private Date expiry;
+
+    @State(Scope.Benchmark)
+    public static class IncomingToken {
+
+        @Param({"VALID", "EXPIRED", "MALFORMED", "BAD_SIGNATURE"})
+        private BenchmarkTokens.Kind kind;
+
+        private String token;
+
+        @Setup
+        public void setUp(AuthTokenProviderBenchmark benchmark) {
+            token = BenchmarkTokens.create(benchmark.provider, kind);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        provider = new AuthTokenProvider(BenchmarkTokens.SECRET);
+        expiry = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+    }
+
+    @Benchmark
+    public AuthToken createAuthToken() {
+        return provider.createAuthToken("benchmarkUser", expiry);
+    }
+
+    @Benchmark
+    public AuthToken createAuthTokenWithRole() {
+        return provider.createAuthToken("benchmarkUser", "ROLE_USER", expiry);
+    }
+
+    @Benchmark
+    public TokenVerification verifyUncached(IncomingToken incoming) {
+        return provider.convertAuthToken(incoming.token).verify();
+    }
+
+    @Benchmark
+    public void convertAndGetAuthentication(IncomingToken incoming, Blackhole blackhole) {
+        try {
+            blackhole.consume(provider.getAuthentication(provider.convertAuthToken(incoming.token)));
+        } catch (TokenValidFailedException e) {
+            blackhole.consume(e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.jjukbbae.oauth.token;
+
+import java.util.Date;
+
+public final class BenchmarkTokens {
+
+    public static final String SECRET = "benchmarksecretbenchmarksecretbenchmarksecret";
+    private static final String OTHER_SECRET = "othersecretothersecretothersecretothersecret";
+    private static final long TEN_MINUTES = 1000 * 60 * 10;
+
+    public enum Kind {
+        VALID,
+        EXPIRED,
+        MALFORMED,
+        BAD_SIGNATURE
+    }
+
+    private BenchmarkTokens() {
+    }
+
+    public static String create(AuthTokenProvider provider, Kind kind) {
+        long now = System.currentTimeMillis();
+        switch (kind) {
+            case VALID:
+                return provider.createAuthToken("benchmarkUser", "ROLE_USER", new Date(now + TEN_MINUTES)).getToken();
+            case EXPIRED:
+                return provider.createAuthToken("benchmarkUser", "ROLE_USER", new Date(now - TEN_MINUTES)).getToken();
+            case MALFORMED:
+                return "eyJhbGciOiJIUzI1NiJ9.not-a-payload.c2lnbmF0dXJl";
+            case BAD_SIGNATURE:
+                return new AuthTokenProvider(OTHER_SECRET)
+                        .createAuthToken("benchmarkUser", "ROLE_USER", new Date(now + TEN_MINUTES)).getToken();
+            default:
+                throw new IllegalArgumentException("Invalid Token Kind.");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.jjukbbae.oauth.token;
+
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HS256 과 ES256 의 발급 / 서명 검증 비용 비교. 검증은 claims 캐시를 거치지 않는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SigningAlgorithmBenchmark {
+
+    @Param({"HS256", "ES256"})
+    private String algorithm;
+
+    private AuthTokenProvider provider;
+    private Date expiry;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        SigningKey signingKey;
+        if ("ES256".equals(algorithm)) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            signingKey = SigningKey.of("bench", generator.generateKeyPair());
+        } else {
+            signingKey = new SigningKey("bench", Keys.hmacShaKeyFor(BenchmarkTokens.SECRET.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        provider = new AuthTokenProvider(new TokenKeyRing(SigningKeys.of(signingKey)), new VerifiedClaimsCache(1));
+        expiry = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        token = provider.createAuthToken("benchmarkUser", "ROLE_USER", expiry).getToken();
+    }
+
+    @Benchmark
+    public AuthToken sign() {
+        return provider.createAuthToken("benchmarkUser", "ROLE_USER", expiry);
+    }
+
+    @Benchmark
+    public TokenVerification verify() {
+        return provider.convertAuthToken(token).verify();
+    }
+}
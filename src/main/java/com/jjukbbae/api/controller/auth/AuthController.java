@@ -1,4 +1,134 @@
 package com.jjukbbae.api.controller.auth;
 
+import com.jjukbbae.api.service.RefreshTokenService;
+import com.jjukbbae.api.service.UserService;
+import com.jjukbbae.common.ApiResponse;
+import com.jjukbbae.config.properties.AppProperties;
+import com.jjukbbae.oauth.service.TokenRevocationService;
+import com.jjukbbae.oauth.entity.RoleType;
+import com.jjukbbae.oauth.token.AuthToken;
+import com.jjukbbae.oauth.token.AuthTokenProvider;
+import com.jjukbbae.oauth.token.ProfileClaims;
+import com.jjukbbae.oauth.token.TokenFailureReason;
+import com.jjukbbae.oauth.token.TokenType;
+import com.jjukbbae.oauth.token.TokenVerification;
+import com.jjukbbae.utils.CookieUtil;
+import com.jjukbbae.utils.HeaderUtil;
+import com.jjukbbae.utils.RequestCookies;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Date;
+
+import static com.jjukbbae.oauth.repository.OAuth2AuthorizationRequestBasedOnCookieRepository.REFRESH_TOKEN;
+
+@RestController
+@RequestMapping("/api/v1/auth")
+@RequiredArgsConstructor
 public class AuthController {
+
+    private final static String AUTHORITIES_KEY = "role";
+
+    private final AppProperties appProperties;
+    private final AuthTokenProvider tokenProvider;
+    private final RefreshTokenService refreshTokenService;
+    private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
+
+    @PostMapping("/refresh")
+    public ApiResponse<String> refreshToken(HttpServletRequest request, HttpServletResponse response) {
+        // access token 은 만료되었어도 서명이 유효하면 사용자와 권한을 꺼낼 수 있다.
+        Claims claims = getAccessTokenClaims(HeaderUtil.getAccessToken(request));
+        if (claims == null) {
+            return ApiResponse.invalidAccessToken();
+        }
+
+        String userId = claims.getSubject();
+        String role = claims.get(AUTHORITIES_KEY, String.class);
+
+        String refreshTokenStr = RequestCookies.of(request).getValue(REFRESH_TOKEN)
+                .orElse(null);
+        AuthToken refreshToken = tokenProvider.convertAuthToken(refreshTokenStr);
+        TokenVerification refreshVerification = tokenProvider.verifyRefreshToken(refreshToken);
+        if (!refreshVerification.isValid() || !userId.equals(refreshVerification.getClaims().getSubject())) {
+            return ApiResponse.invalidRefreshToken();
+        }
+
+        String familyId = refreshVerification.getClaims().get(AuthTokenProvider.FAMILY_KEY, String.class);
+        AuthToken newRefreshToken = familyId == null ? null : refreshTokenService.rotate(userId, familyId, refreshToken);
+        if (newRefreshToken == null) {
+            return ApiResponse.invalidRefreshToken();
+        }
+
+        Date now = new Date();
+        Date expiry = new Date(now.getTime() + appProperties.getAuth().getTokenExpiry());
+        ProfileClaims profileClaims = getProfileClaims(userId, role);
+        AuthToken newAccessToken = profileClaims != null
+                ? tokenProvider.createAuthToken(userId, profileClaims, expiry)
+                : tokenProvider.createAuthToken(userId, role, expiry);
+
+        CookieUtil.addCookie(response, REFRESH_TOKEN, newRefreshToken.getToken(), refreshTokenService.getCookieMaxAge());
+
+        return ApiResponse.success("token", newAccessToken.getToken());
+    }
+
+    /**
+     * 로그아웃. 지금 access 토큰을 만료될 때까지 폐기하고, refresh 토큰 family 를 지워 더 이상 회전할 수 없게 한다.
+     */
+    @PostMapping("/logout")
+    public ApiResponse<String> logout(HttpServletRequest request, HttpServletResponse response) {
+        TokenVerification verification = tokenProvider.verify(tokenProvider.convertAuthToken(HeaderUtil.getAccessToken(request)));
+        if (!verification.isValid()) {
+            return ApiResponse.invalidAccessToken();
+        }
+
+        String userId = verification.getClaims().getSubject();
+        tokenRevocationService.revoke(verification.getClaims());
+
+        String refreshTokenStr = RequestCookies.of(request).getValue(REFRESH_TOKEN)
+                .orElse(null);
+        TokenVerification refreshVerification = tokenProvider.verifyRefreshToken(tokenProvider.convertAuthToken(refreshTokenStr));
+        if (refreshVerification.isValid() && userId.equals(refreshVerification.getClaims().getSubject())) {
+            String familyId = refreshVerification.getClaims().get(AuthTokenProvider.FAMILY_KEY, String.class);
+            if (familyId != null) {
+                refreshTokenService.revokeFamily(userId, familyId);
+            }
+        }
+        CookieUtil.deleteCookie(request, response, REFRESH_TOKEN);
+
+        return ApiResponse.success("logout", userId);
+    }
+
+    /**
+     * 다른 서버에서 바뀐 프로필도 refresh 때 반영되도록 프로필 claim 은 이전 토큰에서 복사하지 않고 다시 읽는다.
+     */
+    private ProfileClaims getProfileClaims(String userId, String role) {
+        RoleType roleType = RoleType.find(role);
+        if (!appProperties.getAuth().isProfileClaims() || roleType == null) {
+            return null;
+        }
+        return userService.getProfileClaims(userId, roleType);
+    }
+
+    private Claims getAccessTokenClaims(String accessTokenStr) {
+        AuthToken accessToken = tokenProvider.convertAuthToken(accessTokenStr);
+        TokenVerification verification = tokenProvider.verify(accessToken);
+        if (verification.isValid()) {
+            return verification.getClaims();
+        }
+        if (verification.getFailureReason() != TokenFailureReason.EXPIRED) {
+            return null;
+        }
+
+        Claims expiredClaims = accessToken.getExpiredTokenClaims();
+        if (expiredClaims == null || TokenType.of(expiredClaims) != TokenType.ACCESS) {
+            return null;
+        }
+        return tokenProvider.isRevoked(expiredClaims) ? null : expiredClaims;
+    }
 }
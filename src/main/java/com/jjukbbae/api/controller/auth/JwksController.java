@@ -0,0 +1,44 @@
+package com.jjukbbae.api.controller.auth;
+
+import com.jjukbbae.oauth.token.AuthTokenProvider;
+import com.jjukbbae.oauth.token.SigningKeys;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 토큰 검증용 공개 key 를 JWKS 로 내려준다. 다른 서비스는 secret 없이 이 key 로 토큰을 검증한다.
+ * JSON 은 key 가 교체될 때 한 번만 만들어지고, 응답은 ETag 와 Cache-Control 로 캐시된다. 재검증 (304) 에도 max-age 가
+ * 다시 붙도록 Cache-Control 은 checkNotModified 전에 넣는다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    public static final String JWKS_PATH = "/.well-known/jwks.json";
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
+
+    private final AuthTokenProvider tokenProvider;
+
+    @GetMapping(value = JWKS_PATH, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getJwks(WebRequest request, HttpServletResponse response) {
+        SigningKeys signingKeys = tokenProvider.getSigningKeys();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL.getHeaderValue());
+        if (request.checkNotModified(signingKeys.getJwksETag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(signingKeys.getJwksETag())
+                .body(signingKeys.getJwks());
+    }
+}
@@ -1,4 +1,48 @@
 package com.jjukbbae.api.controller.user;
 
+import com.jjukbbae.api.service.UserProfile;
+import com.jjukbbae.api.service.UserService;
+import com.jjukbbae.common.ApiResponse;
+import com.jjukbbae.oauth.entity.TokenPrincipal;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * 사용자 프로필 조회. 응답에는 strong ETag 가 붙고, If-None-Match 가 맞으면 본문을 만들지 않고 304 로 끝낸다.
+ * 사용자마다 다른 응답이므로 공유 캐시에는 두지 않고, 클라이언트는 매번 재검증한다. 304 에도 같은 Cache-Control 이 붙도록
+ * checkNotModified 전에 응답에 넣는다.
+ */
+@RestController
+@RequestMapping("/api/v1/users")
+@RequiredArgsConstructor
 public class UserController {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private final UserService userService;
+
+    @GetMapping("/me")
+    public ResponseEntity<ApiResponse<UserProfile>> getMe(@AuthenticationPrincipal TokenPrincipal principal,
+                                                          WebRequest request, HttpServletResponse response) {
+        UserProfile userProfile = userService.getCurrentUser(principal);
+        if (userProfile == null) {
+            return ResponseEntity.ok(ApiResponse.invalidAccessToken());
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL.getHeaderValue());
+        if (request.checkNotModified(userProfile.eTag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(userProfile.eTag())
+                .body(ApiResponse.success("user", userProfile));
+    }
 }
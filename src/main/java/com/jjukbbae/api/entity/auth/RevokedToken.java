@@ -0,0 +1,34 @@
+package com.jjukbbae.api.entity.auth;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "REVOKED_TOKEN", indexes = @Index(name = "IDX_REVOKED_TOKEN_EXPIRES_AT", columnList = "EXPIRES_AT"))
+public class RevokedToken {
+
+    @Id
+    @Column(name = "JTI", length = 36)
+    @Size(max = 36)
+    private String jti;
+
+    @Column(name = "USER_ID", length = 64)
+    @NotNull
+    @Size(max = 64)
+    private String userId;
+
+    @Column(name = "EXPIRES_AT")
+    @NotNull
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,30 @@
+package com.jjukbbae.api.entity.auth;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 사용자별 토큰 epoch. iat 가 REVOKED_BEFORE (epoch milliseconds) 보다 이른 토큰은 모두 폐기된 것으로 본다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "USER_TOKEN_EPOCH", indexes = @Index(name = "IDX_USER_TOKEN_EPOCH_REVOKED_BEFORE", columnList = "REVOKED_BEFORE"))
+public class UserTokenEpoch {
+
+    @Id
+    @Column(name = "USER_ID", length = 64)
+    @Size(max = 64)
+    private String userId;
+
+    @Column(name = "REVOKED_BEFORE")
+    @NotNull
+    private Long revokedBefore;
+}
@@ -1,6 +1,7 @@
 package com.jjukbbae.api.entity.user;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.jjukbbae.config.jpa.PooledTableIdGenerator;
 import com.jjukbbae.oauth.entity.ProviderType;
 import com.jjukbbae.oauth.entity.RoleType;
 import jakarta.persistence.*;
@@ -10,6 +11,10 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import java.time.LocalDateTime;
 
@@ -19,12 +24,18 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @Table(name = "USERS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
 public class User {
 
+    public static final String CACHE_REGION = "user";
+
     @JsonIgnore
     @Id
     @Column(name = "USER_SEQ")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "user-seq")
+    @GenericGenerator(name = "user-seq", type = PooledTableIdGenerator.class,
+            parameters = @Parameter(name = PooledTableIdGenerator.SEGMENT_VALUE_PARAM, value = "USERS"))
     private Long userSeq;
 
     @Column(name = "USER_ID", length = 64, unique = true)
@@ -0,0 +1,9 @@
+package com.jjukbbae.api.entity.user;
+
+import com.jjukbbae.oauth.entity.ProviderType;
+
+/**
+ * 인증 경로에서 쓰는 USERS 의 일부 컬럼. 엔티티로 읽지 않으므로 persistence context 에 올라가지 않고 dirty checking 대상도 아니다.
+ */
+public record UserCredentials(String userId, String password, ProviderType providerType) {
+}
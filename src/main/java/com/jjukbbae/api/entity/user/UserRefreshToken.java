@@ -1,6 +1,8 @@
 package com.jjukbbae.api.entity.user;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.jjukbbae.config.jpa.PooledTableIdGenerator;
+import com.jjukbbae.utils.HashUtil;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -8,19 +10,24 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "USER_REFRESH_TOKEN")
+@Table(name = "USER_REFRESH_TOKEN",
+        indexes = @Index(name = "IDX_USER_REFRESH_TOKEN_USER_ID_TOKEN_HASH", columnList = "USER_ID, TOKEN_HASH"))
 public class UserRefreshToken {
 
     @JsonIgnore
     @Id
     @Column(name = "REFRESH_TOKEN_ID")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "user-refresh-token-id")
+    @GenericGenerator(name = "user-refresh-token-id", type = PooledTableIdGenerator.class,
+            parameters = @Parameter(name = PooledTableIdGenerator.SEGMENT_VALUE_PARAM, value = "USER_REFRESH_TOKEN"))
     private Long refreshTokenId;
 
     @Column(name = "USER_ID", length = 64, unique = true)
@@ -28,16 +35,38 @@ public class UserRefreshToken {
     @Size(max = 64)
     private String userId;
 
-    @Column(name = "REFRESH_TOKEN", length = 256)
+    /**
+     * refresh 토큰 원문 대신 SHA-256 digest 만 저장한다. DB 가 유출되어도 토큰으로 쓸 수 없다.
+     */
+    @JsonIgnore
+    @Column(name = "TOKEN_HASH", columnDefinition = "BINARY(32)")
     @NotNull
-    @Size(max = 256)
-    private String refreshToken;
+    @Size(min = HashUtil.SHA_256_LENGTH, max = HashUtil.SHA_256_LENGTH)
+    private byte[] tokenHash;
+
+    @Column(name = "FAMILY_ID", length = 36)
+    @Size(max = 36)
+    private String familyId;
+
+    public UserRefreshToken(
+            @NotNull @Size(max = 64) String userId,
+            @NotNull String refreshToken
+    ) {
+        this.userId = userId;
+        this.tokenHash = HashUtil.sha256(refreshToken);
+    }
 
     public UserRefreshToken(
             @NotNull @Size(max = 64) String userId,
-            @NotNull @Size(max = 256) String refreshToken
+            @NotNull String refreshToken,
+            @Size(max = 36) String familyId
     ) {
         this.userId = userId;
-        this.refreshToken = refreshToken;
+        this.tokenHash = HashUtil.sha256(refreshToken);
+        this.familyId = familyId;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.tokenHash = HashUtil.sha256(refreshToken);
     }
 }
@@ -0,0 +1,22 @@
+package com.jjukbbae.api.repository.auth;
+
+import com.jjukbbae.api.entity.auth.UserTokenEpoch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface UserTokenEpochRepository extends JpaRepository<UserTokenEpoch, String> {
+
+    @Query("select e from UserTokenEpoch e where e.revokedBefore > :since")
+    List<UserTokenEpoch> findByRevokedBeforeAfter(long since);
+
+    @Transactional
+    @Modifying
+    @Query("delete from UserTokenEpoch e where e.revokedBefore <= :before")
+    int deleteExpired(long before);
+}
@@ -1,12 +1,65 @@
 package com.jjukbbae.api.repository.user;
 
 import com.jjukbbae.api.entity.user.UserRefreshToken;
+import com.jjukbbae.utils.HashUtil;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface UserRefreshTokenRepository extends JpaRepository<UserRefreshToken, Long> {
+public interface UserRefreshTokenRepository extends JpaRepository<UserRefreshToken, Long>, UserRefreshTokenRepositoryCustom {
 
     UserRefreshToken findByUserId(String userId);
-    UserRefreshToken findByUserIdAndRefreshToken(String userid, String refreshToken);
+    UserRefreshToken findByUserIdAndTokenHash(String userId, byte[] tokenHash);
+
+    default UserRefreshToken findByUserIdAndRefreshToken(String userId, String refreshToken) {
+        return findByUserIdAndTokenHash(userId, HashUtil.sha256(refreshToken));
+    }
+
+    /**
+     * 로그인 시 refresh 토큰 저장. 행이 있으면 UPDATE 한 문장으로 끝나고, 없을 때만 REFRESH_TOKEN_ID 를 받아
+     * USER_ID unique key 로 insert-or-update 한다. 같은 사용자가 동시에 로그인해도 행이 하나로 유지되고 마지막 로그인이 남는다.
+     * REFRESH_TOKEN_ID 는 트랜잭션 밖에서 받으며, 동시에 첫 로그인한 요청끼리 겹친 경우에만 쓰이지 않고 버려진다.
+     */
+    default int upsert(String userId, byte[] tokenHash, String familyId) {
+        int updated = replaceToken(userId, tokenHash, familyId);
+        if (updated > 0) {
+            return updated;
+        }
+        return upsert(nextRefreshTokenId(), userId, tokenHash, familyId);
+    }
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update UserRefreshToken t set t.tokenHash = :tokenHash, t.familyId = :familyId where t.userId = :userId")
+    int replaceToken(String userId, byte[] tokenHash, String familyId);
+
+    /**
+     * query space 를 선언하지 않으면 Hibernate 가 2차 cache 전체 (user region 포함) 를 비운다.
+     * query space 는 naming strategy 를 거친 물리 테이블 이름이다.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_refresh_token"))
+    @Query(value = "insert into USER_REFRESH_TOKEN (REFRESH_TOKEN_ID, USER_ID, TOKEN_HASH, FAMILY_ID) "
+            + "values (:refreshTokenId, :userId, :tokenHash, :familyId) "
+            + "on duplicate key update TOKEN_HASH = values(TOKEN_HASH), FAMILY_ID = values(FAMILY_ID)", nativeQuery = true)
+    int upsert(Long refreshTokenId, String userId, byte[] tokenHash, String familyId);
+
+    /**
+     * 현재 토큰이 oldToken 일 때만 newToken 으로 바꾼다. 회전 성공 여부를 한 문장으로 판단한다.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update UserRefreshToken t set t.tokenHash = :newTokenHash "
+            + "where t.userId = :userId and t.familyId = :familyId and t.tokenHash = :oldTokenHash")
+    int rotate(String userId, String familyId, byte[] oldTokenHash, byte[] newTokenHash);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from UserRefreshToken t where t.userId = :userId and t.familyId = :familyId")
+    int deleteFamily(String userId, String familyId);
 }
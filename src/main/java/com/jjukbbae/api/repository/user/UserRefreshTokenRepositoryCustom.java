@@ -0,0 +1,9 @@
+package com.jjukbbae.api.repository.user;
+
+public interface UserRefreshTokenRepositoryCustom {
+
+    /**
+     * native upsert 에 쓸 REFRESH_TOKEN_ID. 엔티티 저장과 같은 generator 에서 받는다. 트랜잭션 밖에서 부른다.
+     */
+    Long nextRefreshTokenId();
+}
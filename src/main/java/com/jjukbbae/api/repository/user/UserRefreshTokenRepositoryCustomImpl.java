@@ -0,0 +1,17 @@
+package com.jjukbbae.api.repository.user;
+
+import com.jjukbbae.api.entity.user.UserRefreshToken;
+import com.jjukbbae.config.jpa.PooledTableIdGenerator;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class UserRefreshTokenRepositoryCustomImpl implements UserRefreshTokenRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Long nextRefreshTokenId() {
+        return PooledTableIdGenerator.nextId(entityManager, UserRefreshToken.class);
+    }
+}
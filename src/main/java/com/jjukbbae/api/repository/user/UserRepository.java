@@ -1,11 +1,73 @@
 package com.jjukbbae.api.repository.user;
 
 import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.api.entity.user.UserCredentials;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    /**
+     * 첫 로그인 시 사용자 생성. USER_ID 가 이미 있으면 아무것도 바꾸지 않으므로
+     * 같은 사용자의 동시 첫 로그인이 unique 제약에 걸리지 않는다. USER_SEQ 는 nextUserSeq 로 미리 채워 둔다.
+     * 이어지는 findForUpdateByUserId 와 같은 트랜잭션 안에서 부른다.
+     * query space 를 users 로 선언해 2차 cache 에서는 USERS 의 region 과 query 결과만 무효화된다.
+     * query space 는 naming strategy 를 거친 물리 테이블 이름 (소문자) 이어야 엔티티의 것과 맞는다.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"))
+    @Query(value = "insert into USERS (USER_SEQ, USER_ID, USERNAME, PASSWORD, EMAIL, EMAIL_VERIFIED_YN, PROFILE_IMAGE_URL, "
+            + "PROVIDER_TYPE, ROLE_TYPE, CREATED_AT, MODIFIED_AT) "
+            + "values (:#{#user.userSeq}, :#{#user.userId}, :#{#user.username}, :#{#user.password}, :#{#user.email}, :#{#user.emailVerifiedYn}, "
+            + ":#{#user.profileImageUrl}, :#{#user.providerType.name()}, :#{#user.roleType.name()}, "
+            + ":#{#user.createdAt}, :#{#user.modifiedAt}) "
+            + "on duplicate key update USER_ID = USER_ID", nativeQuery = true)
+    int insertIfAbsent(@Param("user") User user);
+
+    /**
+     * 로그인 시 바뀐 프로필만 반영한다. 엔티티 merge 없이 UPDATE 한 문장으로 끝난다. 호출한 쪽의 트랜잭션 안에서 부른다.
+     * 바뀌었는지는 DB 의 현재 값으로 판단하므로, 이미 같은 값이면 아무 행도 바꾸지 않는다.
+     *
+     * @return 바뀐 행 수
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.username = :username, u.profileImageUrl = :profileImageUrl, u.modifiedAt = :modifiedAt "
+            + "where u.userId = :userId and (u.username <> :username or u.profileImageUrl <> :profileImageUrl)")
+    int updateProfile(@Param("userId") String userId,
+                      @Param("username") String username,
+                      @Param("profileImageUrl") String profileImageUrl,
+                      @Param("modifiedAt") LocalDateTime modifiedAt);
+
+    /**
+     * near cache 와 2차 cache 를 거치지 않고 DB 의 현재 행을 읽는다. 로그인처럼 읽은 값으로 쓰기와 토큰을 만드는 경로에서 쓴다.
+     */
+    @Query("select u from User u where u.userId = :userId")
+    User findCurrentByUserId(@Param("userId") String userId);
+
+    /**
+     * 잠금 조회. MySQL 의 REPEATABLE READ 에서도 다른 트랜잭션이 방금 커밋한 행을 읽는다.
+     * 잠금은 호출한 쪽의 트랜잭션이 끝날 때까지 유지된다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.userId = :userId")
+    User findForUpdateByUserId(@Param("userId") String userId);
 
-    User findByUserId(String userId);
+    /**
+     * UserDetailsService 용. 필요한 세 컬럼만 DTO 로 읽는다. 결과는 query cache 에 두며 USERS 가 바뀌면 무효화된다.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.jjukbbae.api.entity.user.UserCredentials(u.userId, u.password, u.providerType) "
+            + "from User u where u.userId = :userId")
+    UserCredentials findCredentialsByUserId(@Param("userId") String userId);
 }
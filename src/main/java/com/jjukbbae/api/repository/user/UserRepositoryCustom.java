@@ -0,0 +1,19 @@
+package com.jjukbbae.api.repository.user;
+
+import com.jjukbbae.api.entity.user.User;
+
+public interface UserRepositoryCustom {
+
+    User findByUserId(String userId);
+
+    /**
+     * native insert 에 쓸 USER_SEQ. 엔티티 저장과 같은 generator 에서 받는다. 트랜잭션 밖에서 부른다.
+     */
+    Long nextUserSeq();
+
+    /**
+     * userId 의 캐시 항목을 지운다. 트랜잭션 안이면 커밋 후에도 한 번 더 지워서
+     * 커밋 전에 다른 요청이 읽어 간 이전 값이 남지 않게 한다.
+     */
+    void evictByUserId(String userId);
+}
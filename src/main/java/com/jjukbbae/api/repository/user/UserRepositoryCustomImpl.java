@@ -0,0 +1,124 @@
+package com.jjukbbae.api.repository.user;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.config.jpa.PooledTableIdGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * findByUserId 앞의 near cache. 크기와 TTL 로 제한되고, 같은 userId 를 동시에 찾는 요청은
+ * 하나의 쿼리만 실행한다. 쿼리는 map 의 lock (compute) 밖에서 처음 요청한 thread 가 실행하고 나머지는 future 를 기다리므로,
+ * virtual thread 에서도 JDBC I/O 가 carrier thread 를 붙잡지 않는다. 캐시에는 엔티티의 복사본을 두고
+ * 조회할 때마다 다시 복사해서 돌려주므로, 호출한 쪽이 엔티티를 수정해도 캐시는 바뀌지 않는다.
+ * evictByUserId 는 이 인스턴스의 캐시만 비운다. 다른 인스턴스에서는 이 캐시와 그 아래 2차 cache 의 TTL 이 지날 때까지
+ * 바뀌기 전 값이 보일 수 있다 (기본 각 60초, 합쳐서 최대 2분).
+ * 그래서 로그인처럼 읽은 값으로 쓰기와 토큰을 만드는 경로는 이 캐시 대신 findCurrentByUserId 로 DB 를 읽는다.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom, MeterBinder {
+
+    private static final String CACHE_NAME = "user.near-cache";
+
+    private final EntityManager entityManager;
+    private final AsyncCache<String, User> cache;
+
+    public UserRepositoryCustomImpl(EntityManager entityManager,
+                                    @Value("${app.user-cache.maximum-size:10000}") long maximumSize,
+                                    @Value("${app.user-cache.ttl:60s}") Duration ttl) {
+        this.entityManager = entityManager;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    @Override
+    public User findByUserId(String userId) {
+        CompletableFuture<User> loading = new CompletableFuture<>();
+        CompletableFuture<User> future = cache.get(userId, (key, executor) -> loading);
+        if (future == loading) {
+            try {
+                loading.complete(load(userId));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        User cached;
+        try {
+            cached = future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return cached != null ? copy(cached) : null;
+    }
+
+    @Override
+    public Long nextUserSeq() {
+        return PooledTableIdGenerator.nextId(entityManager, User.class);
+    }
+
+    @Override
+    public void evictByUserId(String userId) {
+        cache.synchronous().invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.synchronous().invalidate(userId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache.synchronous(), CACHE_NAME, Collections.emptyList());
+    }
+
+    private User load(String userId) {
+        // USER_ID -> USER_SEQ 는 query cache 에, 엔티티는 2차 cache 의 user region 에 두어 near cache 에서 빠진 뒤에도 DB 를 읽지 않는다.
+        // query cache 에 엔티티를 통째로 두면 user region 을 거치지 않으므로 id 만 둔다.
+        // 트랜잭션 밖에서는 쿼리 직후 EntityManager 가 닫히므로 stream 이 아닌 list 로 받는다.
+        List<Long> userSeqs = entityManager.createQuery("select u.userSeq from User u where u.userId = :userId", Long.class)
+                .setParameter("userId", userId)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getResultList();
+        if (userSeqs.isEmpty()) {
+            return null;
+        }
+        User user = entityManager.find(User.class, userSeqs.get(0));
+        return user != null ? copy(user) : null;
+    }
+
+    private static User copy(User user) {
+        return new User(
+                user.getUserSeq(),
+                user.getUserId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getEmail(),
+                user.getEmailVerifiedYn(),
+                user.getProfileImageUrl(),
+                user.getProviderType(),
+                user.getRoleType(),
+                user.getCreatedAt(),
+                user.getModifiedAt()
+        );
+    }
+}
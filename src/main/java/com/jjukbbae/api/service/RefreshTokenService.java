@@ -0,0 +1,73 @@
+package com.jjukbbae.api.service;
+
+import com.jjukbbae.api.repository.user.UserRefreshTokenRepository;
+import com.jjukbbae.config.properties.AppProperties;
+import com.jjukbbae.oauth.service.TokenRevocationService;
+import com.jjukbbae.oauth.token.AuthToken;
+import com.jjukbbae.oauth.token.AuthTokenProvider;
+import com.jjukbbae.utils.HashUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * refresh 토큰 발급과 회전. 로그인할 때마다 새 family 가 시작되고, refresh 할 때마다 같은 family 안에서 토큰이 바뀐다.
+ * 이미 회전된 (이전) 토큰이 다시 쓰이면 탈취로 보고 family 와 사용자의 access 토큰을 모두 폐기한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private final AuthTokenProvider tokenProvider;
+    private final AppProperties appProperties;
+    private final UserRefreshTokenRepository userRefreshTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+
+    public AuthToken issue(String userId) {
+        String familyId = UUID.randomUUID().toString();
+        AuthToken refreshToken = tokenProvider.createRefreshToken(userId, familyId, newExpiry());
+        userRefreshTokenRepository.upsert(userId, HashUtil.sha256(refreshToken.getToken()), familyId);
+        return refreshToken;
+    }
+
+    /**
+     * @return 새 refresh 토큰, 회전할 수 없으면 null
+     */
+    @Transactional
+    public AuthToken rotate(String userId, String familyId, AuthToken refreshToken) {
+        AuthToken newRefreshToken = tokenProvider.createRefreshToken(userId, familyId, newExpiry());
+        int rotated = userRefreshTokenRepository.rotate(userId, familyId,
+                HashUtil.sha256(refreshToken.getToken()), HashUtil.sha256(newRefreshToken.getToken()));
+        if (rotated == 1) {
+            return newRefreshToken;
+        }
+
+        // 서명이 유효한 같은 family 의 토큰인데 현재 토큰이 아니라면 이미 회전된 토큰의 재사용이다.
+        if (userRefreshTokenRepository.deleteFamily(userId, familyId) > 0) {
+            log.warn("Refresh token reuse detected. Revoking token family. userId := [{}]", userId);
+            tokenRevocationService.revokeAll(userId);
+        }
+        return null;
+    }
+
+    /**
+     * 로그아웃한 기기의 family 를 지운다. 남아 있는 refresh 토큰은 회전되지 않는다.
+     */
+    @Transactional
+    public void revokeFamily(String userId, String familyId) {
+        userRefreshTokenRepository.deleteFamily(userId, familyId);
+    }
+
+    public int getCookieMaxAge() {
+        return (int) (appProperties.getAuth().getRefreshTokenExpiry() / 1000);
+    }
+
+    private Date newExpiry() {
+        return new Date(System.currentTimeMillis() + appProperties.getAuth().getRefreshTokenExpiry());
+    }
+}
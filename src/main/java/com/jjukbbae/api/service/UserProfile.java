@@ -0,0 +1,26 @@
+package com.jjukbbae.api.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.entity.RoleType;
+import com.jjukbbae.oauth.token.ProfileClaims;
+
+/**
+ * /api/v1/users/me 응답. access token 의 프로필 claim 이나 USERS 행 어느 쪽에서도 만들 수 있는 필드만 둔다.
+ * eTag 는 응답 header 로만 내려간다.
+ */
+public record UserProfile(String userId, String username, String profileImageUrl,
+                          ProviderType providerType, RoleType roleType, long profileVersion,
+                          @JsonIgnore String eTag) {
+
+    public static UserProfile of(String userId, ProfileClaims profileClaims, String eTag) {
+        return new UserProfile(userId, profileClaims.name(), profileClaims.imageUrl(),
+                profileClaims.providerType(), profileClaims.roleType(), profileClaims.version(), eTag);
+    }
+
+    public static UserProfile of(User user, String eTag) {
+        return new UserProfile(user.getUserId(), user.getUsername(), user.getProfileImageUrl(),
+                user.getProviderType(), user.getRoleType(), ProfileClaims.versionOf(user.getModifiedAt()), eTag);
+    }
+}
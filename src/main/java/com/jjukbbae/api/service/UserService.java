@@ -1,4 +1,129 @@
 package com.jjukbbae.api.service;
 
-public class UserService {
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.api.repository.user.UserRepository;
+import com.jjukbbae.config.properties.AppProperties;
+import com.jjukbbae.oauth.entity.RoleType;
+import com.jjukbbae.oauth.entity.TokenPrincipal;
+import com.jjukbbae.oauth.token.ProfileClaims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 현재 사용자 조회. access token 의 프로필 claim 이 이 서버가 아는 최신 version 이상이면 claim 으로 답하고,
+ * 더 새 version 을 알고 있거나 claim 이 없으면 USERS 에서 읽는다.
+ * 최신 version 과 그 ETag 는 로그인, refresh, DB 조회 때 기록하며 access token 수명 동안만 들고 있는다.
+ * 다른 서버에서 바뀐 프로필은 다음 refresh (새 claim 발급) 때 반영된다.
+ */
+@Service
+public class UserService implements MeterBinder {
+
+    private static final String ME_METER = "user.me.requests";
+
+    private final UserRepository userRepository;
+    private final Cache<String, ProfileValidator> profileValidators;
+    private final LongAdder claimHits = new LongAdder();
+    private final LongAdder databaseHits = new LongAdder();
+
+    public UserService(UserRepository userRepository,
+                       AppProperties appProperties,
+                       @Value("${app.user-profile.versions-maximum-size:100000}") long versionsMaximumSize) {
+        this.userRepository = userRepository;
+        this.profileValidators = Caffeine.newBuilder()
+                .maximumSize(versionsMaximumSize)
+                .expireAfterWrite(Duration.ofMillis(appProperties.getAuth().getTokenExpiry()))
+                .build();
+    }
+
+    /**
+     * @return 사용자, 토큰 발급 이후 사용자가 삭제되었으면 null
+     */
+    public UserProfile getCurrentUser(TokenPrincipal principal) {
+        String userId = principal.getSubject();
+        ProfileClaims profileClaims = principal.getProfileClaims();
+        if (profileClaims != null) {
+            ProfileValidator latest = profileValidators.getIfPresent(userId);
+            if (latest == null || latest.version() <= profileClaims.version()) {
+                claimHits.increment();
+                ProfileValidator validator = recordProfile(userId, profileClaims.userSeq(), profileClaims.version(),
+                        profileClaims.roleType());
+                return UserProfile.of(userId, profileClaims, validator.eTag());
+            }
+        }
+
+        databaseHits.increment();
+        User user = userRepository.findByUserId(userId);
+        if (user == null) {
+            return null;
+        }
+        ProfileValidator validator = recordProfile(userId, user.getUserSeq(), ProfileClaims.versionOf(user.getModifiedAt()),
+                user.getRoleType());
+        return UserProfile.of(user, validator.eTag());
+    }
+
+    /**
+     * refresh 때 새 access token 에 넣을 프로필 claim.
+     *
+     * @return 사용자가 없으면 null
+     */
+    public ProfileClaims getProfileClaims(String userId, RoleType roleType) {
+        User user = userRepository.findByUserId(userId);
+        if (user == null) {
+            return null;
+        }
+        ProfileClaims profileClaims = ProfileClaims.of(user, roleType);
+        recordProfile(userId, profileClaims.userSeq(), profileClaims.version(), profileClaims.roleType());
+        return profileClaims;
+    }
+
+    /**
+     * 사용자의 프로필 version 을 기록하고 그 version 과 role 의 validator 를 돌려준다. 같으면 만들어 둔 validator 를 그대로 쓴다.
+     * 기록은 더 새 version 만 남긴다.
+     */
+    public ProfileValidator recordProfile(String userId, long userSeq, long version, RoleType roleType) {
+        ProfileValidator current = profileValidators.getIfPresent(userId);
+        if (current != null && current.version() == version && current.roleType() == roleType) {
+            return current;
+        }
+
+        ProfileValidator validator = new ProfileValidator(version, roleType, eTagOf(userSeq, version, roleType));
+        profileValidators.asMap().merge(userId, validator,
+                (existing, recorded) -> existing.version() > recorded.version() ? existing : recorded);
+        return validator;
+    }
+
+    /**
+     * USER_SEQ, MODIFIED_AT, role 로 만든 strong ETag. 프로필이 바뀌면 MODIFIED_AT 이 바뀐다.
+     * role 은 claim 경로에서는 토큰의 role 이라 같은 version 이어도 DB 와 다를 수 있으므로 함께 넣는다.
+     */
+    static String eTagOf(long userSeq, long version, RoleType roleType) {
+        return "\"" + Long.toHexString(userSeq) + "-" + Long.toHexString(version)
+                + "-" + (roleType != null ? roleType.name() : "NONE") + "\"";
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(ME_METER, claimHits, LongAdder::doubleValue)
+                .description("Current user requests by source")
+                .tag("source", "claims")
+                .register(registry);
+        FunctionCounter.builder(ME_METER, databaseHits, LongAdder::doubleValue)
+                .description("Current user requests by source")
+                .tag("source", "database")
+                .register(registry);
+    }
+
+    /**
+     * 사용자별로 알고 있는 최신 프로필 version 과 그 ETag.
+     */
+    public record ProfileValidator(long version, RoleType roleType, String eTag) {
+    }
 }
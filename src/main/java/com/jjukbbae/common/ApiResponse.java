@@ -1,4 +1,36 @@
 package com.jjukbbae.common;
 
-public class ApiResponse {
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@RequiredArgsConstructor
+public class ApiResponse<T> {
+
+    private final static int SUCCESS = 200;
+    private final static int UNAUTHORIZED = 401;
+    private final static String SUCCESS_MESSAGE = "SUCCESS";
+    private final static String INVALID_ACCESS_TOKEN = "Invalid access token.";
+    private final static String INVALID_REFRESH_TOKEN = "Invalid refresh token.";
+
+    private final ApiResponseHeader header;
+    private final Map<String, T> body;
+
+    public static <T> ApiResponse<T> success(String name, T body) {
+        Map<String, T> map = new HashMap<>();
+        map.put(name, body);
+
+        return new ApiResponse<>(new ApiResponseHeader(SUCCESS, SUCCESS_MESSAGE), map);
+    }
+
+    public static <T> ApiResponse<T> invalidAccessToken() {
+        return new ApiResponse<>(new ApiResponseHeader(UNAUTHORIZED, INVALID_ACCESS_TOKEN), null);
+    }
+
+    public static <T> ApiResponse<T> invalidRefreshToken() {
+        return new ApiResponse<>(new ApiResponseHeader(UNAUTHORIZED, INVALID_REFRESH_TOKEN), null);
+    }
 }
@@ -1,4 +1,15 @@
 package com.jjukbbae.common;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class ApiResponseHeader {
+    private int code;
+    private String message;
 }
@@ -0,0 +1,27 @@
+package com.jjukbbae.config.jpa;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * insert/update 를 JDBC batch 로 묶는다. 같은 테이블의 문장끼리 모이도록 정렬해야 batch 가 끊기지 않는다.
+ * id 를 batch 하나마다 한 번만 받도록 allocation size 는 batch size 이상으로 둔다.
+ */
+@Configuration
+public class JdbcBatchConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchCustomizer(@Value("${app.jpa.batch-size:50}") int batchSize,
+                                                             @Value("${" + PooledTableIdGenerator.ALLOCATION_SIZE + ":"
+                                                                     + PooledTableIdGenerator.DEFAULT_ALLOCATION_SIZE + "}") int allocationSize) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.put(AvailableSettings.ORDER_INSERTS, true);
+            properties.put(AvailableSettings.ORDER_UPDATES, true);
+            properties.put(PooledTableIdGenerator.ALLOCATION_SIZE, allocationSize);
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.jjukbbae.config.jpa;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.jjukbbae.api.entity.user.User;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate 2차 cache. JCache API 위에 Caffeine 을 provider 로 써서 인스턴스 안에만 둔다.
+ * 인증 경로는 USER_ID 로 조회하므로 query cache 로 USER_ID -> id (또는 DTO) 를 두고 엔티티는 user region 에서 읽는다.
+ * region 은 미리 크기와 TTL 을 정해 만들어 두고, 정하지 않은 region 을 쓰는 엔티티가 생기면 시작할 때 실패한다.
+ * bulk update / native insert 는 Hibernate 가 해당 테이블의 region 과 query 결과를 무효화하므로 같은 인스턴스 안에서는 바로 반영된다.
+ * 무효화는 인스턴스 밖으로 퍼지지 않는다. near cache (UserRepositoryCustomImpl) 는 이 region 에서 읽어 채우므로
+ * region TTL 이 near cache TTL 보다 길면 두 TTL 이 겹쳐 쌓인다. 그래서 region TTL 은 기본값을 near cache TTL 로 두고,
+ * 더 길게 설정하면 시작할 때 실패한다. 다른 인스턴스가 바꾼 User 는 최대 near cache TTL 의 두 배 (기본 2분) 동안 보일 수 있다.
+ * native insert 는 query space 를 선언하지 않으면 모든 region 을 비우므로 반드시 선언한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.jpa.second-level-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${app.jpa.second-level-cache.maximum-size:10000}") long maximumSize,
+                                              @Value("${app.jpa.second-level-cache.ttl:${app.user-cache.ttl:60s}}") Duration ttl,
+                                              @Value("${app.user-cache.ttl:60s}") Duration nearCacheTtl) {
+        if (ttl.compareTo(nearCacheTtl) > 0) {
+            throw new IllegalStateException("app.jpa.second-level-cache.ttl (" + ttl
+                    + ") must not be longer than app.user-cache.ttl (" + nearCacheTtl + ")");
+        }
+        // 기본 URI 의 CacheManager 는 JVM 전체에서 공유되므로 context 마다 따로 만든다.
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + System.identityHashCode(this)), getClass().getClassLoader());
+        cacheManager.createCache(User.CACHE_REGION, regionConfiguration(maximumSize, ttl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, regionConfiguration(maximumSize, ttl));
+        // 테이블별 마지막 변경 시각. 지워지면 오래된 query 결과를 최신으로 보게 되므로 크기와 TTL 을 두지 않는다 (테이블 수만큼만 쌓인다).
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
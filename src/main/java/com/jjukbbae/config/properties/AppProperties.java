@@ -26,6 +26,8 @@ public class AppProperties {
         private String tokenSecret;
         private long tokenExpiry;
         private long refreshTokenExpiry;
+        // access token 에 프로필 claim (ProfileClaims) 을 넣을지
+        private boolean profileClaims;
     }
 
     public static final class OAuth2 {
@@ -1,17 +1,78 @@
 package com.jjukbbae.config.security;
 
 import com.jjukbbae.oauth.token.AuthTokenProvider;
+import com.jjukbbae.oauth.token.SigningKey;
+import com.jjukbbae.oauth.token.TokenKeyRing;
+import com.jjukbbae.oauth.token.TokenKeyStore;
+import com.jjukbbae.oauth.token.TokenRevocationChecker;
+import com.jjukbbae.oauth.token.VerifiedClaimsCache;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
 
 @Configuration
 public class JwtConfig {
-    @Value("${jwt.secret}")
+    @Value("${jwt.secret:}")
     private String secret;
 
+    @Value("${jwt.claims-cache-size:10000}")
+    private long claimsCacheSize;
+
+    @Value("${jwt.keystore.path:}")
+    private String keyStorePath;
+
+    @Value("${jwt.keystore.password:}")
+    private String keyStorePassword;
+
+    @Value("${jwt.keystore.reload-interval:30s}")
+    private Duration keyStoreReloadInterval;
+
+    @Value("${jwt.signing-algorithm:HS256}")
+    private SignatureAlgorithm signingAlgorithm;
+
+    @Bean
+    @ConditionalOnProperty("jwt.keystore.path")
+    public TokenKeyStore tokenKeyStore() {
+        // keystore 도입 전에 jwt.secret 으로 발급된 (kid 없는) 토큰은 만료될 때까지 계속 검증한다.
+        SigningKey legacy = StringUtils.hasText(secret)
+                ? new SigningKey(null, Keys.hmacShaKeyFor(secret.getBytes()))
+                : null;
+        return new TokenKeyStore(Path.of(keyStorePath), keyStorePassword, legacy, signingAlgorithm);
+    }
+
+    @Bean
+    public AuthTokenProvider jwtProvider(ObjectProvider<TokenKeyStore> tokenKeyStore,
+                                         ObjectProvider<TokenRevocationChecker> revocationChecker) {
+        AuthTokenProvider tokenProvider = createTokenProvider(tokenKeyStore.getIfAvailable());
+        revocationChecker.ifAvailable(tokenProvider::setRevocationChecker);
+        return tokenProvider;
+    }
+
+    private AuthTokenProvider createTokenProvider(TokenKeyStore keyStore) {
+        VerifiedClaimsCache claimsCache = new VerifiedClaimsCache(claimsCacheSize);
+        if (keyStore == null) {
+            if (!signingAlgorithm.isHmac()) {
+                throw new IllegalStateException("jwt.signing-algorithm " + signingAlgorithm + " requires jwt.keystore.path.");
+            }
+            return new AuthTokenProvider(secret, signingAlgorithm, claimsCache);
+        }
+
+        AuthTokenProvider tokenProvider = new AuthTokenProvider(new TokenKeyRing(keyStore.load()), claimsCache);
+        keyStore.watch(tokenProvider, keyStoreReloadInterval);
+        return tokenProvider;
+    }
+
     @Bean
-    public AuthTokenProvider jwtProvider() {
-        return new AuthTokenProvider(secret);
+    public MeterBinder tokenFailureMetrics(AuthTokenProvider jwtProvider) {
+        return jwtProvider.getFailureCounter();
     }
 }
@@ -1,4 +1,126 @@
 package com.jjukbbae.config.security;
 
+import com.jjukbbae.api.controller.auth.JwksController;
+import com.jjukbbae.config.properties.CorsProperties;
+import com.jjukbbae.oauth.client.ProviderHttpClients;
+import com.jjukbbae.oauth.entity.RoleType;
+import com.jjukbbae.oauth.exception.RestAuthenticationEntryPoint;
+import com.jjukbbae.oauth.filter.TokenAuthenticationFilter;
+import com.jjukbbae.oauth.handler.OAuth2AuthenticationFailureHandler;
+import com.jjukbbae.oauth.handler.OAuth2AuthenticationSuccessHandler;
+import com.jjukbbae.oauth.handler.TokenAccessDeniedHandler;
+import com.jjukbbae.oauth.repository.AuthorizationRequestCookieCodec;
+import com.jjukbbae.oauth.repository.OAuth2AuthorizationRequestBasedOnCookieRepository;
+import com.jjukbbae.oauth.service.CustomOAuth2UserService;
+import com.jjukbbae.oauth.token.AuthTokenProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.cors.CorsUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
 public class SecurityConfig {
+
+    private final CorsProperties corsProperties;
+    private final AuthTokenProvider tokenProvider;
+    private final CustomOAuth2UserService oAuth2UserService;
+    private final TokenAccessDeniedHandler tokenAccessDeniedHandler;
+
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler,
+                                           OAuth2AuthenticationFailureHandler oAuth2AuthenticationFailureHandler,
+                                           ProviderHttpClients providerHttpClients,
+                                           OAuth2AuthorizationRequestBasedOnCookieRepository authorizationRequestRepository) throws Exception {
+        http
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .csrf(AbstractHttpConfigurer::disable)
+                .formLogin(AbstractHttpConfigurer::disable)
+                .httpBasic(AbstractHttpConfigurer::disable)
+                .exceptionHandling(exception -> exception
+                        .authenticationEntryPoint(new RestAuthenticationEntryPoint())
+                        .accessDeniedHandler(tokenAccessDeniedHandler))
+                .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers(CorsUtils::isPreFlightRequest).permitAll()
+                        .requestMatchers(new AntPathRequestMatcher(JwksController.JWKS_PATH)).permitAll()
+                        // 만료된 access 토큰으로 호출하므로 인증 없이 열어 두고 컨트롤러에서 검증한다.
+                        .requestMatchers(new AntPathRequestMatcher("/api/v1/auth/refresh", HttpMethod.POST.name())).permitAll()
+                        .requestMatchers(new AntPathRequestMatcher("/api/**"))
+                        .hasAnyAuthority(RoleType.USER.getCode(), RoleType.ADMIN.getCode())
+                        .anyRequest().authenticated())
+                .oauth2Login(oauth2 -> oauth2
+                        .authorizationEndpoint(authorization -> authorization
+                                .baseUri("/oauth2/authorization")
+                                .authorizationRequestRepository(authorizationRequestRepository))
+                        .redirectionEndpoint(redirection -> redirection.baseUri("/*/oauth2/code/*"))
+                        .tokenEndpoint(token -> token.accessTokenResponseClient(providerHttpClients.createAccessTokenResponseClient()))
+                        .userInfoEndpoint(userInfo -> userInfo.userService(oAuth2UserService))
+                        .successHandler(oAuth2AuthenticationSuccessHandler)
+                        .failureHandler(oAuth2AuthenticationFailureHandler))
+                .addFilterBefore(new TokenAuthenticationFilter(tokenProvider), UsernamePasswordAuthenticationFilter.class);
+
+        return http.build();
+    }
+
+    /*
+     * 쿠키 기반 인가 Repository
+     * 인가 응답을 연계 하고 검증할 때 사용.
+     * cookie 는 secret 으로 MAC 을 붙이므로 모든 인스턴스가 같은 secret 을 써야 한다. legacy reader 는 이전 형식
+     * (Java 직렬화) cookie 를 배포 중에만 읽기 위한 것으로 기본은 꺼져 있다. 이전 형식을 쓰던 버전에서 올라가는 배포에서만
+     * app.oauth2.legacy-cookie-reader=true 로 배포하고, 이전 버전이 모두 내려가고 cookie 수명 (3분) 이 지나면 설정을 지워 다시 배포한다.
+     */
+    @Bean
+    public OAuth2AuthorizationRequestBasedOnCookieRepository oAuth2AuthorizationRequestBasedOnCookieRepository(
+            @Value("${app.oauth2.cookie-secret:${jwt.secret:}}") String cookieSecret,
+            @Value("${app.oauth2.legacy-cookie-reader:false}") boolean legacyCookieReader) {
+        if (legacyCookieReader) {
+            log.warn("app.oauth2.legacy-cookie-reader is enabled. Remove it once the previous version is fully undeployed.");
+        }
+        AuthorizationRequestCookieCodec codec;
+        if (StringUtils.hasText(cookieSecret)) {
+            codec = new AuthorizationRequestCookieCodec(cookieSecret.getBytes(StandardCharsets.UTF_8),
+                    OAuth2AuthorizationRequestBasedOnCookieRepository.COOKIE_EXPIRE_SECONDS, legacyCookieReader);
+        } else {
+            log.warn("app.oauth2.cookie-secret is not set. Authorization request cookies are readable only by this instance.");
+            codec = AuthorizationRequestCookieCodec.withRandomKey(
+                    OAuth2AuthorizationRequestBasedOnCookieRepository.COOKIE_EXPIRE_SECONDS, legacyCookieReader);
+        }
+        return new OAuth2AuthorizationRequestBasedOnCookieRepository(codec);
+    }
+
+    /*
+     * Cors 설정
+     */
+    @Bean
+    public UrlBasedCorsConfigurationSource corsConfigurationSource() {
+        UrlBasedCorsConfigurationSource corsConfigSource = new UrlBasedCorsConfigurationSource();
+
+        CorsConfiguration corsConfig = new CorsConfiguration();
+        corsConfig.setAllowedHeaders(Arrays.asList(corsProperties.getAllowedHeaders().split(",")));
+        corsConfig.setAllowedMethods(Arrays.asList(corsProperties.getAllowedMethods().split(",")));
+        corsConfig.setAllowedOrigins(Arrays.asList(corsProperties.getAllowedOrigins().split(",")));
+        corsConfig.setAllowCredentials(true);
+        corsConfig.setMaxAge(corsProperties.getMaxAge());
+
+        corsConfigSource.registerCorsConfiguration("/**", corsConfig);
+        return corsConfigSource;
+    }
 }
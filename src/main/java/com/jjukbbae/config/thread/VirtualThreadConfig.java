@@ -0,0 +1,31 @@
+package com.jjukbbae.config.thread;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * spring.threads.virtual.enabled=true 로 켜는 virtual thread 모드. Spring Boot 가 Tomcat 요청 처리를 virtual thread 로 돌리고,
+ * 로그인 경로의 provider HTTP 호출과 JPA 호출은 요청 thread 에서 실행되므로 그대로 virtual thread 위에서 block 된다.
+ * 요청 수가 thread pool 로 제한되지 않으므로 provider 호출은 ProviderCallGuard 의 bulkhead, DB 는 connection pool 이 상한이 된다.
+ * blocking I/O 를 synchronized 안에서 하는 라이브러리는 Java 21 에서 carrier thread 를 붙잡는다 (pinning).
+ * mysql-connector-j 8.x 는 socket I/O 를 synchronized 로 감싸고 httpclient5 5.2 는 connection pool 의 lease 가 synchronized 이므로,
+ * build.gradle 에서 ReentrantLock 으로 바뀐 Connector/J 9.x 와 httpclient5 5.4 로 올려 둔다. 버전을 내리면 이 모드의 이점이 사라진다.
+ * Java 21 미만에서는 Boot 가 이 설정을 조용히 무시하므로 시작할 때 경고를 남긴다.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    static final int MIN_FEATURE_VERSION = 21;
+
+    public VirtualThreadConfig() {
+        int featureVersion = Runtime.version().feature();
+        if (featureVersion < MIN_FEATURE_VERSION) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads. Requests run on platform threads.", featureVersion);
+        } else {
+            log.info("Running request handling on virtual threads.");
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.jjukbbae.oauth.client;
+
+import com.jjukbbae.oauth.entity.ProviderType;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
+import org.apache.hc.client5.http.ssl.TlsSocketStrategy;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.security.oauth2.client.endpoint.DefaultAuthorizationCodeTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AuthorizationCodeGrantRequest;
+import org.springframework.security.oauth2.client.http.OAuth2ErrorResponseErrorHandler;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.http.converter.OAuth2AccessTokenResponseHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * provider 별로 따로 두는 keep-alive connection pool. 로그인 지연의 대부분이 같은 몇 개 host 로의 TCP + TLS 연결이므로,
+ * token 교환과 userinfo 호출이 provider 의 pool 에서 연결을 재사용하게 한다. SSLContext 를 하나만 두어 새 연결도
+ * TLS session 을 재개할 수 있다. 요청 URI 의 host 를 client registration 의 token/userinfo host 와 맞춰 provider 를 고르고,
+ * 어느 provider 에도 속하지 않는 host 는 별도의 공용 pool 을 쓴다.
+ */
+@Component
+public class ProviderHttpClients implements MeterBinder, DisposableBean {
+
+    static final String UNKNOWN_PROVIDER = "unknown";
+
+    private final Map<ProviderType, Pool> pools = new EnumMap<>(ProviderType.class);
+    private final Pool fallback;
+    private final Function<URI, ProviderType> providerResolver;
+    private final Map<String, Pool> poolsByHost = new ConcurrentHashMap<>();
+    private final ClientHttpRequestFactory requestFactory = new RoutingRequestFactory();
+    private final ClientHttpRequestInterceptor timingInterceptor = (request, body, execution) -> {
+        Pool pool = poolOf(request.getURI());
+        long startedAt = System.nanoTime();
+        try {
+            return execution.execute(request, body);
+        } finally {
+            pool.requests.record(System.nanoTime() - startedAt);
+        }
+    };
+
+    @Autowired
+    public ProviderHttpClients(@Value("${app.oauth2.http.max-connections-per-provider:50}") int maxConnections,
+                               @Value("${app.oauth2.provider.connect-timeout:2s}") Duration connectTimeout,
+                               @Value("${app.oauth2.provider.read-timeout:3s}") Duration readTimeout,
+                               @Value("${app.oauth2.http.idle-timeout:60s}") Duration idleTimeout,
+                               ObjectProvider<ClientRegistrationRepository> clientRegistrations) {
+        this(maxConnections, connectTimeout, readTimeout, idleTimeout, uri -> resolve(clientRegistrations.getIfAvailable(), uri));
+    }
+
+    public ProviderHttpClients(int maxConnections, Duration connectTimeout, Duration readTimeout, Duration idleTimeout,
+                               Function<URI, ProviderType> providerResolver) {
+        this.providerResolver = providerResolver;
+        SSLContext sslContext = SSLContexts.createSystemDefault();
+        for (ProviderType providerType : ProviderType.values()) {
+            pools.put(providerType, new Pool(providerType.name(), sslContext, maxConnections, connectTimeout, readTimeout, idleTimeout));
+        }
+        this.fallback = new Pool(UNKNOWN_PROVIDER, sslContext, maxConnections, connectTimeout, readTimeout, idleTimeout);
+    }
+
+    /**
+     * userinfo 호출용. DefaultOAuth2UserService 의 기본값과 같은 converter, error handler 를 쓴다.
+     */
+    public RestTemplate createRestTemplate() {
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.setErrorHandler(new OAuth2ErrorResponseErrorHandler());
+        restTemplate.getInterceptors().add(timingInterceptor);
+        return restTemplate;
+    }
+
+    /**
+     * authorization code 를 access token 으로 교환하는 client. DefaultAuthorizationCodeTokenResponseClient 의 기본 설정에
+     * pool 과 timeout 만 바꾼다.
+     */
+    public OAuth2AccessTokenResponseClient<OAuth2AuthorizationCodeGrantRequest> createAccessTokenResponseClient() {
+        RestTemplate restTemplate = new RestTemplate(List.of(new FormHttpMessageConverter(), new OAuth2AccessTokenResponseHttpMessageConverter()));
+        restTemplate.setRequestFactory(requestFactory);
+        restTemplate.setErrorHandler(new OAuth2ErrorResponseErrorHandler());
+        restTemplate.getInterceptors().add(timingInterceptor);
+
+        DefaultAuthorizationCodeTokenResponseClient accessTokenResponseClient = new DefaultAuthorizationCodeTokenResponseClient();
+        accessTokenResponseClient.setRestOperations(restTemplate);
+        return accessTokenResponseClient;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Pool pool : pools.values()) {
+            pool.bindTo(registry);
+        }
+        fallback.bindTo(registry);
+    }
+
+    @Override
+    public void destroy() {
+        for (Pool pool : pools.values()) {
+            pool.close();
+        }
+        fallback.close();
+    }
+
+    private Pool poolOf(URI uri) {
+        String host = uri.getHost() + ":" + uri.getPort();
+        return poolsByHost.computeIfAbsent(host, key -> {
+            ProviderType providerType = providerResolver.apply(uri);
+            return providerType != null ? pools.get(providerType) : fallback;
+        });
+    }
+
+    private static ProviderType resolve(ClientRegistrationRepository clientRegistrations, URI uri) {
+        if (!(clientRegistrations instanceof Iterable<?> registrations)) {
+            return null;
+        }
+
+        for (Object registration : registrations) {
+            ClientRegistration clientRegistration = (ClientRegistration) registration;
+            ClientRegistration.ProviderDetails providerDetails = clientRegistration.getProviderDetails();
+            if (sameHost(uri, providerDetails.getTokenUri()) || sameHost(uri, providerDetails.getUserInfoEndpoint().getUri())) {
+                try {
+                    return ProviderType.valueOf(clientRegistration.getRegistrationId().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean sameHost(URI uri, String endpoint) {
+        if (endpoint == null) {
+            return false;
+        }
+        URI endpointUri = URI.create(endpoint);
+        return uri.getHost() != null && uri.getHost().equalsIgnoreCase(endpointUri.getHost()) && uri.getPort() == endpointUri.getPort();
+    }
+
+    private class RoutingRequestFactory implements ClientHttpRequestFactory {
+
+        @Override
+        public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+            return poolOf(uri).requestFactory.createRequest(uri, httpMethod);
+        }
+    }
+
+    /**
+     * 횟수와 누적 시간. FunctionTimer 로 노출한다.
+     */
+    static final class Timing {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        double totalNanos() {
+            return totalNanos.sum();
+        }
+    }
+
+    private static final class Pool {
+
+        private final String provider;
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final CloseableHttpClient httpClient;
+        private final HttpComponentsClientHttpRequestFactory requestFactory;
+        private final Timing connects = new Timing();
+        private final Timing requests = new Timing();
+
+        private Pool(String provider, SSLContext sslContext, int maxConnections,
+                     Duration connectTimeout, Duration readTimeout, Duration idleTimeout) {
+            this.provider = provider;
+            // builder 로는 connection operator 를 바꿀 수 없어 builder 가 쓰는 생성자를 직접 부른다.
+            this.connectionManager = new PoolingHttpClientConnectionManager(
+                    new TimedConnectionOperator(RegistryBuilder.<TlsSocketStrategy>create()
+                            .register(URIScheme.HTTPS.id, new DefaultClientTlsStrategy(sslContext))
+                            .build(), connects),
+                    PoolConcurrencyPolicy.STRICT,
+                    PoolReusePolicy.LIFO,
+                    TimeValue.NEG_ONE_MILLISECOND,
+                    null);
+            connectionManager.setMaxTotal(maxConnections);
+            connectionManager.setDefaultMaxPerRoute(maxConnections);
+            connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.of(connectTimeout))
+                    .setSocketTimeout(Timeout.of(readTimeout))
+                    .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                    .build());
+
+            // provider 응답의 cookie 가 다른 사용자의 로그인 요청에 실리지 않도록 cookie 관리는 끈다.
+            this.httpClient = HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(Timeout.of(connectTimeout))
+                            .setResponseTimeout(Timeout.of(readTimeout))
+                            .build())
+                    .disableCookieManagement()
+                    .evictExpiredConnections()
+                    .evictIdleConnections(TimeValue.of(idleTimeout))
+                    .build();
+            this.requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        }
+
+        private void bindTo(MeterRegistry registry) {
+            FunctionTimer.builder("oauth2.provider.http.connect", connects, Timing::count, Timing::totalNanos, TimeUnit.NANOSECONDS)
+                    .description("New connections (TCP connect + TLS handshake) to the provider")
+                    .tag("provider", provider)
+                    .register(registry);
+            FunctionTimer.builder("oauth2.provider.http.requests", requests, Timing::count, Timing::totalNanos, TimeUnit.NANOSECONDS)
+                    .description("Token and userinfo requests to the provider")
+                    .tag("provider", provider)
+                    .register(registry);
+            Gauge.builder("oauth2.provider.http.connections", connectionManager, manager -> manager.getTotalStats().getLeased())
+                    .tag("provider", provider)
+                    .tag("state", "leased")
+                    .register(registry);
+            Gauge.builder("oauth2.provider.http.connections", connectionManager, manager -> manager.getTotalStats().getAvailable())
+                    .tag("provider", provider)
+                    .tag("state", "idle")
+                    .register(registry);
+        }
+
+        private void close() {
+            httpClient.close(CloseMode.GRACEFUL);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.jjukbbae.oauth.client;
+
+import org.apache.hc.client5.http.impl.io.DefaultHttpClientConnectionOperator;
+import org.apache.hc.client5.http.io.ManagedHttpClientConnection;
+import org.apache.hc.client5.http.ssl.TlsSocketStrategy;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.config.Lookup;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.net.NamedEndpoint;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * 새 연결을 맺는 시간 (TCP connect + TLS handshake) 을 잰다. pool 에서 재사용된 연결은 여기를 지나지 않으므로
+ * 측정 횟수가 곧 새로 맺은 연결 수이다.
+ */
+final class TimedConnectionOperator extends DefaultHttpClientConnectionOperator {
+
+    private final ProviderHttpClients.Timing timing;
+
+    TimedConnectionOperator(Lookup<TlsSocketStrategy> tlsSocketStrategies, ProviderHttpClients.Timing timing) {
+        super(null, null, tlsSocketStrategies);
+        this.timing = timing;
+    }
+
+    @Override
+    public void connect(ManagedHttpClientConnection conn, HttpHost endpointHost, NamedEndpoint endpointName,
+                        InetSocketAddress localAddress, Timeout connectTimeout, SocketConfig socketConfig,
+                        Object attachment, HttpContext context) throws IOException {
+        long startedAt = System.nanoTime();
+        try {
+            super.connect(conn, endpointHost, endpointName, localAddress, connectTimeout, socketConfig, attachment, context);
+        } finally {
+            timing.record(System.nanoTime() - startedAt);
+        }
+    }
+}
@@ -1,24 +1,42 @@
 package com.jjukbbae.oauth.entity;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Getter
-@AllArgsConstructor
 public enum RoleType {
     USER("ROLE_USER", "일반 사용자 권한"),
     ADMIN("ROLE_ADMIN", "관리자 권한"),
     GUEST("GUEST", "게스트 권한");
 
+    private static final Map<String, RoleType> BY_CODE = new HashMap<>();
+
+    static {
+        for (RoleType roleType : values()) {
+            BY_CODE.put(roleType.code, roleType);
+        }
+    }
+
     private final String code;
     private final String displayName;
+    private final List<GrantedAuthority> authorities;
+
+    RoleType(String code, String displayName) {
+        this.code = code;
+        this.displayName = displayName;
+        this.authorities = List.of(new SimpleGrantedAuthority(code));
+    }
 
     public static RoleType of(String code) {
-        return Arrays.stream(RoleType.values())
-                .filter(r -> r.getCode().equals(code))
-                .findAny()
-                .orElse(GUEST);
+        return BY_CODE.getOrDefault(code, GUEST);
+    }
+
+    public static RoleType find(String code) {
+        return code == null ? null : BY_CODE.get(code);
     }
 }
@@ -0,0 +1,34 @@
+package com.jjukbbae.oauth.entity;
+
+import com.jjukbbae.oauth.token.ProfileClaims;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * access token 으로 인증된 요청의 principal. 토큰의 subject 와, 있으면 함께 서명된 프로필 claim 을 가진다.
+ */
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public final class TokenPrincipal implements AuthenticatedPrincipal {
+
+    private final String subject;
+    @EqualsAndHashCode.Exclude
+    private final ProfileClaims profileClaims;
+
+    public TokenPrincipal(String subject) {
+        this(subject, null);
+    }
+
+    @Override
+    public String getName() {
+        return subject;
+    }
+
+    @Override
+    public String toString() {
+        return subject;
+    }
+}
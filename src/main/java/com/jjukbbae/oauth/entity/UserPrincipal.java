@@ -1,12 +1,14 @@
 package com.jjukbbae.oauth.entity;
 
 import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.api.entity.user.UserCredentials;
+import com.jjukbbae.oauth.info.OAuth2Profile;
+import com.jjukbbae.oauth.token.ProfileClaims;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.core.oidc.OidcIdToken;
 import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
@@ -14,7 +16,6 @@ import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Map;
 
 @Getter
@@ -29,6 +30,8 @@ public class UserPrincipal implements OAuth2User, UserDetails, OidcUser {
     private final RoleType roleType;
     private final Collection<GrantedAuthority> authorities;
     private Map<String, Object> attributes;
+    private OAuth2Profile oauth2Profile;
+    private ProfileClaims profileClaims;
 
     @Override
     public Map<String, Object> getAttributes() {
@@ -86,12 +89,16 @@ public class UserPrincipal implements OAuth2User, UserDetails, OidcUser {
     }
 
     public static UserPrincipal create(User user) {
+        return create(new UserCredentials(user.getUserId(), user.getPassword(), user.getProviderType()));
+    }
+
+    public static UserPrincipal create(UserCredentials credentials) {
         return new UserPrincipal(
-                user.getUserId(),
-                user.getPassword(),
-                user.getProviderType(),
+                credentials.userId(),
+                credentials.password(),
+                credentials.providerType(),
                 RoleType.USER,
-                Collections.singletonList(new SimpleGrantedAuthority(RoleType.USER.getCode()))
+                RoleType.USER.getAuthorities()
         );
     }
 
@@ -101,4 +108,18 @@ public class UserPrincipal implements OAuth2User, UserDetails, OidcUser {
 
         return userPrincipal;
     }
+
+    /**
+     * OAuth2 로그인에서 만든 principal. 이미 뽑아 둔 profile 과 저장된 사용자의 프로필 claim 을 함께 실어
+     * success handler 가 attributes 나 DB 를 다시 읽지 않게 한다.
+     */
+    public static UserPrincipal create(User user, Map<String, Object> attributes, OAuth2Profile profile) {
+        UserPrincipal userPrincipal = create(user, attributes);
+        userPrincipal.setOauth2Profile(profile);
+        if (user.getUserSeq() != null) {
+            userPrincipal.setProfileClaims(ProfileClaims.of(user, userPrincipal.getRoleType()));
+        }
+
+        return userPrincipal;
+    }
 }
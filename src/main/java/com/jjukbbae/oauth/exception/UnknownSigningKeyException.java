@@ -0,0 +1,10 @@
+package com.jjukbbae.oauth.exception;
+
+import io.jsonwebtoken.JwtException;
+
+public class UnknownSigningKeyException extends JwtException {
+
+    public UnknownSigningKeyException(String kid) {
+        super("Unknown signing key id [" + kid + "].");
+    }
+}
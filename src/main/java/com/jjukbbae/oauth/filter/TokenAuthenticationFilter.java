@@ -2,6 +2,7 @@ package com.jjukbbae.oauth.filter;
 
 import com.jjukbbae.oauth.token.AuthToken;
 import com.jjukbbae.oauth.token.AuthTokenProvider;
+import com.jjukbbae.oauth.token.TokenVerification;
 import com.jjukbbae.utils.HeaderUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -30,8 +31,9 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
         String tokenStr = HeaderUtil.getAccessToken(request);
         AuthToken token = tokenProvider.convertAuthToken(tokenStr);
 
-        if (token.validate()) {
-            Authentication authentication = tokenProvider.getAuthentication(token);
+        TokenVerification verification = tokenProvider.verify(token);
+        if (verification.isValid()) {
+            Authentication authentication = tokenProvider.getAuthentication(token, verification.getClaims());
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
 
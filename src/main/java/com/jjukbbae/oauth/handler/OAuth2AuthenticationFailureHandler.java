@@ -1,8 +1,7 @@
 package com.jjukbbae.oauth.handler;
 
 import com.jjukbbae.oauth.repository.OAuth2AuthorizationRequestBasedOnCookieRepository;
-import com.jjukbbae.utils.CookieUtil;
-import jakarta.servlet.http.Cookie;
+import com.jjukbbae.utils.RequestCookies;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -27,8 +26,7 @@ public class OAuth2AuthenticationFailureHandler extends SimpleUrlAuthenticationF
                                         HttpServletResponse response,
                                         AuthenticationException exception) throws IOException, ServletException {
 
-        String targetUrl = CookieUtil.getCookie(request, REDIRECT_URI_PARAM_COOKIE_NAME)
-                .map(Cookie::getValue)
+        String targetUrl = RequestCookies.of(request).getValue(REDIRECT_URI_PARAM_COOKIE_NAME)
                 .orElse(("/"));
 
         exception.printStackTrace();
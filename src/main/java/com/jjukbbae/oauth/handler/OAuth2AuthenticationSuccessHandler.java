@@ -1,17 +1,20 @@
 package com.jjukbbae.oauth.handler;
 
-import com.jjukbbae.api.entity.user.UserRefreshToken;
-import com.jjukbbae.api.repository.user.UserRefreshTokenRepository;
+import com.jjukbbae.api.service.RefreshTokenService;
+import com.jjukbbae.api.service.UserService;
 import com.jjukbbae.config.properties.AppProperties;
 import com.jjukbbae.oauth.entity.ProviderType;
 import com.jjukbbae.oauth.entity.RoleType;
-import com.jjukbbae.oauth.info.OAuth2UserInfo;
+import com.jjukbbae.oauth.entity.UserPrincipal;
+import com.jjukbbae.oauth.info.OAuth2Profile;
 import com.jjukbbae.oauth.info.OAuth2UserInfoFactory;
 import com.jjukbbae.oauth.repository.OAuth2AuthorizationRequestBasedOnCookieRepository;
 import com.jjukbbae.oauth.token.AuthToken;
 import com.jjukbbae.oauth.token.AuthTokenProvider;
+import com.jjukbbae.oauth.token.ProfileClaims;
 import com.jjukbbae.utils.CookieUtil;
-import jakarta.servlet.http.Cookie;
+import com.jjukbbae.utils.RequestCookies;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -25,10 +28,11 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
-import java.net.URI;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.jjukbbae.oauth.repository.OAuth2AuthorizationRequestBasedOnCookieRepository.REDIRECT_URI_PARAM_COOKIE_NAME;
 import static com.jjukbbae.oauth.repository.OAuth2AuthorizationRequestBasedOnCookieRepository.REFRESH_TOKEN;
@@ -39,8 +43,10 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
 
     private final AuthTokenProvider tokenProvider;
     private final AppProperties appProperties;
-    private final UserRefreshTokenRepository userRefreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
     private final OAuth2AuthorizationRequestBasedOnCookieRepository authorizationRequestRepository;
+    private final UserService userService;
+    private final AtomicReference<RedirectUriAllowlist> redirectUriAllowlist = new AtomicReference<>();
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request,
@@ -59,8 +65,8 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
     }
 
     protected String determineTargetUrl(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
-        Optional<String> redirectUri = CookieUtil.getCookie(request, REDIRECT_URI_PARAM_COOKIE_NAME)
-                .map(Cookie::getValue);
+        RequestCookies cookies = RequestCookies.of(request);
+        Optional<String> redirectUri = cookies.getValue(REDIRECT_URI_PARAM_COOKIE_NAME);
 
         if (redirectUri.isPresent() && !isAuthorizedRedirectUri(redirectUri.get())) {
             throw new IllegalArgumentException("Sorry! We've got an Unauthorized Redirect URI and can't proceed with the authentication");
@@ -68,42 +74,24 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
 
         String targetUrl = redirectUri.orElse(getDefaultTargetUrl());
 
-        OAuth2AuthenticationToken authToken = (OAuth2AuthenticationToken) authentication;
-        ProviderType providerType = ProviderType.valueOf(authToken.getAuthorizedClientRegistrationId().toUpperCase());
-
         OidcUser user = ((OidcUser) authentication.getPrincipal());
-        OAuth2UserInfo userInfo = OAuth2UserInfoFactory.getOAuth2UserInfo(providerType, user.getAttributes());
-        Collection<? extends GrantedAuthority> authorities = ((OidcUser) authentication.getPrincipal()).getAuthorities();
+        OAuth2Profile profile = getProfile(authentication, user);
+        Collection<? extends GrantedAuthority> authorities = user.getAuthorities();
 
         RoleType roleType = hasAuthority(authorities, RoleType.ADMIN.getCode()) ? RoleType.ADMIN : RoleType.USER;
 
         Date now = new Date();
-        AuthToken accessToken = tokenProvider.createAuthToken(
-                userInfo.getId(),
-                roleType.getCode(),
-                new Date(now.getTime() + appProperties.getAuth().getTokenExpiry())
-        );
-
-        // refresh 토큰 설정
-        long refreshTokenExpiry = appProperties.getAuth().getRefreshTokenExpiry();
-
-        AuthToken refreshToken = tokenProvider.createAuthToken(
-                appProperties.getAuth().getTokenSecret(),
-                new Date(now.getTime() + refreshTokenExpiry)
-        );
-
-        // DB 저장
-        UserRefreshToken userRefreshToken = userRefreshTokenRepository.findByUserId(userInfo.getId());
-        if (userRefreshToken != null) {
-            userRefreshToken.setRefreshToken(refreshToken.getToken());
-        } else {
-            userRefreshToken = new UserRefreshToken(userInfo.getId(), refreshToken.getToken());
-            userRefreshTokenRepository.saveAndFlush(userRefreshToken);
-        }
+        Date expiry = new Date(now.getTime() + appProperties.getAuth().getTokenExpiry());
+        ProfileClaims profileClaims = getProfileClaims(user, roleType);
+        AuthToken accessToken = profileClaims != null
+                ? tokenProvider.createAuthToken(profile.id(), profileClaims, expiry)
+                : tokenProvider.createAuthToken(profile.id(), roleType.getCode(), expiry);
 
-        int cookieMaxAge = (int) refreshTokenExpiry / 60;
+        // refresh 토큰 설정 및 DB 저장
+        AuthToken refreshToken = refreshTokenService.issue(profile.id());
+        int cookieMaxAge = refreshTokenService.getCookieMaxAge();
 
-        CookieUtil.deleteCookie(request, response, REFRESH_TOKEN);
+        cookies.delete(response, REFRESH_TOKEN);
         CookieUtil.addCookie(response, REFRESH_TOKEN, refreshToken.getToken(), cookieMaxAge);
 
         return UriComponentsBuilder.fromUriString(targetUrl)
@@ -111,6 +99,37 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
                 .build().toUriString();
     }
 
+    /**
+     * CustomOAuth2UserService 가 만든 UserPrincipal 이면 이미 뽑아 둔 profile 을 쓰고, 아니면 attributes 에서 다시 뽑는다.
+     */
+    private OAuth2Profile getProfile(Authentication authentication, OidcUser user) {
+        if (user instanceof UserPrincipal userPrincipal && userPrincipal.getOauth2Profile() != null) {
+            return userPrincipal.getOauth2Profile();
+        }
+
+        OAuth2AuthenticationToken authToken = (OAuth2AuthenticationToken) authentication;
+        ProviderType providerType = ProviderType.valueOf(authToken.getAuthorizedClientRegistrationId().toUpperCase());
+        return OAuth2UserInfoFactory.getOAuth2UserInfo(providerType, user.getAttributes()).getProfile();
+    }
+
+    /**
+     * app.auth.profile-claims 가 켜져 있으면 로그인 때 읽은 사용자 정보를 토큰에 넣고, 이 서버가 아는 최신 version 으로 기록한다.
+     */
+    private ProfileClaims getProfileClaims(OidcUser user, RoleType roleType) {
+        if (!appProperties.getAuth().isProfileClaims()
+                || !(user instanceof UserPrincipal userPrincipal) || userPrincipal.getProfileClaims() == null) {
+            return null;
+        }
+
+        ProfileClaims profileClaims = userPrincipal.getProfileClaims();
+        if (profileClaims.roleType() != roleType) {
+            profileClaims = new ProfileClaims(profileClaims.userSeq(), profileClaims.name(), profileClaims.imageUrl(),
+                    profileClaims.providerType(), roleType, profileClaims.version());
+        }
+        userService.recordProfile(userPrincipal.getUserId(), profileClaims.userSeq(), profileClaims.version(), roleType);
+        return profileClaims;
+    }
+
     protected void clearAuthenticationAttributes(HttpServletRequest request, HttpServletResponse response) {
         super.clearAuthenticationAttributes(request);
         authorizationRequestRepository.removeAuthorizationRequestCookies(request, response);
@@ -130,18 +149,26 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
     }
 
     protected boolean isAuthorizedRedirectUri(String uri) {
-        URI clientRedirectUri = URI.create(uri);
-
-        return appProperties.getOauth2().getAuthorizedRedirectUris()
-                .stream()
-                .anyMatch(authorizedRedirectUri -> {
-                    // Only validate host and port. Let the clients use different paths if they want to
-                    URI authorizedURI = URI.create(authorizedRedirectUri);
-                    if (authorizedURI.getHost().equalsIgnoreCase(clientRedirectUri.getHost())
-                            && authorizedURI.getPort() == clientRedirectUri.getPort()) {
-                        return true;
-                    }
-                    return false;
-                });
+        return getRedirectUriAllowlist().isAllowed(uri);
+    }
+
+    /**
+     * 설정 목록을 다시 풀어 snapshot 을 통째로 바꾼다. 읽는 쪽은 lock 없이 이전 또는 새 snapshot 중 하나를 본다.
+     */
+    @PostConstruct
+    public void reloadAuthorizedRedirectUris() {
+        redirectUriAllowlist.set(RedirectUriAllowlist.compile(appProperties.getOauth2().getAuthorizedRedirectUris()));
+    }
+
+    private RedirectUriAllowlist getRedirectUriAllowlist() {
+        RedirectUriAllowlist allowlist = redirectUriAllowlist.get();
+        List<String> authorizedRedirectUris = appProperties.getOauth2().getAuthorizedRedirectUris();
+        // 설정이 다시 바인딩되어 목록 인스턴스가 바뀐 경우에만 다시 compile 한다.
+        if (allowlist == null || !allowlist.isCompiledFrom(authorizedRedirectUris)) {
+            RedirectUriAllowlist reloaded = RedirectUriAllowlist.compile(authorizedRedirectUris);
+            redirectUriAllowlist.compareAndSet(allowlist, reloaded);
+            return reloaded;
+        }
+        return allowlist;
     }
 }
@@ -0,0 +1,118 @@
+package com.jjukbbae.oauth.handler;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * app.oauth2.authorized-redirect-uris 를 미리 풀어 둔 불변 snapshot. 경로는 보지 않고 host 와 port 만 비교한다.
+ * 일반 항목은 "host:port" hash set 으로, "https://*.partner.com" 같은 wildcard 항목은 label 을 뒤집은
+ * trie (com -> partner) 로 두어 항목 수와 관계없이 host 의 label 수만큼만 본다.
+ * wildcard 는 하위 domain 에만 맞고 partner.com 자체에는 맞지 않는다.
+ */
+final class RedirectUriAllowlist {
+
+    private static final String WILDCARD_PREFIX = "*.";
+
+    private final List<String> source;
+    private final Set<String> hostPorts;
+    private final Node wildcardRoot;
+
+    private RedirectUriAllowlist(List<String> source, Set<String> hostPorts, Node wildcardRoot) {
+        this.source = source;
+        this.hostPorts = hostPorts;
+        this.wildcardRoot = wildcardRoot;
+    }
+
+    static RedirectUriAllowlist compile(List<String> authorizedRedirectUris) {
+        Set<String> hostPorts = new HashSet<>();
+        Node wildcardRoot = new Node();
+        for (String authorizedRedirectUri : authorizedRedirectUris) {
+            URI uri = URI.create(authorizedRedirectUri);
+            String authority = uri.getRawAuthority();
+            if (authority != null && authority.startsWith(WILDCARD_PREFIX)) {
+                // '*' 가 들어간 host 는 URI 가 host 로 읽지 않으므로 '*.' 를 뗀 주소로 다시 읽는다.
+                URI base = URI.create(uri.getScheme() + "://" + authority.substring(WILDCARD_PREFIX.length()));
+                wildcardRoot.insert(labels(base.getHost()), base.getPort());
+            } else if (uri.getHost() != null) {
+                hostPorts.add(hostPort(uri.getHost(), uri.getPort()));
+            } else {
+                throw new IllegalArgumentException("Authorized redirect uri has no host [" + authorizedRedirectUri + "].");
+            }
+        }
+        return new RedirectUriAllowlist(authorizedRedirectUris, Set.copyOf(hostPorts), wildcardRoot.freeze());
+    }
+
+    /**
+     * compile 에 쓴 목록과 같은 인스턴스인지. 설정이 다시 바인딩되어 목록이 바뀌었는지 확인하는 데 쓴다.
+     */
+    boolean isCompiledFrom(Collection<String> authorizedRedirectUris) {
+        return source == authorizedRedirectUris;
+    }
+
+    boolean isAllowed(String redirectUri) {
+        URI uri;
+        try {
+            uri = URI.create(redirectUri);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        String host = uri.getHost();
+        if (host == null) {
+            return false;
+        }
+        return hostPorts.contains(hostPort(host, uri.getPort())) || wildcardRoot.matches(labels(host), uri.getPort());
+    }
+
+    private static String hostPort(String host, int port) {
+        return host.toLowerCase(Locale.ROOT) + ":" + port;
+    }
+
+    private static String[] labels(String host) {
+        return host.toLowerCase(Locale.ROOT).split("\\.");
+    }
+
+    private static final class Node {
+
+        private Map<String, Node> children = new HashMap<>();
+        private Set<Integer> wildcardPorts = new HashSet<>();
+
+        void insert(String[] labels, int port) {
+            Node node = this;
+            for (int i = labels.length - 1; i >= 0; i--) {
+                node = node.children.computeIfAbsent(labels[i], label -> new Node());
+            }
+            node.wildcardPorts.add(port);
+        }
+
+        Node freeze() {
+            children.replaceAll((label, child) -> child.freeze());
+            children = Map.copyOf(children);
+            wildcardPorts = Set.copyOf(wildcardPorts);
+            return this;
+        }
+
+        /**
+         * label 을 뒤에서부터 따라가며, 아직 남은 label 이 있는 (= 하위 domain 인) 위치에서 port 가 맞는 wildcard 가 있으면 허용한다.
+         */
+        boolean matches(String[] labels, int port) {
+            Node node = this;
+            for (int i = labels.length - 1; i > 0; i--) {
+                node = node.children.get(labels[i]);
+                if (node == null) {
+                    return false;
+                }
+                if (node.wildcardPorts.contains(port)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
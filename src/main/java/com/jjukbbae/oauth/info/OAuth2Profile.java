@@ -0,0 +1,9 @@
+package com.jjukbbae.oauth.info;
+
+import com.jjukbbae.oauth.entity.ProviderType;
+
+/**
+ * provider 응답에서 한 번 뽑아 낸 사용자 프로필. 로그인 처리 동안 UserPrincipal 에 실려 다닌다.
+ */
+public record OAuth2Profile(ProviderType providerType, String id, String name, String email, String imageUrl) {
+}
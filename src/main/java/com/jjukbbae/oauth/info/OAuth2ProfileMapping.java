@@ -0,0 +1,51 @@
+package com.jjukbbae.oauth.info;
+
+import com.jjukbbae.oauth.entity.ProviderType;
+
+import java.util.Map;
+
+/**
+ * provider 응답의 어느 위치에 각 프로필 필드가 있는지 선언한다. 경로는 "response.nickname" 처럼 '.' 으로 중첩 객체를 표시한다.
+ * 경로는 생성할 때 한 번만 나누고, 중간 객체가 없거나 객체가 아니면 해당 필드는 null 이 된다.
+ */
+public final class OAuth2ProfileMapping {
+
+    private final ProviderType providerType;
+    private final String[] idPath;
+    private final String[] namePath;
+    private final String[] emailPath;
+    private final String[] imageUrlPath;
+
+    private OAuth2ProfileMapping(ProviderType providerType, String idPath, String namePath, String emailPath, String imageUrlPath) {
+        this.providerType = providerType;
+        this.idPath = idPath.split("\\.");
+        this.namePath = namePath.split("\\.");
+        this.emailPath = emailPath.split("\\.");
+        this.imageUrlPath = imageUrlPath.split("\\.");
+    }
+
+    public static OAuth2ProfileMapping of(ProviderType providerType, String idPath, String namePath, String emailPath, String imageUrlPath) {
+        return new OAuth2ProfileMapping(providerType, idPath, namePath, emailPath, imageUrlPath);
+    }
+
+    public OAuth2Profile extract(Map<String, Object> attributes) {
+        return new OAuth2Profile(
+                providerType,
+                read(attributes, idPath),
+                read(attributes, namePath),
+                read(attributes, emailPath),
+                read(attributes, imageUrlPath)
+        );
+    }
+
+    private static String read(Map<String, Object> attributes, String[] path) {
+        Object value = attributes;
+        for (String key : path) {
+            if (!(value instanceof Map<?, ?> map)) {
+                return null;
+            }
+            value = map.get(key);
+        }
+        return value != null ? value.toString() : null;
+    }
+}
@@ -2,23 +2,40 @@ package com.jjukbbae.oauth.info;
 
 import java.util.Map;
 
+/**
+ * provider 응답을 감싼다. 프로필은 생성할 때 provider 별 OAuth2ProfileMapping 으로 한 번만 뽑아 둔다.
+ */
 public abstract class OAuth2UserInfo {
 
     protected Map<String, Object> attributes;
+    private final OAuth2Profile profile;
 
-    public OAuth2UserInfo(Map<String, Object> attributes) {
+    protected OAuth2UserInfo(Map<String, Object> attributes, OAuth2ProfileMapping mapping) {
         this.attributes = attributes;
+        this.profile = mapping.extract(attributes);
     }
 
     public Map<String, Object> getAttributes() {
         return attributes;
     }
 
-    public abstract String getId();
+    public OAuth2Profile getProfile() {
+        return profile;
+    }
+
+    public String getId() {
+        return profile.id();
+    }
 
-    public abstract String getName();
+    public String getName() {
+        return profile.name();
+    }
 
-    public abstract String getEmail();
+    public String getEmail() {
+        return profile.email();
+    }
 
-    public abstract String getImageUrl();
+    public String getImageUrl() {
+        return profile.imageUrl();
+    }
 }
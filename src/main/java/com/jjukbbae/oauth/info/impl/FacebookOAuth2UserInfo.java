@@ -1,32 +1,17 @@
 package com.jjukbbae.oauth.info.impl;
 
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.info.OAuth2ProfileMapping;
 import com.jjukbbae.oauth.info.OAuth2UserInfo;
 
 import java.util.Map;
 
 public class FacebookOAuth2UserInfo extends OAuth2UserInfo {
 
-    public FacebookOAuth2UserInfo(Map<String, Object> attributes) {
-        super(attributes);
-    }
+    private static final OAuth2ProfileMapping MAPPING =
+            OAuth2ProfileMapping.of(ProviderType.FACEBOOK, "id", "name", "email", "imageUrl");
 
-    @Override
-    public String getId() {
-        return (String) attributes.get("id");
-    }
-
-    @Override
-    public String getName() {
-        return (String) attributes.get("name");
-    }
-
-    @Override
-    public String getEmail() {
-        return (String) attributes.get("email");
-    }
-
-    @Override
-    public String getImageUrl() {
-        return (String) attributes.get("imageUrl");
+    public FacebookOAuth2UserInfo(Map<String, Object> attributes) {
+        super(attributes, MAPPING);
     }
 }
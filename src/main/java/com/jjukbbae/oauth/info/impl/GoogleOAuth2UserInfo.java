@@ -1,32 +1,17 @@
 package com.jjukbbae.oauth.info.impl;
 
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.info.OAuth2ProfileMapping;
 import com.jjukbbae.oauth.info.OAuth2UserInfo;
 
 import java.util.Map;
 
 public class GoogleOAuth2UserInfo extends OAuth2UserInfo {
 
-    public GoogleOAuth2UserInfo(Map<String, Object> attributes) {
-        super(attributes);
-    }
+    private static final OAuth2ProfileMapping MAPPING =
+            OAuth2ProfileMapping.of(ProviderType.GOOGLE, "sub", "name", "email", "picture");
 
-    @Override
-    public String getId() {
-        return (String) attributes.get("sub");
-    }
-
-    @Override
-    public String getName() {
-        return (String) attributes.get("name");
-    }
-
-    @Override
-    public String getEmail() {
-        return (String) attributes.get("email");
-    }
-
-    @Override
-    public String getImageUrl() {
-        return (String) attributes.get("picture");
+    public GoogleOAuth2UserInfo(Map<String, Object> attributes) {
+        super(attributes, MAPPING);
     }
 }
@@ -1,47 +1,18 @@
 package com.jjukbbae.oauth.info.impl;
 
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.info.OAuth2ProfileMapping;
 import com.jjukbbae.oauth.info.OAuth2UserInfo;
 
 import java.util.Map;
 
 public class KakaoOAuth2UserInfo extends OAuth2UserInfo {
 
-    public KakaoOAuth2UserInfo(Map<String, Object> attributes) {
-        super(attributes);
-    }
-
-    @Override
-    public String getId() {
-        return attributes.get("id").toString();
-    }
-
-    @Override
-    public String getName() {
-        Map<String, Object> properties = (Map<String, Object>) attributes.get("properties");
-
-        if (properties == null) {
-            return null;
-        }
-
-        return (String) properties.get("nickname");
-    }
-
-    @Override
-    public String getEmail() {
-        // return (String) attributes.get("account_email");
-        Object email = attributes.get("account_email");  // TODO: 실제 처리 후 확인 필요
-
-        return email != null ? email.toString() : null;
-    }
+    // TODO: account_email 은 실제 처리 후 확인 필요
+    private static final OAuth2ProfileMapping MAPPING =
+            OAuth2ProfileMapping.of(ProviderType.KAKAO, "id", "properties.nickname", "account_email", "properties.thumbnail_image");
 
-    @Override
-    public String getImageUrl() {
-        Map<String, Object> properties = (Map<String, Object>) attributes.get("properties");
-
-        if (properties == null) {
-            return null;
-        }
-
-        return (String) properties.get("thumbnail_image");
+    public KakaoOAuth2UserInfo(Map<String, Object> attributes) {
+        super(attributes, MAPPING);
     }
 }
@@ -1,56 +1,17 @@
 package com.jjukbbae.oauth.info.impl;
 
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.info.OAuth2ProfileMapping;
 import com.jjukbbae.oauth.info.OAuth2UserInfo;
 
 import java.util.Map;
 
 public class NaverOAuth2UserInfo extends OAuth2UserInfo {
 
-    public NaverOAuth2UserInfo(Map<String, Object> attributes) {
-        super(attributes);
-    }
-
-    @Override
-    public String getId() {
-        Map<String, Object> response = (Map<String, Object>) attributes.get("response");
+    private static final OAuth2ProfileMapping MAPPING =
+            OAuth2ProfileMapping.of(ProviderType.NAVER, "response.id", "response.nickname", "response.email", "response.profile_image");
 
-        if (response == null) {
-            return null;
-        }
-
-        return (String) response.get("id");
-    }
-
-    @Override
-    public String getName() {
-        Map<String, Object> response = (Map<String, Object>) attributes.get("response");
-
-        if (response == null) {
-            return null;
-        }
-
-        return (String) response.get("nickname");
-    }
-
-    @Override
-    public String getEmail() {
-        Map<String, Object> response = (Map<String, Object>) attributes.get("response");
-
-        if (response == null) {
-            return null;
-        }
-
-        return (String) response.get("email");
-    }
-
-    @Override
-    public String getImageUrl() {
-        Map<String, Object> response = (Map<String, Object>) attributes.get("response");
-
-        if (response == null) {
-            return null;
-        }
-
-        return (String) response.get("profile_image");
+    public NaverOAuth2UserInfo(Map<String, Object> attributes) {
+        super(attributes, MAPPING);
     }
 }
@@ -0,0 +1,225 @@
+package com.jjukbbae.oauth.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * OAuth2AuthorizationRequest 를 cookie 값으로 바꾼다. Java 직렬화 대신 callback 처리에 필요한 필드만 담은
+ * version 붙은 binary 형식에 만료 시각과 HMAC-SHA256 (앞 16 byte) 을 붙여 base64url 로 쓴다.
+ * MAC 이 맞지 않거나, 만료됐거나, 형식이 다르면 null 을 돌려준다.
+ * 배포 중에는 이전 형식 (Java 직렬화) cookie 가 남아 있을 수 있어 legacy reader 를 명시적으로 켠 경우에만 허용된 class 만
+ * 역직렬화하는 filter 를 걸고 읽는다. 이전 버전이 내려가고 cookie 수명 (3분) 이 지나면 끈다.
+ */
+@Slf4j
+public class AuthorizationRequestCookieCodec {
+
+    static final byte VERSION = 1;
+    static final int MAC_LENGTH = 16;
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String LEGACY_PREFIX = "rO0"; // 0xACED (Java 직렬화 stream magic) 의 base64
+    private static final ObjectInputFilter LEGACY_FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=10;maxrefs=1000;maxbytes=16384;"
+                    + "org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;"
+                    + "org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationResponseType;"
+                    + "org.springframework.security.oauth2.core.AuthorizationGrantType;"
+                    + "java.util.Collections$UnmodifiableMap;java.util.Collections$UnmodifiableSet;"
+                    + "java.util.Collections$UnmodifiableCollection;java.util.Map$Entry;"
+                    + "java.util.LinkedHashMap;java.util.HashMap;java.util.LinkedHashSet;java.util.HashSet;!*");
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+    private final boolean legacyReaderEnabled;
+    private final Clock clock;
+
+    public AuthorizationRequestCookieCodec(byte[] secret, long ttlSeconds, boolean legacyReaderEnabled) {
+        this(secret, ttlSeconds, legacyReaderEnabled, Clock.systemUTC());
+    }
+
+    AuthorizationRequestCookieCodec(byte[] secret, long ttlSeconds, boolean legacyReaderEnabled, Clock clock) {
+        this.key = new SecretKeySpec(deriveKey(secret), MAC_ALGORITHM);
+        this.ttlSeconds = ttlSeconds;
+        this.legacyReaderEnabled = legacyReaderEnabled;
+        this.clock = clock;
+    }
+
+    /**
+     * 인스턴스마다 임의의 key 를 쓴다. 다른 인스턴스가 만든 cookie 는 읽지 못하므로 단일 인스턴스나 테스트에서만 쓴다.
+     */
+    public static AuthorizationRequestCookieCodec withRandomKey(long ttlSeconds, boolean legacyReaderEnabled) {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return new AuthorizationRequestCookieCodec(secret, ttlSeconds, legacyReaderEnabled);
+    }
+
+    public String encode(OAuth2AuthorizationRequest authorizationRequest) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(clock.instant().getEpochSecond() + ttlSeconds);
+            out.writeUTF(authorizationRequest.getAuthorizationUri());
+            out.writeUTF(authorizationRequest.getClientId());
+            writeNullable(out, authorizationRequest.getRedirectUri());
+            writeNullable(out, authorizationRequest.getState());
+            out.writeShort(authorizationRequest.getScopes().size());
+            for (String scope : authorizationRequest.getScopes()) {
+                out.writeUTF(scope);
+            }
+            writeMap(out, authorizationRequest.getAdditionalParameters());
+            writeMap(out, authorizationRequest.getAttributes());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        byte[] payload = bytes.toByteArray();
+        byte[] value = Arrays.copyOf(payload, payload.length + MAC_LENGTH);
+        System.arraycopy(mac(payload, payload.length), 0, value, payload.length, MAC_LENGTH);
+        return ENCODER.encodeToString(value);
+    }
+
+    /**
+     * @return 복원한 요청, 위조/만료/손상된 값이면 null
+     */
+    public OAuth2AuthorizationRequest decode(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (value.startsWith(LEGACY_PREFIX)) {
+            return legacyReaderEnabled ? decodeLegacy(value) : null;
+        }
+
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (bytes.length <= MAC_LENGTH || bytes[0] != VERSION) {
+            return null;
+        }
+
+        int payloadLength = bytes.length - MAC_LENGTH;
+        byte[] expectedMac = mac(bytes, payloadLength);
+        if (!MessageDigest.isEqual(expectedMac, Arrays.copyOfRange(bytes, payloadLength, bytes.length))) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, payloadLength - 1))) {
+            long expiresAt = in.readLong();
+            if (clock.instant().getEpochSecond() > expiresAt) {
+                return null;
+            }
+
+            OAuth2AuthorizationRequest.Builder builder = OAuth2AuthorizationRequest.authorizationCode()
+                    .authorizationUri(in.readUTF())
+                    .clientId(in.readUTF())
+                    .redirectUri(readNullable(in))
+                    .state(readNullable(in));
+            int scopeCount = in.readUnsignedShort();
+            Set<String> scopes = new LinkedHashSet<>(scopeCount * 2);
+            for (int i = 0; i < scopeCount; i++) {
+                scopes.add(in.readUTF());
+            }
+            Map<String, Object> additionalParameters = readMap(in);
+            Map<String, Object> attributes = readMap(in);
+            return builder.scopes(scopes)
+                    .additionalParameters(additionalParameters)
+                    .attributes(attributes)
+                    .build();
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private OAuth2AuthorizationRequest decodeLegacy(String value) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(DECODER.decode(value)))) {
+            in.setObjectInputFilter(LEGACY_FILTER);
+            Object object = in.readObject();
+            return object instanceof OAuth2AuthorizationRequest authorizationRequest ? authorizationRequest : null;
+        } catch (IOException | ClassNotFoundException | IllegalArgumentException e) {
+            log.debug("Rejected legacy authorization request cookie.", e);
+            return null;
+        }
+    }
+
+    private byte[] mac(byte[] bytes, int length) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            mac.update(bytes, 0, length);
+            return Arrays.copyOf(mac.doFinal(), MAC_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 같은 secret 을 다른 용도 (JWT 서명 등) 와 같이 쓰더라도 key 가 겹치지 않도록 용도별로 한 번 더 유도한다.
+     */
+    private static byte[] deriveKey(byte[] secret) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, MAC_ALGORITHM));
+            return mac.doFinal("oauth2-authorization-request-cookie".getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Spring Security 가 넣는 값 (registration_id, nonce, code_verifier, code_challenge 등) 은 모두 문자열이다.
+     */
+    private static void writeMap(DataOutputStream out, Map<String, Object> map) throws IOException {
+        out.writeShort(map.size());
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (!(entry.getValue() instanceof String value)) {
+                throw new IllegalArgumentException("Unsupported authorization request value for [" + entry.getKey() + "].");
+            }
+            out.writeUTF(entry.getKey());
+            out.writeUTF(value);
+        }
+    }
+
+    private static Map<String, Object> readMap(DataInputStream in) throws IOException {
+        int size = in.readUnsignedShort();
+        Map<String, Object> map = new LinkedHashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            map.put(in.readUTF(), in.readUTF());
+        }
+        return map;
+    }
+}
@@ -1,6 +1,7 @@
 package com.jjukbbae.oauth.repository;
 
 import com.jjukbbae.utils.CookieUtil;
+import com.jjukbbae.utils.RequestCookies;
 import com.nimbusds.oauth2.sdk.util.StringUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -12,28 +13,39 @@ public class OAuth2AuthorizationRequestBasedOnCookieRepository implements Author
     public final static String OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME = "oauth2_auth_request";
     public final static String REDIRECT_URI_PARAM_COOKIE_NAME = "redirect_uri";
     public final static String REFRESH_TOKEN = "refresh_token";
-    private final static int cookieExpireSeconds = 180;
+    public final static int COOKIE_EXPIRE_SECONDS = 180;
+
+    private final AuthorizationRequestCookieCodec codec;
+
+    /**
+     * 인스턴스마다 임의의 MAC key 를 쓴다. 여러 인스턴스로 배포할 때는 같은 secret 으로 만든 codec 을 넘겨야 한다.
+     */
+    public OAuth2AuthorizationRequestBasedOnCookieRepository() {
+        this(AuthorizationRequestCookieCodec.withRandomKey(COOKIE_EXPIRE_SECONDS, false));
+    }
+
+    public OAuth2AuthorizationRequestBasedOnCookieRepository(AuthorizationRequestCookieCodec codec) {
+        this.codec = codec;
+    }
 
     @Override
     public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
-        return CookieUtil.getCookie(request, OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME)
-                .map(cookie -> CookieUtil.deserialize(cookie, OAuth2AuthorizationRequest.class))
+        return RequestCookies.of(request).getValue(OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME)
+                .map(codec::decode)
                 .orElse(null);
     }
 
     @Override
     public void saveAuthorizationRequest(OAuth2AuthorizationRequest authorizationRequest, HttpServletRequest request, HttpServletResponse response) {
         if (authorizationRequest == null) {
-            CookieUtil.deleteCookie(request, response, OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME);
-            CookieUtil.deleteCookie(request, response, REDIRECT_URI_PARAM_COOKIE_NAME);
-            CookieUtil.deleteCookie(request, response, REFRESH_TOKEN);
+            removeAuthorizationRequestCookies(request, response);
             return;
         }
 
-        CookieUtil.addCookie(response, OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME, CookieUtil.serialize(authorizationRequest), cookieExpireSeconds);
+        CookieUtil.addCookie(response, OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME, codec.encode(authorizationRequest), COOKIE_EXPIRE_SECONDS);
         String redirectUriAfterLogin = request.getParameter(REDIRECT_URI_PARAM_COOKIE_NAME);
         if (StringUtils.isNotBlank(redirectUriAfterLogin)) {
-            CookieUtil.addCookie(response, REDIRECT_URI_PARAM_COOKIE_NAME, redirectUriAfterLogin, cookieExpireSeconds);
+            CookieUtil.addCookie(response, REDIRECT_URI_PARAM_COOKIE_NAME, redirectUriAfterLogin, COOKIE_EXPIRE_SECONDS);
         }
     }
 
@@ -47,8 +59,7 @@ public class OAuth2AuthorizationRequestBasedOnCookieRepository implements Author
     }
 
     public void removeAuthorizationRequestCookies(HttpServletRequest request, HttpServletResponse response) {
-        CookieUtil.deleteCookie(request, response, OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME);
-        CookieUtil.deleteCookie(request, response, REDIRECT_URI_PARAM_COOKIE_NAME);
-        CookieUtil.deleteCookie(request, response, REFRESH_TOKEN);
+        RequestCookies.of(request).delete(response,
+                OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME, REDIRECT_URI_PARAM_COOKIE_NAME, REFRESH_TOKEN);
     }
 }
@@ -0,0 +1,78 @@
+package com.jjukbbae.oauth.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * 연속 실패 횟수 기반의 circuit breaker. 실패가 threshold 번 이어지면 openDuration 동안 호출을 바로 거절하고,
+ * 그 뒤에는 한 번의 시험 호출만 허용해 (half-open) 성공하면 닫고 실패하면 다시 연다.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile boolean open;
+    private volatile long openedAt;
+
+    CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return 호출해도 되면 true. true 를 받았다면 반드시 onSuccess 또는 onFailure 를 호출해야 한다.
+     */
+    boolean tryAcquire() {
+        if (!open) {
+            return true;
+        }
+        if (nanoClock.getAsLong() - openedAt < openNanos) {
+            return false;
+        }
+        return trialInFlight.compareAndSet(false, true);
+    }
+
+    void onSuccess() {
+        consecutiveFailures.set(0);
+        open = false;
+        trialInFlight.set(false);
+    }
+
+    void onFailure() {
+        if (open || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = nanoClock.getAsLong();
+            open = true;
+        }
+        trialInFlight.set(false);
+    }
+
+    /**
+     * 허용받았지만 호출하지 않은 경우, 결과를 반영하지 않고 half-open 시험 기회만 돌려준다.
+     */
+    void releaseTrial() {
+        trialInFlight.set(false);
+    }
+
+    State getState() {
+        if (!open) {
+            return State.CLOSED;
+        }
+        return nanoClock.getAsLong() - openedAt < openNanos ? State.OPEN : State.HALF_OPEN;
+    }
+}
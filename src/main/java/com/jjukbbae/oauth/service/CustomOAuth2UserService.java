@@ -2,33 +2,67 @@ package com.jjukbbae.oauth.service;
 
 import com.jjukbbae.api.entity.user.User;
 import com.jjukbbae.api.repository.user.UserRepository;
+import com.jjukbbae.oauth.client.ProviderHttpClients;
 import com.jjukbbae.oauth.entity.ProviderType;
 import com.jjukbbae.oauth.entity.RoleType;
 import com.jjukbbae.oauth.entity.UserPrincipal;
 import com.jjukbbae.oauth.exception.OAuthProviderMissMatchException;
 import com.jjukbbae.oauth.info.OAuth2UserInfo;
 import com.jjukbbae.oauth.info.OAuth2UserInfoFactory;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 @RequiredArgsConstructor
-public class CustomOAuth2UserService extends DefaultOAuth2UserService {
+public class CustomOAuth2UserService extends DefaultOAuth2UserService implements MeterBinder {
+
+    private static final String UPDATES_METER = "user.profile.updates";
+
+    private static final String ID_TOKEN = "id_token";
 
     private final UserRepository userRepository;
+    private final GoogleIdTokenVerifier googleIdTokenVerifier;
+    private final ProviderCallGuard providerCallGuard;
+    private final ProviderHttpClients providerHttpClients;
+    private final TransactionOperations transactionOperations;
+    private final LongAdder skippedUpdates = new LongAdder();
+    private final LongAdder appliedUpdates = new LongAdder();
+
+    @PostConstruct
+    public void configureRestOperations() {
+        setRestOperations(providerHttpClients.createRestTemplate());
+    }
 
     @Override
     public OAuth2User loadUser(OAuth2UserRequest userRequest) throws OAuth2AuthenticationException {
-        OAuth2User user = super.loadUser(userRequest);
+        OAuth2User user = loadFromIdToken(userRequest);
+        if (user == null) {
+            ProviderType providerType = ProviderType.valueOf(userRequest.getClientRegistration().getRegistrationId().toUpperCase());
+            user = providerCallGuard.call(providerType, () -> super.loadUser(userRequest));
+        }
 
         try {
             return this.process(userRequest, user);
@@ -40,28 +74,84 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
         }
     }
 
-    @Transactional
+    /**
+     * Google 은 token 응답의 id_token 에 userinfo 와 같은 claims 가 들어 있으므로, 로컬 JWKS 로 검증해
+     * userinfo HTTP 호출 없이 사용자 정보를 만든다. id_token 이 없거나 JWKS 를 받을 수 없으면 null.
+     */
+    private OAuth2User loadFromIdToken(OAuth2UserRequest userRequest) {
+        ClientRegistration clientRegistration = userRequest.getClientRegistration();
+        Object idToken = userRequest.getAdditionalParameters().get(ID_TOKEN);
+        if (!(idToken instanceof String) || !ProviderType.GOOGLE.name().equalsIgnoreCase(clientRegistration.getRegistrationId())) {
+            return null;
+        }
+
+        Claims claims;
+        try {
+            claims = googleIdTokenVerifier.verify((String) idToken, clientRegistration.getClientId());
+        } catch (JwtException ex) {
+            OAuth2Error error = new OAuth2Error("invalid_id_token", ex.getMessage(), null);
+            throw new OAuth2AuthenticationException(error, error.toString(), ex);
+        }
+        if (claims == null) {
+            return null;
+        }
+
+        Map<String, Object> attributes = new LinkedHashMap<>(claims);
+        return new DefaultOAuth2User(
+                Collections.singletonList(new OAuth2UserAuthority(attributes)),
+                attributes,
+                "sub"
+        );
+    }
+
+    /**
+     * 기존 사용자는 DB 의 현재 행을 읽어 provider 를 확인하고, 프로필이 바뀐 경우에만 트랜잭션을 열어 갱신한다.
+     * near cache 의 복사본은 다른 인스턴스의 변경을 못 볼 수 있으므로 쓰기와 토큰에 넣을 값의 기준으로 쓰지 않는다.
+     * 사용자 생성 (insert + 잠금 조회) 과 갱신은 transactionOperations 로 건 트랜잭션 안에서 처리한다.
+     * loadUser 에서 this 로 부르므로 @Transactional 대신 transactionOperations 를 쓴다.
+     * 새 사용자의 USER_SEQ 는 트랜잭션이 connection 을 잡기 전에 받는다.
+     */
     public OAuth2User process(OAuth2UserRequest userRequest, OAuth2User user) {
         ProviderType providerType = ProviderType.valueOf(userRequest.getClientRegistration().getRegistrationId().toUpperCase());
 
         OAuth2UserInfo userInfo = OAuth2UserInfoFactory.getOAuth2UserInfo(providerType, user.getAttributes());
-        User savedUser = userRepository.findByUserId(userInfo.getId());
+        User currentUser = userRepository.findCurrentByUserId(userInfo.getId());
 
-        if (savedUser != null) {
-            if (providerType != savedUser.getProviderType()) {
-                throw new OAuthProviderMissMatchException(
-                        "이미 " + savedUser.getProviderType() + " 계정으로 가입된 상태입니다. " + savedUser.getProviderType() + " 계정을 사용해 로그인해 주세요."
-                );
-            }
-            updateUser(savedUser, userInfo);
+        User savedUser;
+        if (currentUser == null) {
+            Long userSeq = userRepository.nextUserSeq();
+            savedUser = transactionOperations.execute(status -> {
+                User createdUser = createUser(userInfo, providerType, userSeq);
+                checkProvider(createdUser, providerType);
+                return updateUser(createdUser, userInfo);
+            });
         } else {
-            savedUser = createUser(userInfo, providerType);
+            checkProvider(currentUser, providerType);
+            if (isProfileChanged(currentUser, userInfo)) {
+                savedUser = transactionOperations.execute(status -> updateUser(currentUser, userInfo));
+            } else {
+                skippedUpdates.increment();
+                savedUser = currentUser;
+            }
         }
 
-        return UserPrincipal.create(savedUser, user.getAttributes());
+        return UserPrincipal.create(savedUser, user.getAttributes(), userInfo.getProfile());
     }
 
-    private User createUser(OAuth2UserInfo userInfo, ProviderType providerType) {
+    private static void checkProvider(User user, ProviderType providerType) {
+        if (providerType != user.getProviderType()) {
+            throw new OAuthProviderMissMatchException(
+                    "이미 " + user.getProviderType() + " 계정으로 가입된 상태입니다. " + user.getProviderType() + " 계정을 사용해 로그인해 주세요."
+            );
+        }
+    }
+
+    /**
+     * insert-if-absent 후 잠금 조회로 실제 저장된 행을 읽는다. 동시에 첫 로그인한 다른 요청이 먼저 만들었다면
+     * 그 행이 반환되고, 이후의 provider 확인과 updateUser 는 기존 사용자와 같은 경로를 탄다.
+     * process 의 트랜잭션 안에서 실행되므로 행 잠금은 updateUser 가 끝나고 커밋할 때까지 유지된다.
+     */
+    private User createUser(OAuth2UserInfo userInfo, ProviderType providerType, Long userSeq) {
         LocalDateTime now = LocalDateTime.now();
         User user = new User(
                 userInfo.getId(),
@@ -75,18 +165,66 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
                 now
         );
 
-        return userRepository.saveAndFlush(user);
+        user.setUserSeq(userSeq);
+        userRepository.insertIfAbsent(user);
+        userRepository.evictByUserId(user.getUserId());
+        User savedUser = userRepository.findForUpdateByUserId(user.getUserId());
+        if (savedUser == null) {
+            // USER_ID 가 아닌 다른 unique key (EMAIL) 가 겹쳐 insert 가 무시된 경우
+            throw new IllegalStateException("Failed to create user. userId := [" + user.getUserId() + "]");
+        }
+        return savedUser;
+    }
+
+    private static boolean isProfileChanged(User user, OAuth2UserInfo userInfo) {
+        return (userInfo.getName() != null && !user.getUsername().equals(userInfo.getName()))
+                || (userInfo.getImageUrl() != null && !user.getProfileImageUrl().equals(userInfo.getImageUrl()));
     }
 
+    /**
+     * 이름, 프로필 이미지가 바뀐 경우에만 조건부 UPDATE 한 번을 실행하고, 갱신된 행을 잠금 조회로 다시 읽어 돌려준다.
+     * 읽은 뒤 다른 요청이 먼저 같은 값으로 바꿨다면 UPDATE 는 아무 행도 바꾸지 않고, 그 요청이 쓴 행을 돌려준다.
+     */
     private User updateUser(User user, OAuth2UserInfo userInfo) {
-        if (userInfo.getName() != null && !user.getUsername().equals(userInfo.getName())) {
-            user.setUsername(userInfo.getName());
+        if (!isProfileChanged(user, userInfo)) {
+            skippedUpdates.increment();
+            return user;
         }
 
-        if (userInfo.getImageUrl() != null && !user.getProfileImageUrl().equals(userInfo.getImageUrl())) {
-            user.setProfileImageUrl(userInfo.getImageUrl());
+        String username = userInfo.getName() != null ? userInfo.getName() : user.getUsername();
+        String profileImageUrl = userInfo.getImageUrl() != null ? userInfo.getImageUrl() : user.getProfileImageUrl();
+        int updated = userRepository.updateProfile(user.getUserId(), username, profileImageUrl, LocalDateTime.now());
+        if (updated > 0) {
+            userRepository.evictByUserId(user.getUserId());
+            appliedUpdates.increment();
+        } else {
+            skippedUpdates.increment();
         }
 
-        return userRepository.saveAndFlush(user);
+        User savedUser = userRepository.findForUpdateByUserId(user.getUserId());
+        if (savedUser == null) {
+            throw new IllegalStateException("User removed during login. userId := [" + user.getUserId() + "]");
+        }
+        return savedUser;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(UPDATES_METER, skippedUpdates, LongAdder::doubleValue)
+                .description("Profile updates on login")
+                .tag("result", "skipped")
+                .register(registry);
+        FunctionCounter.builder(UPDATES_METER, appliedUpdates, LongAdder::doubleValue)
+                .description("Profile updates on login")
+                .tag("result", "updated")
+                .register(registry);
+    }
+
+    long getSkippedUpdates() {
+        return skippedUpdates.sum();
+    }
+
+    long getAppliedUpdates() {
+        return appliedUpdates.sum();
     }
 }
@@ -1,6 +1,6 @@
 package com.jjukbbae.oauth.service;
 
-import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.api.entity.user.UserCredentials;
 import com.jjukbbae.api.repository.user.UserRepository;
 import com.jjukbbae.oauth.entity.UserPrincipal;
 import lombok.RequiredArgsConstructor;
@@ -17,10 +17,10 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUserId(username);
-        if (user == null) {
+        UserCredentials credentials = userRepository.findCredentialsByUserId(username);
+        if (credentials == null) {
             throw new UsernameNotFoundException("Can not find username.");
         }
-        return UserPrincipal.create(user);
+        return UserPrincipal.create(credentials);
     }
 }
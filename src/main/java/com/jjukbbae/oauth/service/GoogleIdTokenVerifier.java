@@ -0,0 +1,88 @@
+package com.jjukbbae.oauth.service;
+
+import com.jjukbbae.oauth.exception.UnknownSigningKeyException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Google 이 token 응답에 함께 준 id_token 을 로컬에 캐시한 JWKS 로 검증한다.
+ * 서명 (RS256), iss, aud (client id), exp 를 확인하며, 통과하면 userinfo 호출 없이 claims 를 사용자 정보로 쓸 수 있다.
+ * id_token 은 authorization code 교환 응답으로 직접 받은 값이므로 nonce 는 확인하지 않는다.
+ */
+@Component
+public class GoogleIdTokenVerifier {
+
+    static final Set<String> ISSUERS = Set.of("https://accounts.google.com", "accounts.google.com");
+    private static final long ALLOWED_CLOCK_SKEW_SECONDS = 60;
+
+    private final RemoteJwks jwks;
+
+    public GoogleIdTokenVerifier(@Value("${app.oauth2.google.jwks-uri:https://www.googleapis.com/oauth2/v3/certs}") URI jwksUri,
+                                 @Value("${app.oauth2.google.jwks-refresh-interval:1h}") Duration refreshInterval) {
+        this.jwks = new RemoteJwks(jwksUri, refreshInterval);
+    }
+
+    /**
+     * @return 검증된 claims, JWKS 를 받을 수 없어 로컬 검증이 불가능하면 null
+     * @throws JwtException id_token 이 유효하지 않은 경우
+     */
+    public Claims verify(String idToken, String clientId) {
+        Claims claims;
+        try {
+            claims = Jwts.parserBuilder()
+                    .setSigningKeyResolver(new JwksKeyResolver())
+                    .requireAudience(clientId)
+                    .setAllowedClockSkewSeconds(ALLOWED_CLOCK_SKEW_SECONDS)
+                    .build()
+                    .parseClaimsJws(idToken)
+                    .getBody();
+        } catch (UnknownSigningKeyException e) {
+            if (!jwks.isAvailable()) {
+                return null;
+            }
+            throw e;
+        }
+
+        if (!ISSUERS.contains(claims.getIssuer())) {
+            throw new UnsupportedJwtException("Unexpected id_token issuer [" + claims.getIssuer() + "].");
+        }
+        if (claims.getExpiration() == null || claims.getSubject() == null) {
+            throw new UnsupportedJwtException("id_token must have exp and sub claims.");
+        }
+        return claims;
+    }
+
+    @PreDestroy
+    public void close() {
+        jwks.close();
+    }
+
+    private class JwksKeyResolver extends SigningKeyResolverAdapter {
+
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            if (!SignatureAlgorithm.RS256.getValue().equals(header.getAlgorithm())) {
+                throw new UnsupportedJwtException("Unexpected id_token algorithm [" + header.getAlgorithm() + "].");
+            }
+
+            Key key = header.getKeyId() == null ? null : jwks.get(header.getKeyId());
+            if (key == null) {
+                throw new UnknownSigningKeyException(header.getKeyId());
+            }
+            return key;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.jjukbbae.oauth.service;
+
+import com.jjukbbae.oauth.entity.ProviderType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * provider (userinfo 등) 로의 blocking 호출을 provider 별로 격리한다.
+ * 동시 호출 수를 bulkhead 로 제한하고, timeout (ProviderHttpClients 의 연결/응답 timeout) 이나 5xx 가 이어지면 circuit 을 열어 worker thread 를 묶어 두지 않고 바로 실패시킨다.
+ * 거절은 OAuth2AuthenticationException 으로 던지므로 OAuth2AuthenticationFailureHandler 의 redirect 로 끝난다.
+ */
+@Slf4j
+@Component
+public class ProviderCallGuard implements MeterBinder {
+
+    public static final String PROVIDER_BUSY = "provider_busy";
+    public static final String PROVIDER_UNAVAILABLE = "provider_unavailable";
+
+    private final Map<ProviderType, Semaphore> bulkheads = new EnumMap<>(ProviderType.class);
+    private final Map<ProviderType, CircuitBreaker> circuitBreakers = new EnumMap<>(ProviderType.class);
+
+    public ProviderCallGuard(@Value("${app.oauth2.provider.max-concurrent-calls:20}") int maxConcurrentCalls,
+                             @Value("${app.oauth2.provider.failure-threshold:5}") int failureThreshold,
+                             @Value("${app.oauth2.provider.open-duration:30s}") Duration openDuration) {
+        for (ProviderType providerType : ProviderType.values()) {
+            bulkheads.put(providerType, new Semaphore(maxConcurrentCalls));
+            circuitBreakers.put(providerType, new CircuitBreaker(failureThreshold, openDuration));
+        }
+    }
+
+    public <T> T call(ProviderType providerType, Supplier<T> call) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(providerType);
+        if (!circuitBreaker.tryAcquire()) {
+            throw rejected(PROVIDER_UNAVAILABLE, providerType + " 로그인이 일시적으로 원활하지 않습니다. 잠시 후 다시 시도해 주세요.");
+        }
+
+        Semaphore bulkhead = bulkheads.get(providerType);
+        if (!bulkhead.tryAcquire()) {
+            // 호출하지 않았으므로 provider 상태와는 무관하다. half-open 시험 기회만 돌려준다.
+            circuitBreaker.releaseTrial();
+            throw rejected(PROVIDER_BUSY, providerType + " 로그인 요청이 많습니다. 잠시 후 다시 시도해 주세요.");
+        }
+
+        try {
+            T result = call.get();
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isProviderFailure(e)) {
+                circuitBreaker.onFailure();
+                log.warn("{} provider call failed. circuit := [{}]", providerType, circuitBreaker.getState());
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    CircuitBreaker.State getState(ProviderType providerType) {
+        return circuitBreakers.get(providerType).getState();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ProviderType providerType : ProviderType.values()) {
+            Gauge.builder("oauth2.provider.bulkhead.available", bulkheads.get(providerType), Semaphore::availablePermits)
+                    .description("Available concurrent call permits per provider")
+                    .tag("provider", providerType.name())
+                    .register(registry);
+            Gauge.builder("oauth2.provider.circuit.open", circuitBreakers.get(providerType),
+                            circuitBreaker -> circuitBreaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                    .description("Whether the provider circuit breaker is open")
+                    .tag("provider", providerType.name())
+                    .register(registry);
+        }
+    }
+
+    /**
+     * 연결 실패, timeout, 5xx 만 provider 장애로 본다. 잘못된 access token 같은 4xx 는 circuit 에 반영하지 않는다.
+     */
+    private static boolean isProviderFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ResourceAccessException || cause instanceof HttpServerErrorException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static OAuth2AuthenticationException rejected(String errorCode, String description) {
+        OAuth2Error error = new OAuth2Error(errorCode, description, null);
+        return new OAuth2AuthenticationException(error, description);
+    }
+}
@@ -0,0 +1,194 @@
+package com.jjukbbae.oauth.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * provider 의 JWKS 를 받아 kid 별 RSA public key 로 보관한다. 첫 조회 때 한 번 동기로 받고,
+ * 이후에는 background 에서 주기적으로 갱신하므로 로그인 요청이 JWKS 를 기다리지 않는다.
+ * 모르는 kid 가 오면 (provider 의 key 회전) 최소 간격을 지켜 한 번 더 받아 본다. 동시에 같은 kid 로 들어온 요청은
+ * lock 을 얻은 뒤 다시 확인하므로 한 요청만 받고 나머지는 그 결과를 쓴다.
+ * HTTP 요청을 lock 안에서 하므로 synchronized 대신 ReentrantLock 을 써서 virtual thread 의 carrier 를 붙잡지 않는다.
+ */
+@Slf4j
+class RemoteJwks implements AutoCloseable {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration MIN_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
+    private final URI uri;
+    private final Duration refreshInterval;
+    private final long minRefreshIntervalMillis;
+    private final HttpClient httpClient;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Map<String, PublicKey> keys;
+    private volatile long fetchedAt;
+    private ScheduledExecutorService scheduler;
+
+    RemoteJwks(URI uri, Duration refreshInterval) {
+        this(uri, refreshInterval, MIN_REFRESH_INTERVAL);
+    }
+
+    RemoteJwks(URI uri, Duration refreshInterval, Duration minRefreshInterval) {
+        this.uri = uri;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshIntervalMillis = minRefreshInterval.toMillis();
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    /**
+     * @return kid 에 해당하는 key, JWKS 를 받지 못했거나 없는 kid 이면 null
+     */
+    PublicKey get(String kid) {
+        Map<String, PublicKey> current = keys;
+        if (current == null) {
+            current = initialize();
+        }
+
+        PublicKey key = current.get(kid);
+        if (key == null && canRefetch()) {
+            key = refetch(kid);
+        }
+        return key;
+    }
+
+    private boolean canRefetch() {
+        return System.currentTimeMillis() - fetchedAt >= minRefreshIntervalMillis;
+    }
+
+    /**
+     * 모르는 kid 로 다시 받는다. lock 을 기다리는 동안 다른 요청이 이미 받았으면 (kid 가 생겼거나 방금 받았으면) 받지 않는다.
+     */
+    private PublicKey refetch(String kid) {
+        lock.lock();
+        try {
+            PublicKey key = keys.get(kid);
+            if (key != null || !canRefetch()) {
+                return key;
+            }
+            return refresh().get(kid);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isAvailable() {
+        Map<String, PublicKey> current = keys;
+        return current != null && !current.isEmpty();
+    }
+
+    private Map<String, PublicKey> initialize() {
+        lock.lock();
+        try {
+            if (keys == null) {
+                refresh();
+                startRefresher();
+            }
+            return keys;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Map<String, PublicKey> refresh() {
+        lock.lock();
+        try {
+            keys = fetch();
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            // 받지 못하면 기존 key 를 유지한다. 처음부터 실패하면 빈 map 이 되어 호출 측이 userinfo 로 돌아간다.
+            log.warn("Failed to fetch JWKS [{}]. Keeping current keys.", uri, e);
+            if (keys == null) {
+                keys = Map.of();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (keys == null) {
+                keys = Map.of();
+            }
+        } finally {
+            fetchedAt = System.currentTimeMillis();
+            lock.unlock();
+        }
+        return keys;
+    }
+
+    private void startRefresher() {
+        if (scheduler != null) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwks-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh,
+                refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, PublicKey> fetch() throws IOException, InterruptedException, GeneralSecurityException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Unexpected JWKS response status [" + response.statusCode() + "].");
+        }
+        return parse(response.body());
+    }
+
+    static Map<String, PublicKey> parse(String json) throws IOException, GeneralSecurityException {
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        Map<String, PublicKey> parsed = new HashMap<>();
+        for (JsonNode jwk : OBJECT_MAPPER.readTree(json).path("keys")) {
+            String use = jwk.path("use").asText("sig");
+            if (!"RSA".equals(jwk.path("kty").asText()) || !"sig".equals(use) || !jwk.hasNonNull("kid")) {
+                continue;
+            }
+
+            BigInteger modulus = new BigInteger(1, DECODER.decode(jwk.path("n").asText()));
+            BigInteger exponent = new BigInteger(1, DECODER.decode(jwk.path("e").asText()));
+            parsed.put(jwk.get("kid").asText(), keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+        }
+        return Map.copyOf(parsed);
+    }
+}
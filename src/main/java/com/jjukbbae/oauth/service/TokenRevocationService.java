@@ -0,0 +1,225 @@
+package com.jjukbbae.oauth.service;
+
+import com.jjukbbae.api.entity.auth.RevokedToken;
+import com.jjukbbae.api.entity.auth.UserTokenEpoch;
+import com.jjukbbae.api.repository.auth.RevokedTokenRepository;
+import com.jjukbbae.api.repository.auth.UserTokenEpochRepository;
+import com.jjukbbae.config.properties.AppProperties;
+import com.jjukbbae.oauth.token.TokenRevocationChecker;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * access 토큰 폐기. 개별 토큰은 jti 로, 사용자의 모든 토큰은 token epoch 로 폐기한다.
+ * 폐기되지 않은 토큰은 Bloom filter 와 epoch map 조회만으로 통과하고,
+ * Bloom filter 가 hit 일 때만 REVOKED_TOKEN 테이블에서 실제로 폐기되었는지 확인한다.
+ * 폐기 내역은 테이블에 저장되며 기동 시 메모리 구조를 다시 만든다. 만료된 행은 주기적으로 지우고
+ * Bloom filter 는 지울 수 없으므로 남은 행으로 새로 만들어 바꿔 끼운다.
+ * 다른 인스턴스가 올린 epoch 는 짧은 주기 (epoch-refresh-interval) 로 마지막으로 읽은 값 이후의 행만 읽어 반영한다.
+ * epoch 보다 먼저 발급된 access 토큰은 epoch + 토큰 수명이 지나면 모두 만료되므로, 그보다 오래된 epoch 는 map 과 테이블에서 지운다.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService implements TokenRevocationChecker {
+
+    private static final Duration EPOCH_REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserTokenEpochRepository userTokenEpochRepository;
+    private final long expectedRevocations;
+    private final double falsePositiveProbability;
+    private final Duration purgeInterval;
+    private final Duration epochRefreshInterval;
+    private final long tokenExpiryMillis;
+    private final Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+    private volatile BloomFilter revokedJtis;
+    // 다시 만드는 중인 filter. 그 사이 폐기된 jti 도 새 filter 에 들어가야 한다.
+    private volatile BloomFilter rebuilding;
+    // 마지막으로 읽은 REVOKED_BEFORE 중 가장 큰 값
+    private long epochWatermark;
+    private ScheduledExecutorService scheduler;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  UserTokenEpochRepository userTokenEpochRepository,
+                                  @Value("${jwt.revocation.expected-revocations:100000}") long expectedRevocations,
+                                  @Value("${jwt.revocation.false-positive-probability:0.01}") double falsePositiveProbability,
+                                  @Value("${jwt.revocation.purge-interval:1h}") Duration purgeInterval,
+                                  @Value("${jwt.revocation.epoch-refresh-interval:5s}") Duration epochRefreshInterval,
+                                  AppProperties appProperties) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userTokenEpochRepository = userTokenEpochRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.purgeInterval = purgeInterval;
+        this.epochRefreshInterval = epochRefreshInterval;
+        this.tokenExpiryMillis = appProperties.getAuth().getTokenExpiry();
+        this.revokedJtis = new BloomFilter(expectedRevocations, falsePositiveProbability);
+    }
+
+    @PostConstruct
+    public void start() {
+        rebuild();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::purgeQuietly,
+                purgeInterval.toMillis(), purgeInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::refreshEpochsQuietly,
+                epochRefreshInterval.toMillis(), epochRefreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public void rebuild() {
+        int purged = purgeExpired();
+        refreshEpochs();
+        log.info("Rebuilt token revocations. purged := [{}], users := [{}]", purged, revokedBefore.size());
+    }
+
+    /**
+     * 마지막으로 읽은 epoch 이후에 올라간 epoch 를 읽어 반영하고, 토큰 수명보다 오래된 epoch 는 map 에서 지운다.
+     * 다른 인스턴스의 시계 차이와 commit 지연으로 늦게 보이는 행을 놓치지 않도록 EPOCH_REFRESH_OVERLAP 만큼 겹쳐 읽는다.
+     *
+     * @return 읽은 행 수
+     */
+    public synchronized int refreshEpochs() {
+        long expiredBefore = System.currentTimeMillis() - tokenExpiryMillis;
+        long since = Math.max(epochWatermark - EPOCH_REFRESH_OVERLAP.toMillis(), expiredBefore);
+        List<UserTokenEpoch> epochs = userTokenEpochRepository.findByRevokedBeforeAfter(since);
+        for (UserTokenEpoch epoch : epochs) {
+            revokedBefore.merge(epoch.getUserId(), epoch.getRevokedBefore(), Math::max);
+            epochWatermark = Math.max(epochWatermark, epoch.getRevokedBefore());
+        }
+        revokedBefore.values().removeIf(epoch -> epoch <= expiredBefore);
+        return epochs.size();
+    }
+
+    private void refreshEpochsQuietly() {
+        try {
+            refreshEpochs();
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh token epochs. Retrying next period.", e);
+        }
+    }
+
+    /**
+     * 만료된 REVOKED_TOKEN 행과 토큰 수명보다 오래된 USER_TOKEN_EPOCH 행을 지우고 남은 jti 로 Bloom filter 를 다시 만든다.
+     *
+     * @return 지운 행 수
+     */
+    public synchronized int purgeExpired() {
+        BloomFilter next = new BloomFilter(expectedRevocations, falsePositiveProbability);
+        rebuilding = next;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int purged = revokedTokenRepository.deleteExpired(now)
+                    + userTokenEpochRepository.deleteExpired(System.currentTimeMillis() - tokenExpiryMillis);
+            for (String jti : revokedTokenRepository.findJtisByExpiresAtAfter(now)) {
+                next.put(jti);
+            }
+            revokedJtis = next;
+            return purged;
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private void purgeQuietly() {
+        try {
+            int purged = purgeExpired();
+            log.debug("Purged expired token revocations. purged := [{}]", purged);
+        } catch (RuntimeException e) {
+            log.warn("Failed to purge expired token revocations. Retrying next period.", e);
+        }
+    }
+
+    @Override
+    public boolean isRevoked(Claims claims) {
+        Long epoch = revokedBefore.get(claims.getSubject());
+        if (epoch != null) {
+            Long issuedAt = issuedAtMillis(claims);
+            if (issuedAt == null || issuedAt < epoch) {
+                return true;
+            }
+        }
+
+        String jti = claims.getId();
+        return jti != null && revokedJtis.mightContain(jti) && revokedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * 토큰 하나를 폐기한다 (로그아웃). 테이블의 행은 토큰이 만료된 뒤 주기적으로 정리된다.
+     */
+    @Transactional
+    public void revoke(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null) {
+            throw new IllegalArgumentException("Token has no jti.");
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+        revokedTokenRepository.save(new RevokedToken(jti, claims.getSubject(), expiresAt));
+        putJti(jti);
+        // commit 전에 다시 만들기 시작한 filter 는 이 행을 읽지 못하므로 commit 뒤에 한 번 더 넣는다.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putJti(jti);
+                }
+            });
+        }
+    }
+
+    /**
+     * 사용자에게 지금까지 발급된 모든 토큰을 폐기한다 (권한 변경, 전체 로그아웃).
+     * 지금 시각 (ms) 보다 먼저 발급된 토큰만 폐기하므로 직후에 새로 발급된 토큰은 같은 초여도 유효하다.
+     */
+    @Transactional
+    public void revokeAll(String userId) {
+        long now = System.currentTimeMillis();
+        userTokenEpochRepository.save(new UserTokenEpoch(userId, now));
+        revokedBefore.merge(userId, now, Math::max);
+    }
+
+    private void putJti(String jti) {
+        revokedJtis.put(jti);
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(jti);
+        }
+    }
+
+    /**
+     * 발급 시각 (ms). 이 서버가 발급한 토큰은 iat 를 소수점 이하 ms 까지 담는다.
+     */
+    private static Long issuedAtMillis(Claims claims) {
+        Object issuedAt = claims.get(Claims.ISSUED_AT);
+        return issuedAt instanceof Number number ? Math.round(number.doubleValue() * 1000) : null;
+    }
+}
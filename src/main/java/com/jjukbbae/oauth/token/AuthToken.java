@@ -1,84 +1,137 @@
 package com.jjukbbae.oauth.token;
 
+import com.jjukbbae.oauth.exception.UnknownSigningKeyException;
 import io.jsonwebtoken.*;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.math.BigDecimal;
 import java.security.Key;
 import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
-@RequiredArgsConstructor
 public class AuthToken {
 
     @Getter
     private final String token;
     private final Key key;
+    private TokenParsers parsers;
 
     private static final String AUTHORITES_KEY = "role";
 
+    public AuthToken(String token, Key key) {
+        this.token = token;
+        this.key = key;
+    }
+
+    AuthToken(String token, TokenParsers parsers) {
+        this.token = token;
+        this.key = null;
+        this.parsers = parsers;
+    }
+
     AuthToken(String id, Date expiry, Key key) {
         this.key = key;
-        this.token = createAuthToken(id, expiry);
+        this.token = createAuthToken(id, Map.of(), expiry, new SigningKey(null, key));
     }
 
     AuthToken(String id, String role, Date expiry, Key key) {
         this.key = key;
-        this.token = createAuthToken(id, role, expiry);
+        this.token = createAuthToken(id, roleClaims(role), expiry, new SigningKey(null, key));
     }
 
-    private String createAuthToken(String id, Date expiry) {
-        return Jwts.builder()
-                .setSubject(id)
-                .signWith(SignatureAlgorithm.HS256, key)
-                .setExpiration(expiry)
-                .compact();
+    AuthToken(String id, Map<String, ?> claims, Date expiry, SigningKey signingKey, TokenParsers parsers) {
+        this.key = null;
+        this.parsers = parsers;
+        this.token = createAuthToken(id, claims, expiry, signingKey);
+    }
+
+    private static Map<String, ?> roleClaims(String role) {
+        return role == null ? Map.of() : Map.of(AUTHORITES_KEY, role);
     }
 
-    private String createAuthToken(String id, String role, Date expiry) {
-        return Jwts.builder()
+    private static String createAuthToken(String id, Map<String, ?> claims, Date expiry, SigningKey signingKey) {
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(id)
-                .claim(AUTHORITES_KEY, role)
-                .signWith(SignatureAlgorithm.HS256, key)
+                // 토큰 폐기 (revokeAll) 와 같은 초에 발급된 토큰을 구분할 수 있도록 iat 를 ms 까지 담는다. NumericDate 는 소수를 허용한다.
+                .claim(Claims.ISSUED_AT, BigDecimal.valueOf(System.currentTimeMillis(), 3));
+        if (signingKey.getKid() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid());
+        }
+        claims.forEach(builder::claim);
+        return builder
+                .signWith(signingKey.getKey(), signingKey.getAlgorithm())
                 .setExpiration(expiry)
                 .compact();
     }
 
     public boolean validate() {
-        return this.getTokenClaims() != null;
+        return this.verify().isValid();
     }
 
     public Claims getTokenClaims() {
+        return this.verify().getClaims();
+    }
+
+    public TokenVerification verify() {
+        TokenFailureReason failureReason = TokenPrevalidator.check(token, System.currentTimeMillis());
+        if (failureReason != null) {
+            return TokenVerification.failed(failureReason);
+        }
+        return verifySignature();
+    }
+
+    TokenVerification verifySignature() {
         try {
-            return Jwts.parser()
-                    .setSigningKey(key)
+            return TokenVerification.valid(parsers().parser()
                     .parseClaimsJws(token)
-                    .getBody();
-        } catch (SecurityException e) {
-            log.info("Invalid JWT signature.");
+                    .getBody());
+        } catch (UnknownSigningKeyException e) {
+            log.debug("Unknown JWT signing key.");
+            return TokenVerification.failed(TokenFailureReason.UNKNOWN_KEY);
+        } catch (SecurityException | io.jsonwebtoken.security.SecurityException e) {
+            log.debug("Invalid JWT signature.");
+            return TokenVerification.failed(TokenFailureReason.INVALID_SIGNATURE);
         } catch (MalformedJwtException e) {
-            log.info("Invalid JWT token.");
+            log.debug("Invalid JWT token.");
+            return TokenVerification.failed(TokenFailureReason.MALFORMED);
         } catch (ExpiredJwtException e) {
-            log.info("Expired JWT token.");
+            log.debug("Expired JWT token.");
+            return TokenVerification.failed(TokenFailureReason.EXPIRED);
         } catch (UnsupportedJwtException e) {
-            log.info("Unsupported JWT token.");
+            log.debug("Unsupported JWT token.");
+            return TokenVerification.failed(TokenFailureReason.UNSUPPORTED);
         } catch (IllegalArgumentException e) {
-            log.info("JWT token compact of handler are invalid.");
+            log.debug("JWT token compact of handler are invalid.");
+            return TokenVerification.failed(TokenFailureReason.MISSING);
         }
-        return null;
     }
 
     public Claims getExpiredTokenClaims() {
+        long now = System.currentTimeMillis();
+        TokenFailureReason failureReason = TokenPrevalidator.check(token, now);
+        if (failureReason != TokenFailureReason.EXPIRED) {
+            return null;
+        }
+
         try {
-            Jwts.parser()
-                    .setSigningKey(key)
+            Claims claims = parsers().expiryIgnoringParser()
                     .parseClaimsJws(token)
                     .getBody();
-        } catch (ExpiredJwtException e) {
-            log.info("Expired JWT token.");
-            return e.getClaims();
+            return claims.getExpiration() != null && claims.getExpiration().getTime() < now ? claims : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid expired JWT token.");
+            return null;
+        }
+    }
+
+    private TokenParsers parsers() {
+        if (parsers == null) {
+            parsers = new TokenParsers(key);
         }
-        return null;
+        return parsers;
     }
 }
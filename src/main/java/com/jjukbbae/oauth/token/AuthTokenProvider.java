@@ -1,58 +1,180 @@
 package com.jjukbbae.oauth.token;
 
+import com.jjukbbae.oauth.entity.RoleType;
+import com.jjukbbae.oauth.entity.TokenPrincipal;
 import com.jjukbbae.oauth.exception.TokenValidFailedException;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 
-import java.security.Key;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 public class AuthTokenProvider {
 
-    private final Key key;
+    private final TokenKeyRing keyRing;
+    private final TokenParsers parsers;
+    private final VerifiedClaimsCache claimsCache;
+    private final TokenFailureCounter failureCounter = new TokenFailureCounter();
+    private volatile TokenRevocationChecker revocationChecker = TokenRevocationChecker.NONE;
     private static final String AUTHORITIES_KEY = "role";
+    public static final String FAMILY_KEY = "fam";
+    private static final long DEFAULT_CLAIMS_CACHE_SIZE = 10_000;
 
     public AuthTokenProvider(String secret) {
-        this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this(secret, new VerifiedClaimsCache(DEFAULT_CLAIMS_CACHE_SIZE));
+    }
+
+    public AuthTokenProvider(String secret, VerifiedClaimsCache claimsCache) {
+        this(secret, SignatureAlgorithm.HS256, claimsCache);
+    }
+
+    public AuthTokenProvider(String secret, SignatureAlgorithm algorithm, VerifiedClaimsCache claimsCache) {
+        this(new TokenKeyRing(SigningKeys.of(new SigningKey(null, algorithm, Keys.hmacShaKeyFor(secret.getBytes())))), claimsCache);
+    }
+
+    public AuthTokenProvider(TokenKeyRing keyRing, VerifiedClaimsCache claimsCache) {
+        this.keyRing = keyRing;
+        this.parsers = new TokenParsers(keyRing);
+        this.claimsCache = claimsCache;
     }
 
     public AuthToken createAuthToken(String id, Date expiry) {
-        return new AuthToken(id, expiry, key);
+        return new AuthToken(id, TokenType.ACCESS.withClaims(Map.of()), expiry, keyRing.active(), parsers);
     }
 
     public AuthToken createAuthToken(String id, String role, Date expiry) {
-        return new AuthToken(id, role, expiry, key);
+        Map<String, ?> claims = role == null ? Map.of() : Map.of(AUTHORITIES_KEY, role);
+        return new AuthToken(id, TokenType.ACCESS.withClaims(claims), expiry, keyRing.active(), parsers);
+    }
+
+    /**
+     * 프로필 claim 을 함께 서명한 access 토큰. 권한은 profileClaims 의 roleType 으로 "role" claim 에 들어간다.
+     */
+    public AuthToken createAuthToken(String id, ProfileClaims profileClaims, Date expiry) {
+        return new AuthToken(id, TokenType.ACCESS.withClaims(profileClaims.toClaims()), expiry, keyRing.active(), parsers);
+    }
+
+    /**
+     * refresh 토큰. family 는 같은 로그인에서 회전되어 온 토큰들의 묶음이다.
+     */
+    public AuthToken createRefreshToken(String id, String familyId, Date expiry) {
+        return new AuthToken(id, TokenType.REFRESH.withClaims(Map.of(FAMILY_KEY, familyId)), expiry, keyRing.active(), parsers);
     }
 
     public AuthToken convertAuthToken(String token) {
-        return new AuthToken(token, key);
+        return new AuthToken(token, parsers);
     }
 
-    public Authentication getAuthentication(AuthToken authToken) {
+    /**
+     * 서명 key 스냅샷을 교체한다. 빠진 key 로 검증된 claims 가 남지 않도록 캐시도 비운다.
+     */
+    public void replaceKeys(SigningKeys signingKeys) {
+        keyRing.swap(signingKeys);
+        claimsCache.invalidateAll();
+    }
+
+    /**
+     * access 토큰 검증. 검증된 claims 는 캐시하고 실패는 사유별로 센다. refresh 토큰은 {@link TokenFailureReason#WRONG_TYPE} 으로 거부한다.
+     */
+    public TokenVerification verify(AuthToken authToken) {
+        String token = authToken.getToken();
+        TokenFailureReason failureReason = TokenPrevalidator.check(token, System.currentTimeMillis());
+        if (failureReason != null) {
+            return reject(failureReason);
+        }
+
+        // 폐기 여부는 캐시된 claims 에도 매번 확인한다.
+        Claims cachedClaims = claimsCache.get(token);
+        if (cachedClaims != null) {
+            return revocationChecker.isRevoked(cachedClaims)
+                    ? reject(TokenFailureReason.REVOKED)
+                    : TokenVerification.valid(cachedClaims);
+        }
+
+        TokenVerification verification = authToken.verifySignature();
+        if (!verification.isValid()) {
+            return reject(verification.getFailureReason());
+        }
+        if (TokenType.of(verification.getClaims()) != TokenType.ACCESS) {
+            return reject(TokenFailureReason.WRONG_TYPE);
+        }
+        claimsCache.put(token, verification.getClaims());
+        if (revocationChecker.isRevoked(verification.getClaims())) {
+            return reject(TokenFailureReason.REVOKED);
+        }
+        return verification;
+    }
+
+    /**
+     * refresh 토큰 검증. 회전되면 다시 쓰이지 않는 토큰이므로 access 토큰 claims 캐시에 넣지 않고, 실패도 access 토큰 실패 지표에 세지 않는다.
+     * 폐기 여부는 DB 의 현재 토큰 hash 와 비교해 회전할 때 판단한다.
+     */
+    public TokenVerification verifyRefreshToken(AuthToken authToken) {
+        TokenVerification verification = authToken.verify();
+        if (verification.isValid() && TokenType.of(verification.getClaims()) != TokenType.REFRESH) {
+            return TokenVerification.failed(TokenFailureReason.WRONG_TYPE);
+        }
+        return verification;
+    }
+
+    public boolean isRevoked(Claims claims) {
+        return revocationChecker.isRevoked(claims);
+    }
+
+    public void setRevocationChecker(TokenRevocationChecker revocationChecker) {
+        this.revocationChecker = revocationChecker;
+    }
 
-        if (authToken.validate()) {
-            Claims claims = authToken.getTokenClaims();
-            Collection<? extends GrantedAuthority> authorities =
-                    Arrays.stream(new String[]{claims.get(AUTHORITIES_KEY).toString()})
-                            .map(SimpleGrantedAuthority::new)
-                            .collect(Collectors.toList());
+    public SigningKeys getSigningKeys() {
+        return keyRing.current();
+    }
+
+    public TokenFailureCounter getFailureCounter() {
+        return failureCounter;
+    }
+
+    private TokenVerification reject(TokenFailureReason failureReason) {
+        failureCounter.increment(failureReason);
+        return TokenVerification.failed(failureReason);
+    }
 
-            log.debug("claims subject := [{}]", claims.getSubject());
-            User principal = new User(claims.getSubject(), "", authorities);
+    public Authentication getAuthentication(AuthToken authToken) {
+        TokenVerification verification = verify(authToken);
 
-            return new UsernamePasswordAuthenticationToken(principal, authToken, authorities);
+        if (verification.isValid()) {
+            return getAuthentication(authToken, verification.getClaims());
         } else {
             throw new TokenValidFailedException();
         }
     }
+
+    public Authentication getAuthentication(AuthToken authToken, Claims claims) {
+        Collection<? extends GrantedAuthority> authorities = getAuthorities(claims.get(AUTHORITIES_KEY, String.class));
+
+        log.debug("claims subject := [{}]", claims.getSubject());
+        TokenPrincipal principal = new TokenPrincipal(claims.getSubject(), ProfileClaims.from(claims));
+
+        return new UsernamePasswordAuthenticationToken(principal, authToken, authorities);
+    }
+
+    private Collection<? extends GrantedAuthority> getAuthorities(String role) {
+        if (role == null) {
+            throw new TokenValidFailedException();
+        }
+
+        RoleType roleType = RoleType.find(role);
+        if (roleType != null) {
+            return roleType.getAuthorities();
+        }
+        return List.of(new SimpleGrantedAuthority(role));
+    }
 }
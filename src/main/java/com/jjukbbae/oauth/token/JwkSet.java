@@ -0,0 +1,76 @@
+package com.jjukbbae.oauth.token;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigInteger;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 비대칭 서명 key 의 public key 만 모아 JWKS (RFC 7517) JSON 으로 만든다. HMAC key 는 절대 포함하지 않는다.
+ */
+final class JwkSet {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private JwkSet() {
+    }
+
+    static String toJson(Iterable<SigningKey> signingKeys) {
+        List<Map<String, String>> keys = new ArrayList<>();
+        for (SigningKey signingKey : signingKeys) {
+            if (signingKey.isAsymmetric() && signingKey.getKid() != null) {
+                keys.add(toJwk(signingKey));
+            }
+        }
+
+        try {
+            return OBJECT_MAPPER.writeValueAsString(Map.of("keys", keys));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, String> toJwk(SigningKey signingKey) {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        jwk.put("kid", signingKey.getKid());
+        jwk.put("use", "sig");
+        jwk.put("alg", signingKey.getAlgorithm().getValue());
+
+        if (signingKey.getVerificationKey() instanceof ECPublicKey ecPublicKey) {
+            int size = (ecPublicKey.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-" + ecPublicKey.getParams().getCurve().getField().getFieldSize());
+            jwk.put("x", encode(ecPublicKey.getW().getAffineX(), size));
+            jwk.put("y", encode(ecPublicKey.getW().getAffineY(), size));
+        } else if (signingKey.getVerificationKey() instanceof RSAPublicKey rsaPublicKey) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", encode(rsaPublicKey.getModulus(), (rsaPublicKey.getModulus().bitLength() + 7) / 8));
+            jwk.put("e", encode(rsaPublicKey.getPublicExponent(), (rsaPublicKey.getPublicExponent().bitLength() + 7) / 8));
+        } else {
+            throw new IllegalArgumentException("Unsupported public key type [" + signingKey.getVerificationKey().getAlgorithm() + "].");
+        }
+        return jwk;
+    }
+
+    // 부호 byte 를 제거하고 고정 길이의 unsigned big-endian 으로 인코딩한다.
+    private static String encode(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > length) {
+            bytes = Arrays.copyOfRange(bytes, bytes.length - length, bytes.length);
+        } else if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return ENCODER.encodeToString(bytes);
+    }
+}
@@ -0,0 +1,78 @@
+package com.jjukbbae.oauth.token;
+
+import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.entity.RoleType;
+import io.jsonwebtoken.Claims;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * access token 에 함께 서명하는 프로필 (app.auth.profile-claims 를 켠 경우).
+ * version 은 USERS.MODIFIED_AT (epoch millis) 이며, 서버가 더 새 version 을 알고 있으면 DB 에서 다시 읽는다.
+ * userSeq 는 DB 조회 없이 프로필 ETag 를 만들기 위해 넣는다.
+ * roleType 은 별도 claim 을 두지 않고 기존 "role" claim 을 쓴다.
+ */
+public record ProfileClaims(long userSeq, String name, String imageUrl, ProviderType providerType, RoleType roleType, long version) {
+
+    public static final String USER_SEQ_KEY = "seq";
+    public static final String NAME_KEY = "name";
+    public static final String IMAGE_URL_KEY = "pic";
+    public static final String PROVIDER_KEY = "prv";
+    public static final String VERSION_KEY = "pv";
+    private static final String ROLE_KEY = "role";
+
+    public static ProfileClaims of(User user, RoleType roleType) {
+        return new ProfileClaims(
+                user.getUserSeq(),
+                user.getUsername(),
+                user.getProfileImageUrl(),
+                user.getProviderType(),
+                roleType,
+                versionOf(user.getModifiedAt())
+        );
+    }
+
+    /**
+     * DB 의 DATETIME(6) 을 거쳐도 값이 같도록 millis 로 자른다. 서버마다 time zone 이 달라도 같은 값이 되도록 UTC 로 본다.
+     */
+    public static long versionOf(LocalDateTime modifiedAt) {
+        return modifiedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * @return 프로필 claim 이 없는 토큰 (기능을 켜기 전에 발급됐거나 refresh 토큰) 이면 null
+     */
+    public static ProfileClaims from(Claims claims) {
+        if (!(claims.get(VERSION_KEY) instanceof Number version)
+                || !(claims.get(USER_SEQ_KEY) instanceof Number userSeq)
+                || !(claims.get(PROVIDER_KEY) instanceof String provider)) {
+            return null;
+        }
+
+        return new ProfileClaims(
+                userSeq.longValue(),
+                claims.get(NAME_KEY, String.class),
+                claims.get(IMAGE_URL_KEY, String.class),
+                ProviderType.valueOf(provider),
+                RoleType.find(claims.get(ROLE_KEY, String.class)),
+                version.longValue()
+        );
+    }
+
+    Map<String, Object> toClaims() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_SEQ_KEY, userSeq);
+        claims.put(NAME_KEY, name);
+        claims.put(IMAGE_URL_KEY, imageUrl);
+        claims.put(PROVIDER_KEY, providerType.name());
+        claims.put(VERSION_KEY, version);
+        if (roleType != null) {
+            claims.put(ROLE_KEY, roleType.getCode());
+        }
+        return claims;
+    }
+}
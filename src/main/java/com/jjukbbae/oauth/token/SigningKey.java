@@ -0,0 +1,41 @@
+package com.jjukbbae.oauth.token;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.security.Key;
+import java.security.KeyPair;
+
+/**
+ * kid 와 함께 관리되는 서명 key. kid 가 null 이면 kid header 없이 발급된 기존 토큰용 key 이다.
+ * HMAC 은 key 와 verificationKey 가 같고, EC 는 각각 private key / public key 이다.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class SigningKey {
+
+    private final String kid;
+    private final SignatureAlgorithm algorithm;
+    private final Key key;
+    private final Key verificationKey;
+
+    /**
+     * HMAC key. key 길이로 알고리즘을 고르지 않고 기존 토큰과 같은 HS256 으로 서명한다.
+     */
+    public SigningKey(String kid, Key secretKey) {
+        this(kid, SignatureAlgorithm.HS256, secretKey);
+    }
+
+    public SigningKey(String kid, SignatureAlgorithm algorithm, Key secretKey) {
+        this(kid, algorithm, secretKey, secretKey);
+    }
+
+    public static SigningKey of(String kid, KeyPair keyPair) {
+        return new SigningKey(kid, SignatureAlgorithm.forSigningKey(keyPair.getPrivate()), keyPair.getPrivate(), keyPair.getPublic());
+    }
+
+    public boolean isAsymmetric() {
+        return !algorithm.isHmac();
+    }
+}
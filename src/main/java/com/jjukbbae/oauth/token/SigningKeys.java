@@ -0,0 +1,58 @@
+package com.jjukbbae.oauth.token;
+
+import lombok.Getter;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * key ring 의 불변 스냅샷. 발급에 쓰는 active key 와 검증에 쓰는 kid 별 key,
+ * 그리고 미리 만들어 둔 JWKS JSON 을 가진다.
+ */
+public final class SigningKeys {
+
+    @Getter
+    private final SigningKey active;
+    private final SigningKey legacy;
+    private final Map<String, SigningKey> byKid;
+    @Getter
+    private final String jwks;
+    @Getter
+    private final String jwksETag;
+
+    private SigningKeys(SigningKey active, SigningKey legacy, Map<String, SigningKey> byKid) {
+        this.active = active;
+        this.legacy = legacy;
+        this.byKid = byKid;
+        this.jwks = JwkSet.toJson(byKid.values());
+        this.jwksETag = "\"" + DigestUtils.md5DigestAsHex(jwks.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public static SigningKeys of(SigningKey key) {
+        return key.getKid() == null
+                ? new SigningKeys(key, key, Map.of())
+                : new SigningKeys(key, null, Map.of(key.getKid(), key));
+    }
+
+    /**
+     * @param legacy kid 없이 발급된 토큰을 검증할 key, 없으면 null
+     */
+    public static SigningKeys of(String activeKid, Iterable<SigningKey> keys, SigningKey legacy) {
+        Map<String, SigningKey> byKid = new HashMap<>();
+        for (SigningKey key : keys) {
+            byKid.put(key.getKid(), key);
+        }
+
+        SigningKey active = byKid.get(activeKid);
+        if (active == null) {
+            throw new IllegalArgumentException("Active signing key [" + activeKid + "] is not in the key ring.");
+        }
+        return new SigningKeys(active, legacy, Map.copyOf(byKid));
+    }
+
+    public SigningKey find(String kid) {
+        return kid == null ? legacy : byKid.get(kid);
+    }
+}
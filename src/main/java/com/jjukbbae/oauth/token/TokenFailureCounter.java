@@ -0,0 +1,39 @@
+package com.jjukbbae.oauth.token;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 거절된 토큰 수를 사유별로 센다. 실패마다 로그를 남기는 대신 jwt.token.rejections 지표로 노출한다.
+ */
+public class TokenFailureCounter implements MeterBinder {
+
+    private final Map<TokenFailureReason, LongAdder> counts = new EnumMap<>(TokenFailureReason.class);
+
+    public TokenFailureCounter() {
+        for (TokenFailureReason reason : TokenFailureReason.values()) {
+            counts.put(reason, new LongAdder());
+        }
+    }
+
+    public void increment(TokenFailureReason reason) {
+        counts.get(reason).increment();
+    }
+
+    public long count(TokenFailureReason reason) {
+        return counts.get(reason).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counts.forEach((reason, count) -> FunctionCounter.builder("jwt.token.rejections", count, LongAdder::sum)
+                .description("Number of rejected bearer tokens")
+                .tag("reason", reason.name())
+                .register(registry));
+    }
+}
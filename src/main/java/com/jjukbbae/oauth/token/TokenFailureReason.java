@@ -0,0 +1,12 @@
+package com.jjukbbae.oauth.token;
+
+public enum TokenFailureReason {
+    MISSING,
+    MALFORMED,
+    EXPIRED,
+    INVALID_SIGNATURE,
+    UNKNOWN_KEY,
+    REVOKED,
+    WRONG_TYPE,
+    UNSUPPORTED
+}
@@ -0,0 +1,42 @@
+package com.jjukbbae.oauth.token;
+
+import com.jjukbbae.oauth.exception.UnknownSigningKeyException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+
+import java.security.Key;
+
+/**
+ * 현재 서명 key 스냅샷을 들고 있다가 토큰 header 의 kid 로 검증 key 를 찾는다.
+ * 교체는 volatile 참조를 바꾸는 것으로 끝나므로 요청 경로에서 lock 을 잡지 않는다.
+ */
+public class TokenKeyRing extends SigningKeyResolverAdapter {
+
+    private volatile SigningKeys signingKeys;
+
+    public TokenKeyRing(SigningKeys signingKeys) {
+        this.signingKeys = signingKeys;
+    }
+
+    public SigningKeys current() {
+        return signingKeys;
+    }
+
+    public SigningKey active() {
+        return signingKeys.getActive();
+    }
+
+    public void swap(SigningKeys signingKeys) {
+        this.signingKeys = signingKeys;
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        SigningKey signingKey = signingKeys.find(header.getKeyId());
+        if (signingKey == null) {
+            throw new UnknownSigningKeyException(header.getKeyId());
+        }
+        return signingKey.getVerificationKey();
+    }
+}
@@ -0,0 +1,155 @@
+package com.jjukbbae.oauth.token;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PKCS12 keystore 파일에서 서명 key 를 읽는다. HMAC 은 secret key entry, EC 는 private key entry (+ 인증서) 이다.
+ * alias 가 kid 가 되고, 설정된 서명 알고리즘 계열 (HMAC, ECDSA, RSA) 의 key 중 정렬했을 때 가장 뒤에 오는 alias 가
+ * 발급용 active key 가 된다 (예: 2024-01, 2024-07). 나머지 key 는 검증에만 쓰인다.
+ * 파일이 바뀌면 주기적으로 다시 읽어 AuthTokenProvider 의 key 스냅샷을 교체하므로 재시작 없이 key 를 회전할 수 있다.
+ */
+@Slf4j
+public class TokenKeyStore implements AutoCloseable {
+
+    private static final String KEYSTORE_TYPE = "PKCS12";
+
+    private final Path path;
+    private final char[] password;
+    private final SigningKey legacy;
+    private final SignatureAlgorithm signingAlgorithm;
+    private ScheduledExecutorService scheduler;
+    private Object loadedVersion;
+
+    /**
+     * @param legacy kid 없이 발급된 기존 토큰을 검증할 key, 없으면 null
+     */
+    public TokenKeyStore(Path path, String password, SigningKey legacy) {
+        this(path, password, legacy, SignatureAlgorithm.HS256);
+    }
+
+    public TokenKeyStore(Path path, String password, SigningKey legacy, SignatureAlgorithm signingAlgorithm) {
+        this.path = path;
+        this.password = password.toCharArray();
+        this.legacy = legacy;
+        this.signingAlgorithm = signingAlgorithm;
+    }
+
+    public synchronized SigningKeys load() {
+        try {
+            Object version = version();
+            SigningKeys signingKeys = read();
+            loadedVersion = version;
+            return signingKeys;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to load token keystore [" + path + "].", e);
+        }
+    }
+
+    public synchronized void watch(AuthTokenProvider tokenProvider, Duration interval) {
+        if (scheduler != null) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-keystore-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> reloadIfChanged(tokenProvider),
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    synchronized boolean reloadIfChanged(AuthTokenProvider tokenProvider) {
+        try {
+            Object version = version();
+            if (Objects.equals(version, loadedVersion)) {
+                return false;
+            }
+
+            SigningKeys signingKeys = read();
+            tokenProvider.replaceKeys(signingKeys);
+            loadedVersion = version;
+            log.info("Reloaded token keystore. active kid := [{}]", signingKeys.getActive().getKid());
+            return true;
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            // 쓰는 도중의 파일일 수 있으므로 기존 key 를 유지하고 다음 주기에 다시 시도한다.
+            log.warn("Failed to reload token keystore [{}]. Keeping current keys.", path, e);
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private Object version() throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return List.of(attributes.lastModifiedTime(), attributes.size());
+    }
+
+    private SigningKeys read() throws IOException, GeneralSecurityException {
+        KeyStore keyStore = KeyStore.getInstance(KEYSTORE_TYPE);
+        try (InputStream in = Files.newInputStream(path)) {
+            keyStore.load(in, password);
+        }
+
+        List<String> aliases = Collections.list(keyStore.aliases());
+        Collections.sort(aliases);
+
+        List<SigningKey> keys = new ArrayList<>();
+        String activeKid = null;
+        for (String alias : aliases) {
+            SigningKey signingKey = toSigningKey(keyStore, alias);
+            if (signingKey == null) {
+                continue;
+            }
+            keys.add(signingKey);
+            if (signingKey.getAlgorithm().getFamilyName().equals(signingAlgorithm.getFamilyName())) {
+                activeKid = alias;
+            }
+        }
+
+        if (activeKid == null) {
+            throw new IllegalStateException("Token keystore [" + path + "] has no " + signingAlgorithm.getFamilyName() + " signing key.");
+        }
+        return SigningKeys.of(activeKid, keys, legacy);
+    }
+
+    private SigningKey toSigningKey(KeyStore keyStore, String alias) throws GeneralSecurityException {
+        Key key = keyStore.getKey(alias, password);
+        if (key instanceof SecretKey) {
+            return new SigningKey(alias, signingAlgorithm.isHmac() ? signingAlgorithm : SignatureAlgorithm.HS256, key);
+        }
+        if (key instanceof PrivateKey privateKey) {
+            Certificate certificate = keyStore.getCertificate(alias);
+            return certificate == null ? null : SigningKey.of(alias, new KeyPair(certificate.getPublicKey(), privateKey));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.jjukbbae.oauth.token;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.JwtParserBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolver;
+
+import java.security.Key;
+import java.util.function.Consumer;
+
+/**
+ * 서명 key (또는 key ring) 별로 한 번만 만드는 JwtParser 묶음.
+ * Jwts.parser() 는 호출할 때마다 ServiceLoader 로 JSON deserializer 를 새로 찾기 때문에 재사용한다.
+ */
+final class TokenParsers {
+
+    // 만료 여부와 상관없이 서명만 확인할 때 사용하는 허용 오차 (사실상 무제한)
+    private static final long UNBOUNDED_CLOCK_SKEW_SECONDS = Long.MAX_VALUE / 1000 / 1000;
+
+    private final JwtParser parser;
+    private final JwtParser expiryIgnoringParser;
+
+    TokenParsers(Key key) {
+        this(builder -> builder.setSigningKey(key));
+    }
+
+    TokenParsers(SigningKeyResolver signingKeyResolver) {
+        this(builder -> builder.setSigningKeyResolver(signingKeyResolver));
+    }
+
+    private TokenParsers(Consumer<JwtParserBuilder> keySource) {
+        JwtParserBuilder builder = Jwts.parserBuilder();
+        keySource.accept(builder);
+        this.parser = builder.build();
+
+        JwtParserBuilder expiryIgnoringBuilder = Jwts.parserBuilder()
+                .setAllowedClockSkewSeconds(UNBOUNDED_CLOCK_SKEW_SECONDS);
+        keySource.accept(expiryIgnoringBuilder);
+        this.expiryIgnoringParser = expiryIgnoringBuilder.build();
+    }
+
+    JwtParser parser() {
+        return parser;
+    }
+
+    JwtParser expiryIgnoringParser() {
+        return expiryIgnoringParser;
+    }
+}
@@ -0,0 +1,189 @@
+package com.jjukbbae.oauth.token;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 서명 검증 전에 토큰의 형태, header 의 alg, payload 의 exp 를 예외 없이 확인한다.
+ * 여기서 통과한 토큰만 jjwt 의 서명 검증으로 넘어가므로, 깨진 토큰이나 만료된 토큰은
+ * 예외 생성과 서명 계산 없이 거절된다. 판단할 수 없는 값은 jjwt 에 맡긴다.
+ */
+public final class TokenPrevalidator {
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final byte[] ALG = "alg".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXP = "exp".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NONE = "none".getBytes(StandardCharsets.US_ASCII);
+
+    private TokenPrevalidator() {
+    }
+
+    /**
+     * @return 거절 사유, 통과하면 null
+     */
+    public static TokenFailureReason check(String token, long nowMillis) {
+        if (token == null || token.isEmpty()) {
+            return TokenFailureReason.MISSING;
+        }
+
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (firstDot <= 0 || secondDot < 0 || secondDot == firstDot + 1 || token.indexOf('.', secondDot + 1) >= 0) {
+            return TokenFailureReason.MALFORMED;
+        }
+        if (secondDot == token.length() - 1) {
+            return TokenFailureReason.UNSUPPORTED;
+        }
+        if (!isBase64Url(token, 0, firstDot)
+                || !isBase64Url(token, firstDot + 1, secondDot)
+                || !isBase64Url(token, secondDot + 1, token.length())) {
+            return TokenFailureReason.MALFORMED;
+        }
+
+        byte[] ascii = token.getBytes(StandardCharsets.US_ASCII);
+        byte[] header = decode(ascii, 0, firstDot);
+        int alg = valueIndex(header, ALG);
+        if (alg < 0 || header[alg] != '"') {
+            return TokenFailureReason.MALFORMED;
+        }
+        if (stringEquals(header, alg, NONE)) {
+            return TokenFailureReason.UNSUPPORTED;
+        }
+
+        byte[] payload = decode(ascii, firstDot + 1, secondDot);
+        if (!isObject(payload)) {
+            return TokenFailureReason.UNSUPPORTED;
+        }
+        int exp = valueIndex(payload, EXP);
+        if (exp >= 0) {
+            long expSeconds = readLong(payload, exp);
+            if (expSeconds >= 0 && nowMillis > expSeconds * 1000) {
+                return TokenFailureReason.EXPIRED;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isBase64Url(String token, int from, int to) {
+        if ((to - from) % 4 == 1) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            char c = token.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] decode(byte[] ascii, int from, int to) {
+        ByteBuffer decoded = DECODER.decode(ByteBuffer.wrap(ascii, from, to - from));
+        byte[] bytes = new byte[decoded.remaining()];
+        decoded.get(bytes);
+        return bytes;
+    }
+
+    private static boolean isObject(byte[] json) {
+        int i = skipWhitespace(json, 0);
+        return i < json.length && json[i] == '{';
+    }
+
+    /**
+     * 최상위 객체에서 key 에 해당하는 값의 시작 위치를 찾는다. 없거나 JSON 이 깨졌으면 -1.
+     */
+    private static int valueIndex(byte[] json, byte[] key) {
+        if (!isObject(json)) {
+            return -1;
+        }
+
+        int depth = 0;
+        boolean expectKey = false;
+        for (int i = skipWhitespace(json, 0); i < json.length; i++) {
+            byte c = json[i];
+            if (c == '"') {
+                int end = stringEnd(json, i);
+                if (end < 0) {
+                    return -1;
+                }
+                if (depth == 1 && expectKey && rangeEquals(json, i + 1, end, key)) {
+                    int colon = skipWhitespace(json, end + 1);
+                    if (colon >= json.length || json[colon] != ':') {
+                        return -1;
+                    }
+                    int value = skipWhitespace(json, colon + 1);
+                    return value < json.length ? value : -1;
+                }
+                expectKey = false;
+                i = end;
+            } else if (c == '{' || c == '[') {
+                depth++;
+                expectKey = c == '{' && depth == 1;
+            } else if (c == '}' || c == ']') {
+                depth--;
+                expectKey = false;
+            } else if (c == ',') {
+                expectKey = depth == 1;
+            } else if (c == ':') {
+                expectKey = false;
+            }
+        }
+        return -1;
+    }
+
+    private static int stringEnd(byte[] json, int quote) {
+        for (int i = quote + 1; i < json.length; i++) {
+            if (json[i] == '\\') {
+                i++;
+            } else if (json[i] == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean stringEquals(byte[] json, int quote, byte[] expected) {
+        int end = stringEnd(json, quote);
+        return end >= 0 && rangeEquals(json, quote + 1, end, expected);
+    }
+
+    private static boolean rangeEquals(byte[] json, int from, int to, byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (json[from + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 정수 NumericDate 만 읽는다. 소수, 지수 표기 등 판단하기 애매한 값은 -1.
+     */
+    private static long readLong(byte[] json, int from) {
+        long value = 0;
+        int i = from;
+        for (; i < json.length && i - from < 18; i++) {
+            byte c = json[i];
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + (c - '0');
+        }
+        if (i == from || (i < json.length && (json[i] == '.' || json[i] == 'e' || json[i] == 'E' || (json[i] >= '0' && json[i] <= '9')))) {
+            return -1;
+        }
+        return value;
+    }
+
+    private static int skipWhitespace(byte[] json, int from) {
+        int i = from;
+        while (i < json.length && (json[i] == ' ' || json[i] == '\t' || json[i] == '\n' || json[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+}
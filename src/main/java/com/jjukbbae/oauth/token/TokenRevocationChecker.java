@@ -0,0 +1,14 @@
+package com.jjukbbae.oauth.token;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * 서명 검증을 통과한 (또는 캐시된) claims 가 만료 전에 폐기되었는지 확인한다.
+ * 모든 인증 요청마다 호출되므로 폐기되지 않은 토큰은 메모리 안에서 끝나야 한다.
+ */
+public interface TokenRevocationChecker {
+
+    TokenRevocationChecker NONE = claims -> false;
+
+    boolean isRevoked(Claims claims);
+}
@@ -0,0 +1,45 @@
+package com.jjukbbae.oauth.token;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 토큰 종류. "typ" claim 으로 함께 서명해 refresh 토큰을 access 토큰 자리에 (또는 그 반대로) 쓰지 못하게 한다.
+ * "typ" 가 없는 토큰은 이 claim 을 넣기 전에 발급된 것으로, family claim 이 있으면 refresh 토큰으로 본다.
+ */
+public enum TokenType {
+    ACCESS("access"),
+    REFRESH("refresh");
+
+    public static final String CLAIM_KEY = "typ";
+
+    private final String value;
+
+    TokenType(String value) {
+        this.value = value;
+    }
+
+    Map<String, Object> withClaims(Map<String, ?> claims) {
+        Map<String, Object> typed = new HashMap<>(claims);
+        typed.put(CLAIM_KEY, value);
+        return typed;
+    }
+
+    /**
+     * @return 알 수 없는 "typ" 이면 null
+     */
+    public static TokenType of(Claims claims) {
+        Object value = claims.get(CLAIM_KEY);
+        if (value == null) {
+            return claims.get(AuthTokenProvider.FAMILY_KEY) != null ? REFRESH : ACCESS;
+        }
+        for (TokenType tokenType : values()) {
+            if (tokenType.value.equals(value)) {
+                return tokenType;
+            }
+        }
+        return null;
+    }
+}
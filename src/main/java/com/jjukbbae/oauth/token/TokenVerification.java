@@ -0,0 +1,29 @@
+package com.jjukbbae.oauth.token;
+
+import io.jsonwebtoken.Claims;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 토큰 한 번의 파싱/서명 검증 결과. 성공 시 claims, 실패 시 reason 을 가진다.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TokenVerification {
+
+    private final Claims claims;
+    private final TokenFailureReason failureReason;
+
+    public static TokenVerification valid(Claims claims) {
+        return new TokenVerification(claims, null);
+    }
+
+    public static TokenVerification failed(TokenFailureReason failureReason) {
+        return new TokenVerification(null, failureReason);
+    }
+
+    public boolean isValid() {
+        return claims != null;
+    }
+}
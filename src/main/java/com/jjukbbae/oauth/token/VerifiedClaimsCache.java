@@ -0,0 +1,79 @@
+package com.jjukbbae.oauth.token;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.jjukbbae.utils.HashUtil;
+import io.jsonwebtoken.Claims;
+
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서명 검증을 통과한 토큰의 claims 를 토큰의 SHA-256 digest 를 key 로 보관한다.
+ * 각 항목은 토큰의 exp 시점에 만료되므로 만료된 토큰이 캐시에서 통과되는 일은 없다.
+ */
+public class VerifiedClaimsCache {
+
+    private static final long MAX_TTL_NANOS = TimeUnit.MINUTES.toNanos(30);
+
+    private final Cache<ByteBuffer, Claims> cache;
+
+    public VerifiedClaimsCache(long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ClaimsExpiry())
+                .build();
+    }
+
+    public Claims get(String token) {
+        return cache.getIfPresent(digest(token));
+    }
+
+    public void put(String token, Claims claims) {
+        if (remainingNanos(claims) > 0) {
+            cache.put(digest(token), claims);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(HashUtil.sha256(token));
+    }
+
+    private static long remainingNanos(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return MAX_TTL_NANOS;
+        }
+
+        long remaining = TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis());
+        return Math.min(remaining, MAX_TTL_NANOS);
+    }
+
+    private static class ClaimsExpiry implements Expiry<ByteBuffer, Claims> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            return Math.max(remainingNanos(claims), 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return Math.max(remainingNanos(claims), 0);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
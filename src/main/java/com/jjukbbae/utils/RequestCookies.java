@@ -0,0 +1,74 @@
+package com.jjukbbae.utils;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 요청의 cookie 를 한 번만 읽어 이름으로 찾을 수 있게 한 view. request attribute 에 저장해 두므로
+ * 같은 요청 안에서 repository, handler 가 각각 불러도 request.getCookies() 를 다시 훑지 않는다.
+ * 지운 cookie 는 view 에서도 빠지므로 같은 요청에서 다시 지우거나 읽지 않는다.
+ */
+public class RequestCookies {
+
+    private static final String ATTRIBUTE_NAME = RequestCookies.class.getName();
+
+    private final Map<String, Cookie> cookies;
+
+    private RequestCookies(Cookie[] cookies) {
+        if (cookies == null || cookies.length == 0) {
+            this.cookies = Collections.emptyMap();
+            return;
+        }
+
+        this.cookies = new HashMap<>(cookies.length * 2);
+        for (Cookie cookie : cookies) {
+            // 같은 이름이 여러 개면 기존 CookieUtil.getCookie 처럼 처음 것을 쓴다.
+            this.cookies.putIfAbsent(cookie.getName(), cookie);
+        }
+    }
+
+    public static RequestCookies of(HttpServletRequest request) {
+        Object cached = request.getAttribute(ATTRIBUTE_NAME);
+        if (cached instanceof RequestCookies requestCookies) {
+            return requestCookies;
+        }
+
+        RequestCookies requestCookies = new RequestCookies(request.getCookies());
+        request.setAttribute(ATTRIBUTE_NAME, requestCookies);
+        return requestCookies;
+    }
+
+    public Optional<Cookie> get(String name) {
+        return Optional.ofNullable(cookies.get(name));
+    }
+
+    public Optional<String> getValue(String name) {
+        return get(name).map(Cookie::getValue);
+    }
+
+    /**
+     * 요청에 있는 cookie 중 names 에 해당하는 것만 만료 cookie 를 내려보낸다. 요청의 Cookie 객체는 건드리지 않는다.
+     */
+    public void delete(HttpServletResponse response, String... names) {
+        if (cookies.isEmpty()) {
+            return;
+        }
+
+        for (String name : names) {
+            if (cookies.remove(name) == null) {
+                continue;
+            }
+
+            Cookie expired = new Cookie(name, "");
+            expired.setPath("/");
+            expired.setMaxAge(0);
+            response.addCookie(expired);
+        }
+    }
+}
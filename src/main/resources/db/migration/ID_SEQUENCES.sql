@@ -0,0 +1,17 @@
+-- USERS / USER_REFRESH_TOKEN: id 를 AUTO_INCREMENT 대신 ID_SEQUENCES 테이블의 pooled generator 로 받는다. (MySQL)
+-- generator 는 NEXT_VAL 을 구간의 끝으로 보고 (NEXT_VAL - allocation size + 1) 부터 나눠 주므로,
+-- 기존 id 와 겹치지 않도록 NEXT_VAL 을 MAX(id) + allocation size (app.jpa.id-allocation-size, 기본 50) + 1 로 둔다.
+-- 배포 순서: 1~2 실행 -> 새 버전 배포. AUTO_INCREMENT 속성은 남겨 두어도 명시한 id 가 들어가므로 그대로 둔다.
+
+-- 1. id 테이블
+CREATE TABLE ID_SEQUENCES
+(
+    SEQUENCE_NAME VARCHAR(255) NOT NULL PRIMARY KEY,
+    NEXT_VAL      BIGINT
+);
+
+-- 2. 현재 id 이후로 시작
+INSERT INTO ID_SEQUENCES (SEQUENCE_NAME, NEXT_VAL)
+SELECT 'USERS', COALESCE(MAX(USER_SEQ), 0) + 51 FROM USERS;
+INSERT INTO ID_SEQUENCES (SEQUENCE_NAME, NEXT_VAL)
+SELECT 'USER_REFRESH_TOKEN', COALESCE(MAX(REFRESH_TOKEN_ID), 0) + 51 FROM USER_REFRESH_TOKEN;
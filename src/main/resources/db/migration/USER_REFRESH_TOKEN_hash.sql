@@ -0,0 +1,35 @@
+-- USER_REFRESH_TOKEN: refresh 토큰 원문(REFRESH_TOKEN VARCHAR(256)) 을 SHA-256 digest(TOKEN_HASH BINARY(32)) 로 바꾼다. (MySQL)
+-- 애플리케이션은 토큰의 UTF-8 byte 에 대한 SHA-256 을 비교하므로 SHA2(..., 256) 결과와 같다.
+-- 배포 순서: 1~3 실행 -> 새 버전 배포 -> 이전 버전이 모두 내려간 뒤 4 실행.
+-- 배포 중에는 이전 버전이 TOKEN_HASH 없이 insert 하고 REFRESH_TOKEN 만 update 하므로 TOKEN_HASH 는 4 전까지 NULL 을 허용하고,
+-- 이전 버전이 쓴 행의 TOKEN_HASH 는 trigger 가 맞춘다. 새 버전은 REFRESH_TOKEN 을 쓰지 않으므로 trigger 가 새 버전의 hash 를 덮지 않는다.
+
+-- 1. 새 컬럼 (FAMILY_ID 는 refresh 토큰 회전에서 추가됨, 기존 행은 NULL 이며 다음 로그인 때 채워진다)
+ALTER TABLE USER_REFRESH_TOKEN
+    ADD COLUMN TOKEN_HASH BINARY(32) NULL,
+    ADD COLUMN FAMILY_ID VARCHAR(36) NULL,
+    MODIFY REFRESH_TOKEN VARCHAR(256) NULL;
+
+-- 2. 이전 버전의 쓰기를 TOKEN_HASH 에 반영 (backfill 과 배포 사이에 쓰인 행도 놓치지 않도록 backfill 전에 만든다)
+CREATE TRIGGER TRG_USER_REFRESH_TOKEN_HASH_INSERT BEFORE INSERT ON USER_REFRESH_TOKEN FOR EACH ROW
+    SET NEW.TOKEN_HASH = IF(NEW.REFRESH_TOKEN IS NOT NULL AND NEW.TOKEN_HASH IS NULL,
+                            UNHEX(SHA2(NEW.REFRESH_TOKEN, 256)), NEW.TOKEN_HASH);
+CREATE TRIGGER TRG_USER_REFRESH_TOKEN_HASH_UPDATE BEFORE UPDATE ON USER_REFRESH_TOKEN FOR EACH ROW
+    SET NEW.TOKEN_HASH = IF(NEW.REFRESH_TOKEN IS NOT NULL AND NOT (NEW.REFRESH_TOKEN <=> OLD.REFRESH_TOKEN),
+                            UNHEX(SHA2(NEW.REFRESH_TOKEN, 256)), NEW.TOKEN_HASH);
+
+-- 3. 기존 행 변환과 인덱스
+UPDATE USER_REFRESH_TOKEN
+SET TOKEN_HASH = UNHEX(SHA2(REFRESH_TOKEN, 256))
+WHERE TOKEN_HASH IS NULL;
+CREATE INDEX IDX_USER_REFRESH_TOKEN_USER_ID_TOKEN_HASH ON USER_REFRESH_TOKEN (USER_ID, TOKEN_HASH);
+
+-- 4. 새 버전만 남은 뒤: trigger 제거, 남은 행 다시 변환, 제약조건, 원문 컬럼 삭제
+DROP TRIGGER TRG_USER_REFRESH_TOKEN_HASH_INSERT;
+DROP TRIGGER TRG_USER_REFRESH_TOKEN_HASH_UPDATE;
+UPDATE USER_REFRESH_TOKEN
+SET TOKEN_HASH = UNHEX(SHA2(REFRESH_TOKEN, 256))
+WHERE TOKEN_HASH IS NULL AND REFRESH_TOKEN IS NOT NULL;
+ALTER TABLE USER_REFRESH_TOKEN
+    MODIFY TOKEN_HASH BINARY(32) NOT NULL,
+    DROP COLUMN REFRESH_TOKEN;
@@ -0,0 +1,165 @@
+package com.jjukbbae.api.controller.auth;
+
+import com.jayway.jsonpath.JsonPath;
+import com.jjukbbae.api.service.RefreshTokenService;
+import com.jjukbbae.api.service.UserService;
+import com.jjukbbae.config.properties.AppProperties;
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.entity.RoleType;
+import com.jjukbbae.oauth.entity.TokenPrincipal;
+import com.jjukbbae.oauth.service.TokenRevocationService;
+import com.jjukbbae.oauth.token.AuthToken;
+import com.jjukbbae.oauth.token.AuthTokenProvider;
+import com.jjukbbae.oauth.token.ProfileClaims;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+class AuthControllerTest {
+
+    private static final String SECRET_KEY = "mysecretkeymysecretkeymysecretkeymysecretkey";
+
+    private MockMvc mockMvc;
+    private AuthTokenProvider tokenProvider;
+    private RefreshTokenService refreshTokenService;
+    private UserService userService;
+    private TokenRevocationService tokenRevocationService;
+    private AppProperties appProperties;
+
+    @BeforeEach
+    public void setUp() {
+        tokenProvider = new AuthTokenProvider(SECRET_KEY);
+        refreshTokenService = mock(RefreshTokenService.class);
+        userService = mock(UserService.class);
+        tokenRevocationService = mock(TokenRevocationService.class);
+        appProperties = new AppProperties();
+        appProperties.getAuth().setTokenExpiry(1000 * 60 * 30);
+        mockMvc = MockMvcBuilders.standaloneSetup(new AuthController(appProperties, tokenProvider, refreshTokenService, userService, tokenRevocationService)).build();
+    }
+
+    @Test
+    public void testRefreshToken_WhenAccessTokenExpired_ThenRotateAndIssueNewTokens() throws Exception {
+        // given
+        AuthToken expiredAccessToken = tokenProvider.createAuthToken("testUser", "ROLE_USER", new Date(System.currentTimeMillis() - 1000));
+        AuthToken refreshToken = tokenProvider.createRefreshToken("testUser", "family-1", new Date(System.currentTimeMillis() + 60_000));
+        AuthToken rotated = tokenProvider.createRefreshToken("testUser", "family-1", new Date(System.currentTimeMillis() + 60_000));
+        when(refreshTokenService.rotate(eq("testUser"), eq("family-1"), any(AuthToken.class))).thenReturn(rotated);
+        when(refreshTokenService.getCookieMaxAge()).thenReturn(60);
+
+        // when & then
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .header("Authorization", "Bearer " + expiredAccessToken.getToken())
+                        .cookie(new Cookie("refresh_token", refreshToken.getToken())))
+                .andExpect(jsonPath("$.header.code").value(200))
+                .andExpect(jsonPath("$.body.token").isNotEmpty())
+                .andExpect(cookie().value("refresh_token", rotated.getToken()));
+    }
+
+    @Test
+    public void testRefreshToken_WhenRefreshTokenOfOtherUser_ThenInvalidRefreshToken() throws Exception {
+        // given
+        AuthToken expiredAccessToken = tokenProvider.createAuthToken("testUser", "ROLE_USER", new Date(System.currentTimeMillis() - 1000));
+        AuthToken refreshToken = tokenProvider.createRefreshToken("otherUser", "family-1", new Date(System.currentTimeMillis() + 60_000));
+
+        // when & then
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .header("Authorization", "Bearer " + expiredAccessToken.getToken())
+                        .cookie(new Cookie("refresh_token", refreshToken.getToken())))
+                .andExpect(jsonPath("$.header.code").value(401));
+        verify(refreshTokenService, never()).rotate(any(), any(), any());
+    }
+
+    @Test
+    public void testRefreshToken_WhenAccessTokenSentAsRefreshToken_ThenInvalidRefreshToken() throws Exception {
+        // given
+        AuthToken expiredAccessToken = tokenProvider.createAuthToken("testUser", "ROLE_USER", new Date(System.currentTimeMillis() - 1000));
+        AuthToken accessToken = tokenProvider.createAuthToken("testUser", "ROLE_USER", new Date(System.currentTimeMillis() + 60_000));
+
+        // when & then
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .header("Authorization", "Bearer " + expiredAccessToken.getToken())
+                        .cookie(new Cookie("refresh_token", accessToken.getToken())))
+                .andExpect(jsonPath("$.header.code").value(401))
+                .andExpect(jsonPath("$.header.message").value("Invalid refresh token."));
+        verify(refreshTokenService, never()).rotate(any(), any(), any());
+    }
+
+    @Test
+    public void testRefreshToken_WhenAccessTokenForged_ThenInvalidAccessToken() throws Exception {
+        // given
+        AuthToken forged = new AuthTokenProvider("othersecretkeyothersecretkeyothersecretkey")
+                .createAuthToken("testUser", "ROLE_ADMIN", new Date(System.currentTimeMillis() - 1000));
+
+        // when & then
+        mockMvc.perform(post("/api/v1/auth/refresh").header("Authorization", "Bearer " + forged.getToken()))
+                .andExpect(jsonPath("$.header.code").value(401))
+                .andExpect(jsonPath("$.header.message").value("Invalid access token."));
+    }
+
+    @Test
+    public void testRefreshToken_WhenProfileClaimsEnabled_ThenEmbedCurrentProfile() throws Exception {
+        // given
+        appProperties.getAuth().setProfileClaims(true);
+        AuthToken expiredAccessToken = tokenProvider.createAuthToken("testUser", "ROLE_USER", new Date(System.currentTimeMillis() - 1000));
+        AuthToken refreshToken = tokenProvider.createRefreshToken("testUser", "family-1", new Date(System.currentTimeMillis() + 60_000));
+        AuthToken rotated = tokenProvider.createRefreshToken("testUser", "family-1", new Date(System.currentTimeMillis() + 60_000));
+        when(refreshTokenService.rotate(eq("testUser"), eq("family-1"), any(AuthToken.class))).thenReturn(rotated);
+        ProfileClaims profileClaims = new ProfileClaims(7L, "New Name", "http://test.com/new.jpg", ProviderType.GOOGLE, RoleType.USER, 42L);
+        when(userService.getProfileClaims("testUser", RoleType.USER)).thenReturn(profileClaims);
+
+        // when
+        String body = mockMvc.perform(post("/api/v1/auth/refresh")
+                        .header("Authorization", "Bearer " + expiredAccessToken.getToken())
+                        .cookie(new Cookie("refresh_token", refreshToken.getToken())))
+                .andExpect(jsonPath("$.header.code").value(200))
+                .andReturn().getResponse().getContentAsString();
+
+        // then
+        String newAccessToken = JsonPath.read(body, "$.body.token");
+        TokenPrincipal principal = (TokenPrincipal) tokenProvider.getAuthentication(tokenProvider.convertAuthToken(newAccessToken)).getPrincipal();
+        assertThat(principal.getProfileClaims()).isEqualTo(profileClaims);
+    }
+
+    @Test
+    public void testLogout_WhenAccessTokenValid_ThenRevokeTokenAndRefreshFamily() throws Exception {
+        // given
+        AuthToken accessToken = tokenProvider.createAuthToken("testUser", "ROLE_USER", new Date(System.currentTimeMillis() + 60_000));
+        AuthToken refreshToken = tokenProvider.createRefreshToken("testUser", "family-1", new Date(System.currentTimeMillis() + 60_000));
+        String jti = accessToken.getTokenClaims().getId();
+
+        // when & then
+        mockMvc.perform(post("/api/v1/auth/logout")
+                        .header("Authorization", "Bearer " + accessToken.getToken())
+                        .cookie(new Cookie("refresh_token", refreshToken.getToken())))
+                .andExpect(jsonPath("$.header.code").value(200))
+                .andExpect(cookie().maxAge("refresh_token", 0));
+        verify(tokenRevocationService).revoke(argThat((Claims claims) -> jti.equals(claims.getId())));
+        verify(refreshTokenService).revokeFamily("testUser", "family-1");
+    }
+
+    @Test
+    public void testLogout_WhenAccessTokenInvalid_ThenNothingRevoked() throws Exception {
+        // when & then
+        mockMvc.perform(post("/api/v1/auth/logout").header("Authorization", "Bearer invalid"))
+                .andExpect(jsonPath("$.header.code").value(401));
+        verify(tokenRevocationService, never()).revoke(any());
+        verify(refreshTokenService, never()).revokeFamily(any(), any());
+    }
+}
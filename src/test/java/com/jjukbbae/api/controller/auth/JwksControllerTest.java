@@ -0,0 +1,52 @@
+package com.jjukbbae.api.controller.auth;
+
+import com.jjukbbae.oauth.token.AuthTokenProvider;
+import com.jjukbbae.oauth.token.SigningKey;
+import com.jjukbbae.oauth.token.SigningKeys;
+import com.jjukbbae.oauth.token.TokenKeyRing;
+import com.jjukbbae.oauth.token.VerifiedClaimsCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class JwksControllerTest {
+
+    private MockMvc mockMvc;
+    private SigningKeys signingKeys;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        signingKeys = SigningKeys.of(SigningKey.of("ec-1", generator.generateKeyPair()));
+        AuthTokenProvider tokenProvider = new AuthTokenProvider(new TokenKeyRing(signingKeys), new VerifiedClaimsCache(100));
+        mockMvc = MockMvcBuilders.standaloneSetup(new JwksController(tokenProvider)).build();
+    }
+
+    @Test
+    public void testGetJwks_ThenReturnPublicKeysWithCacheHeaders() throws Exception {
+        mockMvc.perform(get(JwksController.JWKS_PATH))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.CACHE_CONTROL, "max-age=300, public"))
+                .andExpect(header().string(HttpHeaders.ETAG, signingKeys.getJwksETag()))
+                .andExpect(jsonPath("$.keys[0].kid").value("ec-1"))
+                .andExpect(jsonPath("$.keys[0].kty").value("EC"));
+    }
+
+    @Test
+    public void testGetJwks_WhenETagMatches_ThenReturnNotModified() throws Exception {
+        mockMvc.perform(get(JwksController.JWKS_PATH).header(HttpHeaders.IF_NONE_MATCH, signingKeys.getJwksETag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, public"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.jjukbbae.api.controller.user;
+
+import com.jjukbbae.api.service.UserProfile;
+import com.jjukbbae.api.service.UserService;
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.entity.RoleType;
+import com.jjukbbae.oauth.entity.TokenPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserControllerTest {
+
+    private static final String ETAG = "\"7-2a\"";
+
+    private MockMvc mockMvc;
+    private UserService userService;
+    private TokenPrincipal principal;
+
+    @BeforeEach
+    public void setUp() {
+        userService = mock(UserService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService))
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+        principal = new TokenPrincipal("testUser");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, RoleType.USER.getAuthorities()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testGetMe_WhenUserExists_ThenReturnProfileWithETag() throws Exception {
+        // given
+        when(userService.getCurrentUser(principal)).thenReturn(userProfile());
+
+        // when & then
+        mockMvc.perform(get("/api/v1/users/me"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETAG))
+                .andExpect(header().stringValues("Cache-Control", "no-cache, private"))
+                .andExpect(jsonPath("$.header.code").value(200))
+                .andExpect(jsonPath("$.body.user.userId").value("testUser"))
+                .andExpect(jsonPath("$.body.user.username").value("Test User"))
+                .andExpect(jsonPath("$.body.user.providerType").value("NAVER"))
+                .andExpect(jsonPath("$.body.user.profileVersion").value(42))
+                .andExpect(jsonPath("$.body.user.eTag").doesNotExist());
+    }
+
+    @Test
+    public void testGetMe_WhenIfNoneMatchMatches_ThenNotModified() throws Exception {
+        // given
+        when(userService.getCurrentUser(principal)).thenReturn(userProfile());
+
+        // when & then
+        mockMvc.perform(get("/api/v1/users/me").header("If-None-Match", ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", ETAG))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void testGetMe_WhenIfNoneMatchStale_ThenReturnProfile() throws Exception {
+        // given
+        when(userService.getCurrentUser(principal)).thenReturn(userProfile());
+
+        // when & then
+        mockMvc.perform(get("/api/v1/users/me").header("If-None-Match", "\"7-29\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body.user.userId").value("testUser"));
+    }
+
+    @Test
+    public void testGetMe_WhenUserDeleted_ThenInvalidAccessToken() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/v1/users/me"))
+                .andExpect(jsonPath("$.header.code").value(401));
+    }
+
+    private static UserProfile userProfile() {
+        return new UserProfile("testUser", "Test User", "http://test.com/profile.jpg", ProviderType.NAVER, RoleType.USER, 42L, ETAG);
+    }
+}
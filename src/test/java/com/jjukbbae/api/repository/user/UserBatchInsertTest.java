@@ -0,0 +1,148 @@
+package com.jjukbbae.api.repository.user;
+
+import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.config.jpa.JdbcBatchConfig;
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.entity.RoleType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({JdbcBatchConfig.class, UserBatchInsertTest.StatementCounterConfig.class})
+class UserBatchInsertTest {
+
+    private static final int USERS = 1_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository.deleteAllInBatch();
+        userRepository.flush();
+        StatementCounter.reset();
+    }
+
+    @Test
+    public void testSaveAll_When1000Users_ThenInsertInBatches() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(new User("user-" + i, "User " + i, "user-" + i + "@example.com", "Y", "http://test.com/profile.jpg",
+                    ProviderType.KAKAO, RoleType.USER, now, now));
+        }
+
+        // when
+        userRepository.saveAll(users);
+        userRepository.flush();
+
+        // then
+        // batch size 50 -> USERS insert 20 번, allocation size 50 -> ID_SEQUENCES 갱신 20 번 (빈 테이블이면 처음에 한 번 더)
+        assertThat(StatementCounter.count("insert into users")).isEqualTo(USERS / 50);
+        assertThat(StatementCounter.count("update id_sequences")).isBetween(USERS / 50, USERS / 50 + 1);
+        assertThat(StatementCounter.total()).isLessThan(100);
+        assertThat(userRepository.count()).isEqualTo(USERS);
+    }
+
+    @TestConfiguration
+    static class StatementCounterConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? StatementCounter.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * DB 로 실제 보낸 문장 수를 SQL 별로 센다. batch 는 executeBatch 한 번을 한 문장으로 본다.
+     */
+    static final class StatementCounter {
+
+        private static final Map<String, AtomicInteger> COUNTS = new ConcurrentHashMap<>();
+
+        private StatementCounter() {
+        }
+
+        static DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (method, args, result) ->
+                    result instanceof Connection connection ? wrap(connection) : result);
+        }
+
+        private static Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection, (method, args, result) ->
+                    result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")
+                            ? wrap(statement, ((String) args[0]).toLowerCase(Locale.ROOT)) : result);
+        }
+
+        private static PreparedStatement wrap(PreparedStatement statement, String sql) {
+            return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+                if (method.getName().startsWith("execute")) {
+                    COUNTS.computeIfAbsent(sql, key -> new AtomicInteger()).incrementAndGet();
+                }
+                return result;
+            });
+        }
+
+        static int count(String sqlPrefix) {
+            return COUNTS.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(sqlPrefix))
+                    .mapToInt(entry -> entry.getValue().get())
+                    .sum();
+        }
+
+        static int total() {
+            return COUNTS.values().stream().mapToInt(AtomicInteger::get).sum();
+        }
+
+        static void reset() {
+            COUNTS.clear();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                try {
+                    return interceptor.afterInvoke(method, args, method.invoke(target, args));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        private interface Interceptor {
+            Object afterInvoke(Method method, Object[] args, Object result);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.jjukbbae.api.repository.user;
+
+import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.entity.RoleType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserNearCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UserRepositoryCustomImpl nearCache;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository.deleteAll();
+        userRepository.save(new User("testUserId", "Test User", "test@example.com", "Y", "http://test.com/profile.jpg",
+                ProviderType.GOOGLE, RoleType.USER, LocalDateTime.now(), LocalDateTime.now()));
+        nearCache = new UserRepositoryCustomImpl(entityManager, 100, Duration.ofMinutes(1));
+        meterRegistry = new SimpleMeterRegistry();
+        nearCache.bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testFindByUserId_WhenCalledTwice_ThenSecondIsHit() {
+        // when
+        User first = nearCache.findByUserId("testUserId");
+        User second = nearCache.findByUserId("testUserId");
+
+        // then
+        assertThat(second.getUsername()).isEqualTo("Test User");
+        assertThat(second).isNotSameAs(first);
+        assertThat(gets("miss")).isEqualTo(1);
+        assertThat(gets("hit")).isEqualTo(1);
+    }
+
+    @Test
+    public void testFindByUserId_WhenReturnedUserMutated_ThenCacheUnchanged() {
+        // given
+        nearCache.findByUserId("testUserId").setUsername("Mutated");
+
+        // when
+        User user = nearCache.findByUserId("testUserId");
+
+        // then
+        assertThat(user.getUsername()).isEqualTo("Test User");
+    }
+
+    @Test
+    public void testEvictByUserId_WhenUserUpdated_ThenReloadNewValue() {
+        // given
+        nearCache.findByUserId("testUserId");
+        User user = userRepository.findAll().get(0);
+        user.setUsername("Updated User");
+        userRepository.saveAndFlush(user);
+
+        // when
+        nearCache.evictByUserId("testUserId");
+
+        // then
+        assertThat(nearCache.findByUserId("testUserId").getUsername()).isEqualTo("Updated User");
+    }
+
+    @Test
+    public void testFindByUserId_WhenConcurrentBurst_ThenSingleLoad() throws Exception {
+        // given
+        int requests = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<User>> results = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return nearCache.findByUserId("testUserId");
+            }));
+        }
+
+        // when
+        start.countDown();
+        try {
+            for (Future<User> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS).getUserId()).isEqualTo("testUserId");
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // then
+        assertThat(gets("miss")).isEqualTo(1);
+        assertThat(gets("hit")).isEqualTo(requests - 1);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "user.near-cache").tag("result", result).functionCounter().count();
+    }
+}
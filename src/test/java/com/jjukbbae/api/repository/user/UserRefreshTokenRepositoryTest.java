@@ -1,11 +1,22 @@
 package com.jjukbbae.api.repository.user;
 
 import com.jjukbbae.api.entity.user.UserRefreshToken;
+import com.jjukbbae.utils.HashUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -34,7 +45,7 @@ class UserRefreshTokenRepositoryTest {
         assertThat(savedRefreshToken).isNotNull();
         assertThat(savedRefreshToken.getRefreshTokenId()).isNotNull();
         assertThat(savedRefreshToken.getUserId()).isEqualTo("testUserId");
-        assertThat(savedRefreshToken.getRefreshToken()).isEqualTo("sampleRefreshToken");
+        assertThat(savedRefreshToken.getTokenHash()).isEqualTo(HashUtil.sha256("sampleRefreshToken"));
     }
 
     @Test
@@ -45,7 +56,7 @@ class UserRefreshTokenRepositoryTest {
         userRefreshTokenRepository.save(refreshToken1);
 
         // when & then
-        assertThatThrownBy(() -> userRefreshTokenRepository.save(refreshToken2))
+        assertThatThrownBy(() -> userRefreshTokenRepository.saveAndFlush(refreshToken2))
                 .isInstanceOf(org.springframework.dao.DataIntegrityViolationException.class);
     }
 
@@ -61,7 +72,7 @@ class UserRefreshTokenRepositoryTest {
         // then
         assertThat(foundRefreshToken).isNotNull();
         assertThat(foundRefreshToken.getUserId()).isEqualTo("testUserId");
-        assertThat(foundRefreshToken.getRefreshToken()).isEqualTo("sampleRefreshToken");
+        assertThat(foundRefreshToken.getTokenHash()).isEqualTo(HashUtil.sha256("sampleRefreshToken"));
     }
 
     @Test
@@ -76,6 +87,88 @@ class UserRefreshTokenRepositoryTest {
         // then
         assertThat(foundRefreshToken).isNotNull();
         assertThat(foundRefreshToken.getUserId()).isEqualTo("testUserId");
-        assertThat(foundRefreshToken.getRefreshToken()).isEqualTo("sampleRefreshToken");
+        assertThat(foundRefreshToken.getTokenHash()).isEqualTo(HashUtil.sha256("sampleRefreshToken"));
+    }
+
+    @Test
+    public void testFindByUserIdAndRefreshToken_WhenTokenDiffers_ThenReturnNull() {
+        // given
+        userRefreshTokenRepository.save(new UserRefreshToken("testUserId", "sampleRefreshToken"));
+
+        // when
+        UserRefreshToken foundRefreshToken = userRefreshTokenRepository.findByUserIdAndRefreshToken("testUserId", "otherRefreshToken");
+
+        // then
+        assertThat(foundRefreshToken).isNull();
+        assertThat(userRefreshTokenRepository.findByUserId("testUserId").getTokenHash()).hasSize(HashUtil.SHA_256_LENGTH);
+    }
+
+    @Test
+    public void testUpsert_WhenNewUser_ThenInsertAndWhenExisting_ThenReplace() {
+        // given
+        userRefreshTokenRepository.upsert("testUserId", HashUtil.sha256("firstToken"), "family-1");
+
+        // when
+        userRefreshTokenRepository.upsert("testUserId", HashUtil.sha256("secondToken"), "family-2");
+
+        // then
+        assertThat(userRefreshTokenRepository.count()).isEqualTo(1);
+        UserRefreshToken found = userRefreshTokenRepository.findByUserId("testUserId");
+        assertThat(found.getTokenHash()).isEqualTo(HashUtil.sha256("secondToken"));
+        assertThat(found.getFamilyId()).isEqualTo("family-2");
+    }
+
+    @Test
+    public void testUpsert_WhenExisting_ThenNotReserveRefreshTokenId() {
+        // given
+        userRefreshTokenRepository.upsert("testUserId", HashUtil.sha256("firstToken"), "family-1");
+        Long refreshTokenId = userRefreshTokenRepository.findByUserId("testUserId").getRefreshTokenId();
+        long before = userRefreshTokenRepository.nextRefreshTokenId();
+
+        // when
+        userRefreshTokenRepository.upsert("testUserId", HashUtil.sha256("secondToken"), "family-2");
+
+        // then
+        assertThat(userRefreshTokenRepository.nextRefreshTokenId()).isEqualTo(before + 1);
+        assertThat(userRefreshTokenRepository.findByUserId("testUserId").getRefreshTokenId()).isEqualTo(refreshTokenId);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testUpsert_WhenParallelLogins_ThenSingleRowWithOneOfTheTokens() throws Exception {
+        // given
+        int logins = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        List<byte[]> hashes = new ArrayList<>();
+        for (int i = 0; i < logins; i++) {
+            byte[] hash = HashUtil.sha256("token-" + i);
+            String familyId = "family-" + i;
+            hashes.add(hash);
+            results.add(executor.submit(() -> {
+                start.await();
+                return userRefreshTokenRepository.upsert("parallelUser", hash, familyId);
+            }));
+        }
+
+        // when
+        start.countDown();
+        try {
+            for (Future<Integer> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // then
+        try {
+            assertThat(userRefreshTokenRepository.findAll())
+                    .hasSize(1)
+                    .allSatisfy(token -> assertThat(hashes).anySatisfy(hash -> assertThat(token.getTokenHash()).isEqualTo(hash)));
+        } finally {
+            userRefreshTokenRepository.deleteAll();
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.jjukbbae.api.repository.user;
 
 import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.api.entity.user.UserCredentials;
 import com.jjukbbae.oauth.entity.ProviderType;
 import com.jjukbbae.oauth.entity.RoleType;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +11,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -48,7 +50,7 @@ class UserRepositoryTest {
         userRepository.save(user1);
 
         // when & then
-        assertThatThrownBy(() -> userRepository.save(user2))
+        assertThatThrownBy(() -> userRepository.saveAndFlush(user2))
                 .isInstanceOf(org.springframework.dao.DataIntegrityViolationException.class);
     }
 
@@ -65,4 +67,53 @@ class UserRepositoryTest {
         assertThat(foundUser).isNotNull();
         assertThat(foundUser.getUserId()).isEqualTo("testUserId");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testUpdateProfile_WhenChanged_ThenUpdateOnlyProfileColumns() {
+        // given
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(1);
+        User user = new User("testUserId", "testUsername", "test@example.com", "Y", "http://test.com/profile.jpg", ProviderType.GOOGLE, RoleType.USER, createdAt, createdAt);
+        userRepository.saveAndFlush(user);
+        LocalDateTime modifiedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        // when
+        int updated = userRepository.updateProfile("testUserId", "newUsername", "http://test.com/new.jpg", modifiedAt);
+
+        // then
+        assertThat(updated).isEqualTo(1);
+        User found = userRepository.findAll().get(0);
+        assertThat(found.getUsername()).isEqualTo("newUsername");
+        assertThat(found.getProfileImageUrl()).isEqualTo("http://test.com/new.jpg");
+        assertThat(found.getEmail()).isEqualTo("test@example.com");
+        assertThat(found.getModifiedAt()).isEqualTo(modifiedAt);
+    }
+
+    @Test
+    public void testUpdateProfile_WhenUnchanged_ThenUpdateNothing() {
+        // given
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        User user = new User("testUserId", "testUsername", "test@example.com", "Y", "http://test.com/profile.jpg", ProviderType.GOOGLE, RoleType.USER, createdAt, createdAt);
+        userRepository.saveAndFlush(user);
+
+        // when
+        int updated = userRepository.updateProfile("testUserId", "testUsername", "http://test.com/profile.jpg", LocalDateTime.now());
+
+        // then
+        assertThat(updated).isZero();
+        assertThat(userRepository.findCurrentByUserId("testUserId").getModifiedAt()).isEqualTo(createdAt);
+    }
+
+    @Test
+    public void testFindCredentialsByUserId_WhenExists_ThenReturnProjection() {
+        // given
+        User user = new User("testUserId", "testUsername", "test@example.com", "Y", "http://test.com/profile.jpg", ProviderType.GOOGLE, RoleType.USER, LocalDateTime.now(), LocalDateTime.now());
+        userRepository.saveAndFlush(user);
+
+        // when
+        UserCredentials credentials = userRepository.findCredentialsByUserId("testUserId");
+
+        // then
+        assertThat(credentials).isEqualTo(new UserCredentials("testUserId", "NO_PASS", ProviderType.GOOGLE));
+        assertThat(userRepository.findCredentialsByUserId("unknown")).isNull();
+    }
+}
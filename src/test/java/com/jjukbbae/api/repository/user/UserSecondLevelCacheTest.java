@@ -0,0 +1,167 @@
+package com.jjukbbae.api.repository.user;
+
+import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.api.entity.user.UserCredentials;
+import com.jjukbbae.config.jpa.SecondLevelCacheConfig;
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.entity.RoleType;
+import com.jjukbbae.utils.HashUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(SecondLevelCacheConfig.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRefreshTokenRepository userRefreshTokenRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private Long userSeq;
+
+    @BeforeEach
+    public void setUp() {
+        userRefreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userSeq = userRepository.save(user("testUserId", "test@example.com")).getUserSeq();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRefreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testFindByUserId_WhenLoadedTwice_ThenServedFromQueryCacheAndUserRegion() {
+        // given
+        userRepository.findByUserId("testUserId");
+        userRepository.evictByUserId("testUserId");
+        statistics.clear();
+
+        // when
+        User user = userRepository.findByUserId("testUserId");
+
+        // then
+        assertThat(user.getUsername()).isEqualTo("Test User");
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void testFindCredentialsByUserId_WhenLoadedTwice_ThenServedFromQueryCache() {
+        // given
+        userRepository.findCredentialsByUserId("testUserId");
+        statistics.clear();
+
+        // when
+        UserCredentials credentials = userRepository.findCredentialsByUserId("testUserId");
+
+        // then
+        assertThat(credentials.userId()).isEqualTo("testUserId");
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void testUpsertRefreshToken_WhenNativeInsert_ThenUserCacheKept() {
+        // given
+        userRepository.findByUserId("testUserId");
+
+        // when
+        userRefreshTokenRepository.upsert("testUserId", HashUtil.sha256("refreshToken"), "familyId");
+        userRepository.evictByUserId("testUserId");
+        statistics.clear();
+        userRepository.findByUserId("testUserId");
+
+        // then
+        assertThat(entityManagerFactory.getCache().contains(User.class, userSeq)).isTrue();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void testInsertIfAbsent_WhenNativeInsert_ThenUserQueriesInvalidated() {
+        // given
+        userRepository.findByUserId("testUserId");
+        User other = user("otherUserId", "other@example.com");
+        other.setUserSeq(userRepository.nextUserSeq());
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> userRepository.insertIfAbsent(other));
+        userRepository.evictByUserId("testUserId");
+        statistics.clear();
+        User user = userRepository.findByUserId("testUserId");
+
+        // then
+        // USER_ID 조회와 USER_SEQ 로 엔티티 조회 (user region 도 비워졌다)
+        assertThat(user.getUsername()).isEqualTo("Test User");
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testUpdateProfile_WhenBulkUpdate_ThenRegionInvalidated() {
+        // given
+        userRepository.findByUserId("testUserId");
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                userRepository.updateProfile("testUserId", "New Name", "http://test.com/new.jpg", LocalDateTime.now()));
+        userRepository.evictByUserId("testUserId");
+
+        // then
+        assertThat(entityManagerFactory.getCache().contains(User.class, userSeq)).isFalse();
+        assertThat(userRepository.findByUserId("testUserId").getUsername()).isEqualTo("New Name");
+        assertThat(userRepository.findCredentialsByUserId("testUserId").userId()).isEqualTo("testUserId");
+    }
+
+    @Test
+    public void testHibernateCacheManager_WhenRegionTtlLongerThanNearCacheTtl_ThenThrow() {
+        // given
+        SecondLevelCacheConfig config = new SecondLevelCacheConfig();
+
+        // when // then
+        assertThatThrownBy(() -> config.hibernateCacheManager(100, Duration.ofMinutes(10), Duration.ofSeconds(60)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static User user(String userId, String email) {
+        return new User(userId, "Test User", email, "Y", "http://test.com/profile.jpg",
+                ProviderType.GOOGLE, RoleType.USER, LocalDateTime.now(), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,106 @@
+package com.jjukbbae.api.service;
+
+import com.jjukbbae.api.entity.user.UserRefreshToken;
+import com.jjukbbae.api.repository.user.UserRefreshTokenRepository;
+import com.jjukbbae.config.properties.AppProperties;
+import com.jjukbbae.oauth.service.TokenRevocationService;
+import com.jjukbbae.oauth.token.AuthToken;
+import com.jjukbbae.oauth.token.AuthTokenProvider;
+import com.jjukbbae.utils.HashUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class RefreshTokenServiceTest {
+
+    private static final String SECRET_KEY = "mysecretkeymysecretkeymysecretkeymysecretkey";
+
+    @Autowired
+    private UserRefreshTokenRepository userRefreshTokenRepository;
+
+    private AuthTokenProvider tokenProvider;
+    private TokenRevocationService tokenRevocationService;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    public void setUp() {
+        userRefreshTokenRepository.deleteAll();
+        tokenProvider = new AuthTokenProvider(SECRET_KEY);
+        tokenRevocationService = mock(TokenRevocationService.class);
+        AppProperties appProperties = new AppProperties();
+        appProperties.getAuth().setRefreshTokenExpiry(1000 * 60 * 60);
+        refreshTokenService = new RefreshTokenService(tokenProvider, appProperties, userRefreshTokenRepository, tokenRevocationService);
+    }
+
+    @Test
+    public void testIssue_ThenRefreshTokenHasUserSubjectAndFamily() {
+        // when
+        AuthToken refreshToken = refreshTokenService.issue("testUser");
+
+        // then
+        assertThat(refreshToken.getTokenClaims().getSubject()).isEqualTo("testUser");
+        UserRefreshToken saved = userRefreshTokenRepository.findByUserId("testUser");
+        assertThat(saved.getTokenHash()).isEqualTo(HashUtil.sha256(refreshToken.getToken()));
+        assertThat(saved.getFamilyId()).isEqualTo(familyOf(refreshToken));
+    }
+
+    @Test
+    public void testRotate_WhenCurrentToken_ThenReplaceToken() {
+        // given
+        AuthToken refreshToken = refreshTokenService.issue("testUser");
+
+        // when
+        AuthToken rotated = refreshTokenService.rotate("testUser", familyOf(refreshToken), refreshToken);
+
+        // then
+        assertThat(rotated).isNotNull();
+        assertThat(familyOf(rotated)).isEqualTo(familyOf(refreshToken));
+        assertThat(userRefreshTokenRepository.findByUserId("testUser").getTokenHash()).isEqualTo(HashUtil.sha256(rotated.getToken()));
+        verify(tokenRevocationService, never()).revokeAll("testUser");
+    }
+
+    @Test
+    public void testRotate_WhenOldTokenReused_ThenRevokeFamily() {
+        // given
+        AuthToken refreshToken = refreshTokenService.issue("testUser");
+        String familyId = familyOf(refreshToken);
+        AuthToken rotated = refreshTokenService.rotate("testUser", familyId, refreshToken);
+
+        // when
+        AuthToken reused = refreshTokenService.rotate("testUser", familyId, refreshToken);
+
+        // then
+        assertThat(reused).isNull();
+        assertThat(userRefreshTokenRepository.findByUserId("testUser")).isNull();
+        assertThat(refreshTokenService.rotate("testUser", familyId, rotated)).isNull();
+        verify(tokenRevocationService).revokeAll("testUser");
+    }
+
+    @Test
+    public void testRotate_WhenTokenFromReplacedFamily_ThenRejectWithoutRevoking() {
+        // given
+        AuthToken oldLogin = refreshTokenService.issue("testUser");
+        AuthToken newLogin = refreshTokenService.issue("testUser");
+
+        // when
+        AuthToken rotated = refreshTokenService.rotate("testUser", familyOf(oldLogin), oldLogin);
+
+        // then
+        assertThat(rotated).isNull();
+        assertThat(userRefreshTokenRepository.findByUserId("testUser").getTokenHash()).isEqualTo(HashUtil.sha256(newLogin.getToken()));
+        verify(tokenRevocationService, never()).revokeAll("testUser");
+    }
+
+    private static String familyOf(AuthToken refreshToken) {
+        return refreshToken.getTokenClaims().get(AuthTokenProvider.FAMILY_KEY, String.class);
+    }
+}
@@ -0,0 +1,134 @@
+package com.jjukbbae.api.service;
+
+import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.api.repository.user.UserRepository;
+import com.jjukbbae.config.properties.AppProperties;
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.entity.RoleType;
+import com.jjukbbae.oauth.entity.TokenPrincipal;
+import com.jjukbbae.oauth.token.ProfileClaims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class UserServiceTest {
+
+    private static final LocalDateTime MODIFIED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private UserRepository userRepository;
+    private UserService userService;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository = mock(UserRepository.class);
+        AppProperties appProperties = new AppProperties();
+        appProperties.getAuth().setTokenExpiry(1000 * 60 * 30);
+        userService = new UserService(userRepository, appProperties, 1_000);
+    }
+
+    @Test
+    public void testGetCurrentUser_WhenProfileClaimsCurrent_ThenAnswerWithoutDatabase() {
+        // given
+        ProfileClaims profileClaims = ProfileClaims.of(user("Test User"), RoleType.USER);
+        userService.recordProfile("testUser", profileClaims.userSeq(), profileClaims.version(), RoleType.USER);
+
+        // when
+        UserProfile userProfile = userService.getCurrentUser(new TokenPrincipal("testUser", profileClaims));
+
+        // then
+        long version = ProfileClaims.versionOf(MODIFIED_AT);
+        assertThat(version).isEqualTo(MODIFIED_AT.toInstant(ZoneOffset.UTC).toEpochMilli());
+        assertThat(userProfile).isEqualTo(new UserProfile("testUser", "Test User", "http://test.com/profile.jpg",
+                ProviderType.GOOGLE, RoleType.USER, version, UserService.eTagOf(7L, version, RoleType.USER)));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testGetCurrentUser_WhenProfileClaimsStale_ThenReadDatabase() {
+        // given
+        ProfileClaims staleClaims = ProfileClaims.of(user("Old Name"), RoleType.USER);
+        User updated = user("New Name");
+        updated.setModifiedAt(MODIFIED_AT.plusMinutes(1));
+        when(userRepository.findByUserId("testUser")).thenReturn(updated);
+        userService.recordProfile("testUser", 7L, ProfileClaims.versionOf(updated.getModifiedAt()), RoleType.USER);
+
+        // when
+        UserProfile userProfile = userService.getCurrentUser(new TokenPrincipal("testUser", staleClaims));
+
+        // then
+        assertThat(userProfile.username()).isEqualTo("New Name");
+        assertThat(userProfile.profileVersion()).isEqualTo(ProfileClaims.versionOf(updated.getModifiedAt()));
+        assertThat(userProfile.eTag()).isNotEqualTo(UserService.eTagOf(7L, staleClaims.version(), RoleType.USER));
+        verify(userRepository).findByUserId("testUser");
+    }
+
+    @Test
+    public void testGetCurrentUser_WhenNoProfileClaims_ThenReadDatabaseAndRememberVersion() {
+        // given
+        when(userRepository.findByUserId("testUser")).thenReturn(user("Test User"));
+        ProfileClaims olderClaims = new ProfileClaims(7L, "Older", "", ProviderType.GOOGLE, RoleType.USER,
+                ProfileClaims.versionOf(MODIFIED_AT) - 1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        userService.bindTo(registry);
+
+        // when
+        userService.getCurrentUser(new TokenPrincipal("testUser"));
+        userService.getCurrentUser(new TokenPrincipal("testUser", olderClaims));
+
+        // then
+        verify(userRepository, times(2)).findByUserId("testUser");
+        assertThat(registry.get("user.me.requests").tag("source", "database").functionCounter().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testGetCurrentUser_WhenUserDeleted_ThenReturnNull() {
+        // when & then
+        assertThat(userService.getCurrentUser(new TokenPrincipal("testUser"))).isNull();
+        assertThat(userService.getProfileClaims("testUser", RoleType.USER)).isNull();
+    }
+
+    @Test
+    public void testRecordProfile_WhenSameVersion_ThenReuseValidator() {
+        // when
+        UserService.ProfileValidator first = userService.recordProfile("testUser", 7L, 100L, RoleType.USER);
+        UserService.ProfileValidator second = userService.recordProfile("testUser", 7L, 100L, RoleType.USER);
+        UserService.ProfileValidator older = userService.recordProfile("testUser", 7L, 50L, RoleType.USER);
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(first.eTag()).isEqualTo("\"7-64-USER\"");
+        assertThat(older.eTag()).isEqualTo("\"7-32-USER\"");
+        assertThat(userService.recordProfile("testUser", 7L, 100L, RoleType.USER)).isSameAs(first);
+    }
+
+    @Test
+    public void testGetCurrentUser_WhenClaimRoleDiffersFromDatabase_ThenETagDiffers() {
+        // given
+        User user = user("Test User");
+        when(userRepository.findByUserId("testUser")).thenReturn(user);
+        ProfileClaims adminClaims = ProfileClaims.of(user, RoleType.ADMIN);
+
+        // when
+        UserProfile fromDatabase = userService.getCurrentUser(new TokenPrincipal("testUser"));
+        UserProfile fromClaims = userService.getCurrentUser(new TokenPrincipal("testUser", adminClaims));
+
+        // then
+        assertThat(fromDatabase.profileVersion()).isEqualTo(fromClaims.profileVersion());
+        assertThat(fromDatabase.roleType()).isEqualTo(RoleType.USER);
+        assertThat(fromClaims.roleType()).isEqualTo(RoleType.ADMIN);
+        assertThat(fromClaims.eTag()).isNotEqualTo(fromDatabase.eTag());
+    }
+
+    private static User user(String username) {
+        User user = new User("testUser", username, "test@example.com", "Y", "http://test.com/profile.jpg",
+                ProviderType.GOOGLE, RoleType.USER, MODIFIED_AT, MODIFIED_AT);
+        user.setUserSeq(7L);
+        return user;
+    }
+}
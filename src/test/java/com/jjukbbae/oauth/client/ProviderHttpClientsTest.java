@@ -0,0 +1,152 @@
+package com.jjukbbae.oauth.client;
+
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AuthorizationCodeGrantRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationExchange;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProviderHttpClientsTest {
+
+    private static final String REDIRECT_URI = "http://localhost/login/oauth2/code/kakao";
+
+    private HttpServer server;
+    private ClientRegistration clientRegistration;
+    private SimpleMeterRegistry meterRegistry;
+    private ProviderHttpClients providerHttpClients;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/token", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, "{\"access_token\":\"access-token\",\"token_type\":\"Bearer\",\"expires_in\":3600}");
+        });
+        server.createContext("/userinfo", exchange -> respond(exchange, "{\"id\":1234}"));
+        server.start();
+
+        clientRegistration = ClientRegistration.withRegistrationId("kakao")
+                .clientId("kakao-client-id")
+                .clientSecret("secret")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri(REDIRECT_URI)
+                .authorizationUri(uri("/authorize").toString())
+                .tokenUri(uri("/token").toString())
+                .userInfoUri(uri("/userinfo").toString())
+                .userNameAttributeName("id")
+                .build();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(
+                Map.of("clientRegistrationRepository", new InMemoryClientRegistrationRepository(clientRegistration)));
+        providerHttpClients = new ProviderHttpClients(10, Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(60),
+                beanFactory.getBeanProvider(ClientRegistrationRepository.class));
+        meterRegistry = new SimpleMeterRegistry();
+        providerHttpClients.bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        providerHttpClients.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    public void testCreateRestTemplate_WhenSequentialRequests_ThenReuseOneConnection() {
+        // given
+        RestTemplate restTemplate = providerHttpClients.createRestTemplate();
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            assertThat(restTemplate.getForObject(uri("/userinfo"), String.class)).isEqualTo("{\"id\":1234}");
+        }
+
+        // then
+        assertThat(timer("oauth2.provider.http.connect", "KAKAO").count()).isEqualTo(1);
+        assertThat(timer("oauth2.provider.http.requests", "KAKAO").count()).isEqualTo(10);
+    }
+
+    @Test
+    public void testCreateAccessTokenResponseClient_WhenTokenThenUserInfo_ThenShareProviderPool() {
+        // given
+        OAuth2AuthorizationRequest authorizationRequest = OAuth2AuthorizationRequest.authorizationCode()
+                .authorizationUri(clientRegistration.getProviderDetails().getAuthorizationUri())
+                .clientId(clientRegistration.getClientId())
+                .redirectUri(REDIRECT_URI)
+                .state("state")
+                .build();
+        OAuth2AuthorizationResponse authorizationResponse = OAuth2AuthorizationResponse.success("code")
+                .redirectUri(REDIRECT_URI)
+                .state("state")
+                .build();
+        OAuth2AuthorizationCodeGrantRequest grantRequest = new OAuth2AuthorizationCodeGrantRequest(clientRegistration,
+                new OAuth2AuthorizationExchange(authorizationRequest, authorizationResponse));
+
+        // when
+        OAuth2AccessTokenResponse tokenResponse = providerHttpClients.createAccessTokenResponseClient().getTokenResponse(grantRequest);
+        providerHttpClients.createRestTemplate().getForObject(uri("/userinfo"), String.class);
+
+        // then
+        assertThat(tokenResponse.getAccessToken().getTokenValue()).isEqualTo("access-token");
+        assertThat(timer("oauth2.provider.http.connect", "KAKAO").count()).isEqualTo(1);
+        assertThat(timer("oauth2.provider.http.requests", "KAKAO").count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testCreateRestTemplate_WhenHostNotRegistered_ThenUseFallbackPool() {
+        // given
+        ProviderHttpClients unresolved = new ProviderHttpClients(10, Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(60),
+                uri -> null);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        unresolved.bindTo(registry);
+
+        // when
+        unresolved.createRestTemplate().getForObject(uri("/userinfo"), String.class);
+
+        // then
+        assertThat(registry.get("oauth2.provider.http.requests").tag("provider", ProviderHttpClients.UNKNOWN_PROVIDER)
+                .functionTimer().count()).isEqualTo(1);
+        assertThat(registry.get("oauth2.provider.http.requests").tag("provider", ProviderType.KAKAO.name())
+                .functionTimer().count()).isZero();
+        unresolved.destroy();
+    }
+
+    private FunctionTimer timer(String name, String provider) {
+        return meterRegistry.get(name).tag("provider", provider).functionTimer();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
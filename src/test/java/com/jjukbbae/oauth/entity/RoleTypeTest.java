@@ -0,0 +1,35 @@
+package com.jjukbbae.oauth.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoleTypeTest {
+
+    @Test
+    public void testOf_WhenKnownCode_ThenReturnRoleType() {
+        assertThat(RoleType.of("ROLE_USER")).isEqualTo(RoleType.USER);
+        assertThat(RoleType.of("ROLE_ADMIN")).isEqualTo(RoleType.ADMIN);
+        assertThat(RoleType.of("GUEST")).isEqualTo(RoleType.GUEST);
+    }
+
+    @Test
+    public void testOf_WhenUnknownCode_ThenReturnGuest() {
+        assertThat(RoleType.of("ROLE_UNKNOWN")).isEqualTo(RoleType.GUEST);
+        assertThat(RoleType.of(null)).isEqualTo(RoleType.GUEST);
+        assertThat(RoleType.find("ROLE_UNKNOWN")).isNull();
+    }
+
+    @Test
+    public void testGetAuthorities_ThenReturnSameImmutableList() {
+        // when
+        var authorities = RoleType.USER.getAuthorities();
+
+        // then
+        assertThat(authorities).isSameAs(RoleType.of("ROLE_USER").getAuthorities());
+        assertThat(authorities).singleElement()
+                .satisfies(authority -> assertThat(authority.getAuthority()).isEqualTo("ROLE_USER"));
+        assertThatThrownBy(() -> authorities.add(null)).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
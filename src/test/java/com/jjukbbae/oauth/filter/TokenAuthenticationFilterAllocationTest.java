@@ -0,0 +1,53 @@
+package com.jjukbbae.oauth.filter;
+
+import com.jjukbbae.oauth.token.AuthTokenProvider;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.management.ManagementFactory;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenAuthenticationFilterAllocationTest {
+
+    private static final String SECRET_KEY = "mysecretkeymysecretkeymysecretkeymysecretkey";
+
+    // 캐시된 토큰 한 건을 인증하는 데 허용하는 할당량 (mock 요청 객체의 할당 포함)
+    private static final long ALLOCATION_BUDGET_BYTES = 4 * 1024;
+    private static final int WARMUP_REQUESTS = 20_000;
+    private static final int MEASURED_REQUESTS = 10_000;
+
+    @Test
+    void testDoFilter_WhenTokenCached_ThenStayWithinAllocationBudget() throws Exception {
+        // given
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        AuthTokenProvider tokenProvider = new AuthTokenProvider(SECRET_KEY);
+        TokenAuthenticationFilter filter = new TokenAuthenticationFilter(tokenProvider);
+        String token = tokenProvider.createAuthToken("testUser", "ROLE_USER",
+                new Date(System.currentTimeMillis() + 1000 * 60 * 10)).getToken(); // 10분 후 만료
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain filterChain = (req, res) -> SecurityContextHolder.clearContext();
+
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            filter.doFilter(request, response, filterChain);
+        }
+
+        // when
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            filter.doFilter(request, response, filterChain);
+        }
+        long bytesPerRequest = (threadMXBean.getThreadAllocatedBytes(threadId) - before) / MEASURED_REQUESTS;
+
+        // then
+        assertThat(bytesPerRequest).isLessThanOrEqualTo(ALLOCATION_BUDGET_BYTES);
+    }
+}
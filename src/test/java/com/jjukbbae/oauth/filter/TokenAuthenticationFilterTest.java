@@ -2,7 +2,10 @@ package com.jjukbbae.oauth.filter;
 
 import com.jjukbbae.oauth.token.AuthToken;
 import com.jjukbbae.oauth.token.AuthTokenProvider;
+import com.jjukbbae.oauth.token.TokenFailureReason;
+import com.jjukbbae.oauth.token.TokenVerification;
 import com.jjukbbae.utils.HeaderUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +19,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
+import java.util.Date;
 
 import static org.mockito.Mockito.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -47,14 +51,17 @@ class TokenAuthenticationFilterTest {
             request.addHeader("Authorization", "Bearer " + validTokenString);
             mockedHeaderUtil.when(() -> HeaderUtil.getAccessToken(request)).thenReturn(validTokenString);
             when(tokenProvider.convertAuthToken(validTokenString)).thenReturn(token);
-            when(token.validate()).thenReturn(true);
-            when(tokenProvider.getAuthentication(token)).thenReturn(mock(Authentication.class));
+            Claims claims = mock(Claims.class);
+            when(tokenProvider.verify(token)).thenReturn(TokenVerification.valid(claims));
+            when(tokenProvider.getAuthentication(token, claims)).thenReturn(mock(Authentication.class));
 
             // when
             tokenAuthenticationFilter.doFilter(request, response, filterChain);
 
             // then
             assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+            verify(tokenProvider, times(1)).verify(token);
+            verify(token, never()).validate();
         }
     }
 
@@ -70,13 +77,32 @@ class TokenAuthenticationFilterTest {
             request.addHeader("Authorization", "Bearer " + invalidTokenString);
             mockedHeaderUtil.when(() -> HeaderUtil.getAccessToken(request)).thenReturn(invalidTokenString);
             when(tokenProvider.convertAuthToken(invalidTokenString)).thenReturn(token);
-            when(token.validate()).thenReturn(false);
+            when(tokenProvider.verify(token)).thenReturn(TokenVerification.failed(TokenFailureReason.INVALID_SIGNATURE));
 
             // when
             tokenAuthenticationFilter.doFilter(request, response, filterChain);
 
             // then
             assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+            verify(tokenProvider, never()).getAuthentication(any(AuthToken.class), any(Claims.class));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDoFilterInternal_WhenRefreshTokenUsedAsBearer_ThenNotSetAuthentication() throws ServletException, IOException {
+        // given
+        AuthTokenProvider realTokenProvider = new AuthTokenProvider("mysecretkeymysecretkeymysecretkeymysecretkey");
+        AuthToken refreshToken = realTokenProvider.createRefreshToken("testUser", "family-1", new Date(System.currentTimeMillis() + 60_000));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+        request.addHeader("Authorization", "Bearer " + refreshToken.getToken());
+
+        // when
+        new TokenAuthenticationFilter(realTokenProvider).doFilter(request, response, filterChain);
+
+        // then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(filterChain.getRequest()).isSameAs(request);
+    }
+}
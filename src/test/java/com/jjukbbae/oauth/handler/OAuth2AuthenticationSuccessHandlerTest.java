@@ -1,11 +1,17 @@
 package com.jjukbbae.oauth.handler;
 
-import com.jjukbbae.api.entity.user.UserRefreshToken;
-import com.jjukbbae.api.repository.user.UserRefreshTokenRepository;
+import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.api.service.RefreshTokenService;
+import com.jjukbbae.api.service.UserService;
 import com.jjukbbae.config.properties.AppProperties;
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.entity.RoleType;
+import com.jjukbbae.oauth.entity.UserPrincipal;
+import com.jjukbbae.oauth.info.OAuth2Profile;
 import com.jjukbbae.oauth.info.OAuth2UserInfo;
 import com.jjukbbae.oauth.token.AuthToken;
 import com.jjukbbae.oauth.token.AuthTokenProvider;
+import com.jjukbbae.oauth.token.ProfileClaims;
 import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,8 +24,10 @@ import org.springframework.security.oauth2.client.authentication.OAuth2Authentic
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 import static com.jjukbbae.oauth.repository.OAuth2AuthorizationRequestBasedOnCookieRepository.REDIRECT_URI_PARAM_COOKIE_NAME;
@@ -38,7 +46,10 @@ public class OAuth2AuthenticationSuccessHandlerTest {
     private AppProperties appProperties;
 
     @Mock
-    private UserRefreshTokenRepository userRefreshTokenRepository;
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private UserService userService;
 
     @InjectMocks
     private OAuth2AuthenticationSuccessHandler successHandler;
@@ -66,7 +77,6 @@ public class OAuth2AuthenticationSuccessHandlerTest {
         when(appProperties.getAuth()).thenReturn(authProperties);
         when(authProperties.getTokenSecret()).thenReturn("testSecret");
         when(authProperties.getTokenExpiry()).thenReturn(1800000L);
-        when(authProperties.getRefreshTokenExpiry()).thenReturn(604800000L);
 
         AppProperties.OAuth2 oauth2Properties = mock(AppProperties.OAuth2.class);
         when(appProperties.getOauth2()).thenReturn(oauth2Properties);
@@ -95,15 +105,8 @@ public class OAuth2AuthenticationSuccessHandlerTest {
         // refreshToken
         AuthToken refreshToken = mock(AuthToken.class);
         when(refreshToken.getToken()).thenReturn("testRefreshToken");
-        when(tokenProvider.createAuthToken(anyString(), any(Date.class))).thenReturn(refreshToken);
-
-        // userRefreshToken
-        UserRefreshToken userRefreshToken = mock(UserRefreshToken.class);
-        when(userRefreshTokenRepository.findByUserId(anyString())).thenReturn(userRefreshToken);
-        doAnswer(invocation -> {
-            String newRefreshToken = invocation.getArgument(0);
-            return null;
-        }).when(userRefreshToken).setRefreshToken(anyString());
+        when(refreshTokenService.issue("test_user")).thenReturn(refreshToken);
+        when(refreshTokenService.getCookieMaxAge()).thenReturn(604800);
 
         // when
         String result = successHandler.determineTargetUrl(request, response, authentication);
@@ -113,6 +116,8 @@ public class OAuth2AuthenticationSuccessHandlerTest {
                 .queryParam("token", "testAccessToken")
                 .build().toUriString();
         assertThat(result).isEqualTo(targetUrl);
+        assertThat(response.getCookie("refresh_token").getValue()).isEqualTo("testRefreshToken");
+        assertThat(response.getCookie("refresh_token").getMaxAge()).isEqualTo(604800);
     }
 
     @Test
@@ -129,4 +134,84 @@ public class OAuth2AuthenticationSuccessHandlerTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Unauthorized Redirect URI");
     }
+
+    @Test
+    public void testIsAuthorizedRedirectUri_WhenAuthorizedRedirectUrisRebound_ThenUseNewSnapshot() {
+        // given
+        AppProperties.OAuth2 oauth2Properties = new AppProperties.OAuth2()
+                .authorizedRedirectUris(List.of("http://localhost:8080/oauth2/redirect"));
+        when(appProperties.getOauth2()).thenReturn(oauth2Properties);
+        successHandler.reloadAuthorizedRedirectUris();
+        boolean before = successHandler.isAuthorizedRedirectUri("https://shop.partner.com/oauth2/redirect");
+
+        // when
+        oauth2Properties.authorizedRedirectUris(List.of("https://*.partner.com"));
+
+        // then
+        assertThat(before).isFalse();
+        assertThat(successHandler.isAuthorizedRedirectUri("https://shop.partner.com/oauth2/redirect")).isTrue();
+        assertThat(successHandler.isAuthorizedRedirectUri("http://localhost:8080/oauth2/redirect")).isFalse();
+    }
+
+    @Test
+    public void testDetermineTargetUrl_WhenUserPrincipalHasProfile_ThenUseProfileWithoutAttributes() {
+        // given
+        AppProperties.Auth authProperties = mock(AppProperties.Auth.class);
+        when(appProperties.getAuth()).thenReturn(authProperties);
+        when(authProperties.getTokenExpiry()).thenReturn(1800000L);
+
+        User savedUser = new User("naver-id", "Naver User", "naver@example.com", "Y", "http://test.com/naver.jpg",
+                ProviderType.NAVER, RoleType.USER, LocalDateTime.now(), LocalDateTime.now());
+        UserPrincipal principal = UserPrincipal.create(savedUser, Map.of(),
+                new OAuth2Profile(ProviderType.NAVER, "naver-id", "Naver User", "naver@example.com", "http://test.com/naver.jpg"));
+        when(authentication.getPrincipal()).thenReturn(principal);
+
+        AuthToken accessToken = mock(AuthToken.class);
+        when(accessToken.getToken()).thenReturn("testAccessToken");
+        when(tokenProvider.createAuthToken(eq("naver-id"), anyString(), any(Date.class))).thenReturn(accessToken);
+        AuthToken refreshToken = mock(AuthToken.class);
+        when(refreshToken.getToken()).thenReturn("testRefreshToken");
+        when(refreshTokenService.issue("naver-id")).thenReturn(refreshToken);
+
+        // when
+        String result = successHandler.determineTargetUrl(request, response, authentication);
+
+        // then
+        assertThat(result).contains("token=testAccessToken");
+        verify(refreshTokenService).issue("naver-id");
+        verify((OAuth2AuthenticationToken) authentication, never()).getAuthorizedClientRegistrationId();
+    }
+
+    @Test
+    public void testDetermineTargetUrl_WhenProfileClaimsEnabled_ThenSignProfileAndRecordVersion() {
+        // given
+        AppProperties.Auth authProperties = new AppProperties.Auth();
+        authProperties.setTokenExpiry(1800000L);
+        authProperties.setProfileClaims(true);
+        when(appProperties.getAuth()).thenReturn(authProperties);
+
+        LocalDateTime modifiedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        User savedUser = new User("kakao-id", "Kakao User", "kakao@example.com", "Y", "http://test.com/kakao.jpg",
+                ProviderType.KAKAO, RoleType.USER, modifiedAt, modifiedAt);
+        savedUser.setUserSeq(7L);
+        UserPrincipal principal = UserPrincipal.create(savedUser, Map.of(),
+                new OAuth2Profile(ProviderType.KAKAO, "kakao-id", "Kakao User", null, "http://test.com/kakao.jpg"));
+        when(authentication.getPrincipal()).thenReturn(principal);
+
+        AuthToken accessToken = mock(AuthToken.class);
+        when(accessToken.getToken()).thenReturn("testAccessToken");
+        when(tokenProvider.createAuthToken(eq("kakao-id"), any(ProfileClaims.class), any(Date.class))).thenReturn(accessToken);
+        AuthToken refreshToken = mock(AuthToken.class);
+        when(refreshToken.getToken()).thenReturn("testRefreshToken");
+        when(refreshTokenService.issue("kakao-id")).thenReturn(refreshToken);
+
+        // when
+        successHandler.determineTargetUrl(request, response, authentication);
+
+        // then
+        ProfileClaims expected = ProfileClaims.of(savedUser, RoleType.USER);
+        verify(tokenProvider).createAuthToken(eq("kakao-id"), eq(expected), any(Date.class));
+        verify(tokenProvider, never()).createAuthToken(anyString(), anyString(), any(Date.class));
+        verify(userService).recordProfile("kakao-id", 7L, ProfileClaims.versionOf(modifiedAt), RoleType.USER);
+    }
 }
@@ -0,0 +1,72 @@
+package com.jjukbbae.oauth.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RedirectUriAllowlistTest {
+
+    private final RedirectUriAllowlist allowlist = RedirectUriAllowlist.compile(List.of(
+            "http://localhost:3000/oauth2/redirect",
+            "https://www.jjukbbae.com/oauth2/redirect",
+            "https://*.partner.com/oauth2/redirect",
+            "https://*.dev.jjukbbae.com:8443"
+    ));
+
+    @Test
+    public void testIsAllowed_WhenHostAndPortMatch_ThenIgnorePathAndCase() {
+        // when & then
+        assertThat(allowlist.isAllowed("http://localhost:3000/other/path")).isTrue();
+        assertThat(allowlist.isAllowed("https://WWW.JJUKBBAE.COM/oauth2/redirect")).isTrue();
+    }
+
+    @Test
+    public void testIsAllowed_WhenPortDiffers_ThenReject() {
+        // when & then
+        assertThat(allowlist.isAllowed("http://localhost:8080/oauth2/redirect")).isFalse();
+        assertThat(allowlist.isAllowed("https://www.jjukbbae.com:443/oauth2/redirect")).isFalse();
+    }
+
+    @Test
+    public void testIsAllowed_WhenWildcardEntry_ThenMatchOnlySubdomains() {
+        // when & then
+        assertThat(allowlist.isAllowed("https://shop.partner.com/oauth2/redirect")).isTrue();
+        assertThat(allowlist.isAllowed("https://a.b.Partner.com/oauth2/redirect")).isTrue();
+        assertThat(allowlist.isAllowed("https://feature.dev.jjukbbae.com:8443/")).isTrue();
+        assertThat(allowlist.isAllowed("https://partner.com/oauth2/redirect")).isFalse();
+        assertThat(allowlist.isAllowed("https://evilpartner.com/oauth2/redirect")).isFalse();
+        assertThat(allowlist.isAllowed("https://shop.partner.com.evil.com/oauth2/redirect")).isFalse();
+        assertThat(allowlist.isAllowed("https://feature.dev.jjukbbae.com/")).isFalse();
+    }
+
+    @Test
+    public void testIsAllowed_WhenMalformedOrRelative_ThenReject() {
+        // when & then
+        assertThat(allowlist.isAllowed("http://local host:3000")).isFalse();
+        assertThat(allowlist.isAllowed("/oauth2/redirect")).isFalse();
+    }
+
+    @Test
+    public void testCompile_WhenEntryHasNoHost_ThenThrow() {
+        // when & then
+        assertThatThrownBy(() -> RedirectUriAllowlist.compile(List.of("/oauth2/redirect")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testIsCompiledFrom_WhenSameInstance_ThenTrue() {
+        // given
+        List<String> source = new ArrayList<>(List.of("http://localhost:3000"));
+
+        // when
+        RedirectUriAllowlist compiled = RedirectUriAllowlist.compile(source);
+
+        // then
+        assertThat(compiled.isCompiledFrom(source)).isTrue();
+        assertThat(compiled.isCompiledFrom(new ArrayList<>(source))).isFalse();
+    }
+}
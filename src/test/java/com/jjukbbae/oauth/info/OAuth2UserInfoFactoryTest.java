@@ -0,0 +1,79 @@
+package com.jjukbbae.oauth.info;
+
+import com.jjukbbae.oauth.entity.ProviderType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OAuth2UserInfoFactoryTest {
+
+    @Test
+    public void testGetOAuth2UserInfo_WhenGoogle_ThenReadTopLevelFields() {
+        // given
+        Map<String, Object> attributes = Map.of("sub", "google-id", "name", "Google User",
+                "email", "google@example.com", "picture", "http://test.com/google.jpg");
+
+        // when
+        OAuth2Profile profile = OAuth2UserInfoFactory.getOAuth2UserInfo(ProviderType.GOOGLE, attributes).getProfile();
+
+        // then
+        assertThat(profile).isEqualTo(new OAuth2Profile(ProviderType.GOOGLE, "google-id", "Google User",
+                "google@example.com", "http://test.com/google.jpg"));
+    }
+
+    @Test
+    public void testGetOAuth2UserInfo_WhenNaver_ThenReadNestedResponse() {
+        // given
+        Map<String, Object> attributes = Map.of("resultcode", "00", "response", Map.of("id", "naver-id",
+                "nickname", "Naver User", "email", "naver@example.com", "profile_image", "http://test.com/naver.jpg"));
+
+        // when
+        OAuth2UserInfo userInfo = OAuth2UserInfoFactory.getOAuth2UserInfo(ProviderType.NAVER, attributes);
+
+        // then
+        assertThat(userInfo.getProfile()).isEqualTo(new OAuth2Profile(ProviderType.NAVER, "naver-id", "Naver User",
+                "naver@example.com", "http://test.com/naver.jpg"));
+        assertThat(userInfo.getId()).isEqualTo("naver-id");
+        assertThat(userInfo.getAttributes()).isSameAs(attributes);
+    }
+
+    @Test
+    public void testGetOAuth2UserInfo_WhenKakao_ThenMixTopLevelAndNestedFields() {
+        // given
+        Map<String, Object> attributes = Map.of("id", 1234L, "account_email", "kakao@example.com",
+                "properties", Map.of("nickname", "Kakao User", "thumbnail_image", "http://test.com/kakao.jpg"));
+
+        // when
+        OAuth2Profile profile = OAuth2UserInfoFactory.getOAuth2UserInfo(ProviderType.KAKAO, attributes).getProfile();
+
+        // then
+        assertThat(profile).isEqualTo(new OAuth2Profile(ProviderType.KAKAO, "1234", "Kakao User",
+                "kakao@example.com", "http://test.com/kakao.jpg"));
+    }
+
+    @Test
+    public void testGetOAuth2UserInfo_WhenNestedObjectMissing_ThenNullFields() {
+        // given
+        Map<String, Object> attributes = Map.of("id", 1234L, "properties", "not-an-object");
+
+        // when
+        OAuth2Profile profile = OAuth2UserInfoFactory.getOAuth2UserInfo(ProviderType.KAKAO, attributes).getProfile();
+        OAuth2Profile naver = OAuth2UserInfoFactory.getOAuth2UserInfo(ProviderType.NAVER, Map.of()).getProfile();
+
+        // then
+        assertThat(profile.id()).isEqualTo("1234");
+        assertThat(profile.name()).isNull();
+        assertThat(profile.imageUrl()).isNull();
+        assertThat(naver).isEqualTo(new OAuth2Profile(ProviderType.NAVER, null, null, null, null));
+    }
+
+    @Test
+    public void testGetOAuth2UserInfo_WhenLocal_ThenThrow() {
+        // when & then
+        assertThatThrownBy(() -> OAuth2UserInfoFactory.getOAuth2UserInfo(ProviderType.LOCAL, Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,115 @@
+package com.jjukbbae.oauth.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.SerializationUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthorizationRequestCookieCodecTest {
+
+    private static final byte[] SECRET = "test-cookie-secret".getBytes(StandardCharsets.UTF_8);
+
+    private final AuthorizationRequestCookieCodec codec = new AuthorizationRequestCookieCodec(SECRET, 180, true);
+
+    @Test
+    public void testDecode_WhenEncoded_ThenRestoreAllFields() {
+        // given
+        OAuth2AuthorizationRequest authorizationRequest = authorizationRequest();
+
+        // when
+        OAuth2AuthorizationRequest decoded = codec.decode(codec.encode(authorizationRequest));
+
+        // then
+        assertThat(decoded.getAuthorizationUri()).isEqualTo(authorizationRequest.getAuthorizationUri());
+        assertThat(decoded.getClientId()).isEqualTo(authorizationRequest.getClientId());
+        assertThat(decoded.getRedirectUri()).isEqualTo(authorizationRequest.getRedirectUri());
+        assertThat(decoded.getState()).isEqualTo(authorizationRequest.getState());
+        assertThat(decoded.getScopes()).containsExactlyElementsOf(authorizationRequest.getScopes());
+        assertThat(decoded.getAdditionalParameters()).isEqualTo(authorizationRequest.getAdditionalParameters());
+        assertThat(decoded.getAttributes()).isEqualTo(authorizationRequest.getAttributes());
+        assertThat(decoded.getAuthorizationRequestUri()).isEqualTo(authorizationRequest.getAuthorizationRequestUri());
+    }
+
+    @Test
+    public void testEncode_WhenComparedWithJavaSerialization_ThenMuchSmaller() {
+        // given
+        OAuth2AuthorizationRequest authorizationRequest = authorizationRequest();
+
+        // when
+        String encoded = codec.encode(authorizationRequest);
+        String serialized = Base64.getUrlEncoder().encodeToString(SerializationUtils.serialize(authorizationRequest));
+
+        // then
+        assertThat(encoded.length()).isLessThan(serialized.length() / 3);
+    }
+
+    @Test
+    public void testDecode_WhenTampered_ThenReturnNull() {
+        // given
+        String encoded = codec.encode(authorizationRequest());
+        char[] chars = encoded.toCharArray();
+        chars[20] = chars[20] == 'A' ? 'B' : 'A';
+
+        // when & then
+        assertThat(codec.decode(new String(chars))).isNull();
+        assertThat(new AuthorizationRequestCookieCodec("other-secret".getBytes(StandardCharsets.UTF_8), 180, true).decode(encoded)).isNull();
+        assertThat(codec.decode("not-base64!")).isNull();
+        assertThat(codec.decode("")).isNull();
+    }
+
+    @Test
+    public void testDecode_WhenExpired_ThenReturnNull() {
+        // given
+        Instant now = Instant.parse("2024-01-01T00:00:00Z");
+        String encoded = new AuthorizationRequestCookieCodec(SECRET, 180, true, Clock.fixed(now, ZoneOffset.UTC))
+                .encode(authorizationRequest());
+        AuthorizationRequestCookieCodec later = new AuthorizationRequestCookieCodec(SECRET, 180, true,
+                Clock.fixed(now.plusSeconds(181), ZoneOffset.UTC));
+
+        // when & then
+        assertThat(later.decode(encoded)).isNull();
+    }
+
+    @Test
+    public void testDecode_WhenLegacyCookie_ThenReadOnlyIfEnabled() {
+        // given
+        String legacy = Base64.getUrlEncoder().encodeToString(SerializationUtils.serialize(authorizationRequest()));
+
+        // when & then
+        assertThat(codec.decode(legacy).getState()).isEqualTo("state-value");
+        assertThat(new AuthorizationRequestCookieCodec(SECRET, 180, false).decode(legacy)).isNull();
+    }
+
+    @Test
+    public void testDecode_WhenLegacyCookieHasUnexpectedClass_ThenReturnNull() {
+        // given
+        LinkedMultiValueMap<String, String> unexpected = new LinkedMultiValueMap<>();
+        unexpected.add("key", "value");
+        String legacy = Base64.getUrlEncoder().encodeToString(SerializationUtils.serialize(unexpected));
+
+        // when & then
+        assertThat(codec.decode(legacy)).isNull();
+    }
+
+    private static OAuth2AuthorizationRequest authorizationRequest() {
+        return OAuth2AuthorizationRequest.authorizationCode()
+                .authorizationUri("https://accounts.google.com/o/oauth2/v2/auth")
+                .clientId("1234567890-abcdefghijklmnopqrstuvwxyz.apps.googleusercontent.com")
+                .redirectUri("https://api.jjukbbae.com/login/oauth2/code/google")
+                .scopes(Set.of("openid", "profile", "email"))
+                .state("state-value")
+                .additionalParameters(Map.of("nonce", "hashed-nonce"))
+                .attributes(Map.of("registration_id", "google", "nonce", "nonce-value"))
+                .build();
+    }
+}
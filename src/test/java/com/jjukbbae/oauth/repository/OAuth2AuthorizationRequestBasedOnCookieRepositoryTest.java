@@ -5,6 +5,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
 
 import java.util.Base64;
@@ -32,10 +33,10 @@ class OAuth2AuthorizationRequestBasedOnCookieRepositoryTest {
                 .clientId("test-client-id")
                 .authorizationUri("https://example.com/auth")
                 .build();
-
-        String serializedRequest = Base64.getUrlEncoder().encodeToString(org.springframework.util.SerializationUtils.serialize(authorizationRequest));
-        Cookie cookie = new Cookie(OAuth2AuthorizationRequestBasedOnCookieRepository.OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME, serializedRequest);
-        when(request.getCookies()).thenReturn(new Cookie[]{cookie});
+        repository.saveAuthorizationRequest(authorizationRequest, request, response);
+        ArgumentCaptor<Cookie> saved = ArgumentCaptor.forClass(Cookie.class);
+        verify(response).addCookie(saved.capture());
+        when(request.getCookies()).thenReturn(new Cookie[]{saved.getValue()});
 
         // when
         OAuth2AuthorizationRequest loadedRequest = repository.loadAuthorizationRequest(request);
@@ -45,6 +46,21 @@ class OAuth2AuthorizationRequestBasedOnCookieRepositoryTest {
         assertThat(loadedRequest.getClientId()).isEqualTo("test-client-id");
     }
 
+    @Test
+    public void testLoadAuthorizationRequest_WhenLegacyCookie_ThenReturnNull() {
+        // given
+        OAuth2AuthorizationRequest authorizationRequest = OAuth2AuthorizationRequest.authorizationCode()
+                .clientId("test-client-id")
+                .authorizationUri("https://example.com/auth")
+                .build();
+        String serializedRequest = Base64.getUrlEncoder().encodeToString(org.springframework.util.SerializationUtils.serialize(authorizationRequest));
+        Cookie cookie = new Cookie(OAuth2AuthorizationRequestBasedOnCookieRepository.OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME, serializedRequest);
+        when(request.getCookies()).thenReturn(new Cookie[]{cookie});
+
+        // when & then
+        assertThat(repository.loadAuthorizationRequest(request)).isNull();
+    }
+
     @Test
     public void testSaveAuthorizationRequest_WhenRequestNotNull_ThenSaveCookie() {
         // given
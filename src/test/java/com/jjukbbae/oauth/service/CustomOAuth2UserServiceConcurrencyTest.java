@@ -0,0 +1,96 @@
+package com.jjukbbae.oauth.service;
+
+import com.jjukbbae.api.repository.user.UserRepository;
+import com.jjukbbae.oauth.client.ProviderHttpClients;
+import com.jjukbbae.oauth.entity.RoleType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({CustomOAuth2UserService.class, GoogleIdTokenVerifier.class, ProviderCallGuard.class, ProviderHttpClients.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomOAuth2UserServiceConcurrencyTest {
+
+    @Autowired
+    private CustomOAuth2UserService customOAuth2UserService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testProcess_WhenParallelFirstLogins_ThenSingleUserCreated() throws Exception {
+        // given
+        int logins = 100;
+        OAuth2UserRequest userRequest = mock(OAuth2UserRequest.class);
+        ClientRegistration clientRegistration = mock(ClientRegistration.class);
+        when(userRequest.getClientRegistration()).thenReturn(clientRegistration);
+        when(clientRegistration.getRegistrationId()).thenReturn("google");
+        OAuth2User oAuth2User = new DefaultOAuth2User(
+                Collections.singletonList(new SimpleGrantedAuthority(RoleType.USER.getCode())),
+                Map.of("sub", "firstLoginUser", "name", "First Login", "email", "first@example.com", "picture", "http://test.com/profile.jpg"),
+                "sub"
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<OAuth2User>> results = new ArrayList<>();
+        for (int i = 0; i < logins; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return customOAuth2UserService.process(userRequest, oAuth2User);
+            }));
+        }
+
+        // when
+        start.countDown();
+        try {
+            for (Future<OAuth2User> result : results) {
+                assertThat(result.get(60, TimeUnit.SECONDS).getName()).isEqualTo("firstLoginUser");
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // then
+        assertThat(userRepository.findAll())
+                .hasSize(1)
+                .allSatisfy(user -> assertThat(user.getUserId()).isEqualTo("firstLoginUser"));
+    }
+}
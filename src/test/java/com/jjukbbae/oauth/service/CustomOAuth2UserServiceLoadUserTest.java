@@ -0,0 +1,126 @@
+package com.jjukbbae.oauth.service;
+
+import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.api.repository.user.UserRepository;
+import com.jjukbbae.oauth.client.ProviderHttpClients;
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.entity.UserPrincipal;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 테스트 트랜잭션 없이 loadUser 부터 실행해, process 가 스스로 건 트랜잭션 안에서 쓰기와 잠금 조회가 실행되는지 확인한다.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({CustomOAuth2UserService.class, ProviderCallGuard.class, ProviderHttpClients.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomOAuth2UserServiceLoadUserTest {
+
+    private static final String CLIENT_ID = "google-client";
+
+    @Autowired
+    private CustomOAuth2UserService customOAuth2UserService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private GoogleIdTokenVerifier googleIdTokenVerifier;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testLoadUser_WhenFirstLogin_ThenCreateUser() {
+        // given
+        OAuth2UserRequest userRequest = googleUserRequest("loadUser", "Load User", "http://test.com/profile.jpg");
+
+        // when
+        OAuth2User result = customOAuth2UserService.loadUser(userRequest);
+
+        // then
+        assertThat(result.getName()).isEqualTo("loadUser");
+        User saved = userRepository.findByUserId("loadUser");
+        assertThat(saved).isNotNull();
+        assertThat(saved.getUserSeq()).isNotNull();
+        assertThat(saved.getProviderType()).isEqualTo(ProviderType.GOOGLE);
+    }
+
+    @Test
+    public void testLoadUser_WhenProfileChanged_ThenUpdateProfile() {
+        // given
+        customOAuth2UserService.loadUser(googleUserRequest("loadUser", "Load User", "http://test.com/profile.jpg"));
+        long appliedUpdates = customOAuth2UserService.getAppliedUpdates();
+
+        // when
+        customOAuth2UserService.loadUser(googleUserRequest("loadUser", "New Name", "http://test.com/new.jpg"));
+
+        // then
+        User saved = userRepository.findByUserId("loadUser");
+        assertThat(saved.getUsername()).isEqualTo("New Name");
+        assertThat(saved.getProfileImageUrl()).isEqualTo("http://test.com/new.jpg");
+        assertThat(customOAuth2UserService.getAppliedUpdates()).isEqualTo(appliedUpdates + 1);
+    }
+
+    @Test
+    public void testLoadUser_WhenChangedOutsideCache_ThenCompareWithDatabase() {
+        // given
+        customOAuth2UserService.loadUser(googleUserRequest("loadUser", "Load User", "http://test.com/profile.jpg"));
+        userRepository.findByUserId("loadUser");
+        // 다른 인스턴스가 바꾼 것처럼 Hibernate 를 거치지 않고 바꿔서 2차 cache 에는 이전 값이 남는다.
+        jdbcTemplate.update("update USERS set USERNAME = 'Other Name' where USER_ID = 'loadUser'");
+        long appliedUpdates = customOAuth2UserService.getAppliedUpdates();
+
+        // when
+        UserPrincipal result = (UserPrincipal) customOAuth2UserService.loadUser(
+                googleUserRequest("loadUser", "Load User", "http://test.com/profile.jpg"));
+
+        // then
+        assertThat(customOAuth2UserService.getAppliedUpdates()).isEqualTo(appliedUpdates + 1);
+        assertThat(result.getProfileClaims().name()).isEqualTo("Load User");
+        assertThat(jdbcTemplate.queryForObject("select USERNAME from USERS where USER_ID = 'loadUser'", String.class))
+                .isEqualTo("Load User");
+    }
+
+    private OAuth2UserRequest googleUserRequest(String userId, String name, String picture) {
+        OAuth2UserRequest userRequest = mock(OAuth2UserRequest.class);
+        ClientRegistration clientRegistration = mock(ClientRegistration.class);
+        when(userRequest.getClientRegistration()).thenReturn(clientRegistration);
+        when(userRequest.getAdditionalParameters()).thenReturn(Map.of("id_token", "id-token-" + userId));
+        when(clientRegistration.getRegistrationId()).thenReturn("google");
+        when(clientRegistration.getClientId()).thenReturn(CLIENT_ID);
+        when(googleIdTokenVerifier.verify("id-token-" + userId, CLIENT_ID)).thenReturn(Jwts.claims(Map.of(
+                "sub", userId, "name", name, "email", userId + "@example.com", "picture", picture)));
+        return userRequest;
+    }
+}
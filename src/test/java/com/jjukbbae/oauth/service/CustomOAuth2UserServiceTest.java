@@ -4,18 +4,23 @@ import com.jjukbbae.api.entity.user.User;
 import com.jjukbbae.api.repository.user.UserRepository;
 import com.jjukbbae.oauth.entity.ProviderType;
 import com.jjukbbae.oauth.entity.RoleType;
+import com.jjukbbae.oauth.entity.UserPrincipal;
 import com.jjukbbae.oauth.exception.OAuthProviderMissMatchException;
+import com.jjukbbae.oauth.info.OAuth2Profile;
+import com.jjukbbae.oauth.token.ProfileClaims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.client.registration.ClientRegistration;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -24,6 +29,7 @@ import java.util.Map;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class CustomOAuth2UserServiceTest {
@@ -31,6 +37,9 @@ class CustomOAuth2UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
     @InjectMocks
     private CustomOAuth2UserService customOAuth2UserService;
 
@@ -62,7 +71,7 @@ class CustomOAuth2UserServiceTest {
                 LocalDateTime.now(),
                 LocalDateTime.now()
         );
-        when(userRepository.findByUserId("testUserId")).thenReturn(savedUser);
+        when(userRepository.findCurrentByUserId("testUserId")).thenReturn(savedUser);
 
         // when
         OAuth2User result = customOAuth2UserService.process(userRequest, oAuth2User);
@@ -70,6 +79,8 @@ class CustomOAuth2UserServiceTest {
         // then
         assertThat(result).isNotNull();
         assertThat(result.getName()).isEqualTo("testUserId");
+        assertThat(((UserPrincipal) result).getOauth2Profile()).isEqualTo(new OAuth2Profile(ProviderType.GOOGLE, "testUserId",
+                "Test User", "test@example.com", "http://test.com/profile.jpg"));
     }
 
     @Test
@@ -84,7 +95,11 @@ class CustomOAuth2UserServiceTest {
                 Map.of("sub", "newUserId", "name", "New User", "email", "new@example.com", "picture", "http://test.com/profile.jpg"),
                 "sub"
         );
-        when(userRepository.findByUserId("newUserId")).thenReturn(null);
+        when(userRepository.findCurrentByUserId("newUserId")).thenReturn(null);
+        when(userRepository.insertIfAbsent(any(User.class))).thenReturn(1);
+        when(userRepository.findForUpdateByUserId("newUserId")).thenReturn(new User(
+                "newUserId", "New User", "new@example.com", "Y", "http://test.com/profile.jpg",
+                ProviderType.GOOGLE, RoleType.USER, LocalDateTime.now(), LocalDateTime.now()));
         when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // when
@@ -93,6 +108,7 @@ class CustomOAuth2UserServiceTest {
         // then
         assertThat(result).isNotNull();
         assertThat(result.getName()).isEqualTo("newUserId");
+        verify(userRepository).insertIfAbsent(any(User.class));
     }
 
     @Test
@@ -118,7 +134,7 @@ class CustomOAuth2UserServiceTest {
                 LocalDateTime.now(),
                 LocalDateTime.now()
         );
-        when(userRepository.findByUserId("testUserId")).thenReturn(savedUser);
+        when(userRepository.findCurrentByUserId("testUserId")).thenReturn(savedUser);
 
         // when & then
         assertThatThrownBy(() -> customOAuth2UserService.process(userRequest, oAuth2User))
@@ -149,8 +165,13 @@ class CustomOAuth2UserServiceTest {
                 LocalDateTime.now(),
                 LocalDateTime.now()
         );
-        when(userRepository.findByUserId("testUserId")).thenReturn(savedUser);
-        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.findCurrentByUserId("testUserId")).thenReturn(savedUser);
+        when(userRepository.updateProfile(eq("testUserId"), eq("Updated User"), eq("http://test.com/updated_profile.jpg"),
+                any(LocalDateTime.class))).thenReturn(1);
+        User updatedUser = new User("testUserId", "Updated User", "test@example.com", "Y", "http://test.com/updated_profile.jpg",
+                ProviderType.GOOGLE, RoleType.USER, LocalDateTime.now(), LocalDateTime.now());
+        updatedUser.setUserSeq(1L);
+        when(userRepository.findForUpdateByUserId("testUserId")).thenReturn(updatedUser);
 
         // when
         OAuth2User result = customOAuth2UserService.process(userRequest, oAuth2User);
@@ -158,8 +179,74 @@ class CustomOAuth2UserServiceTest {
         // then
         assertThat(result).isNotNull();
         assertThat(result.getName()).isEqualTo("testUserId");
-        verify(userRepository, times(1)).saveAndFlush(savedUser);
-        assertThat(savedUser.getUsername()).isEqualTo("Updated User");
-        assertThat(savedUser.getProfileImageUrl()).isEqualTo("http://test.com/updated_profile.jpg");
+        verify(userRepository, times(1)).updateProfile(eq("testUserId"), eq("Updated User"),
+                eq("http://test.com/updated_profile.jpg"), any(LocalDateTime.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+        verify(transactionOperations, times(1)).execute(any());
+        assertThat(((UserPrincipal) result).getProfileClaims().name()).isEqualTo("Updated User");
+        assertThat(savedUser.getUsername()).isEqualTo("Old User");
+        assertThat(customOAuth2UserService.getAppliedUpdates()).isEqualTo(1);
+    }
+
+    @Test
+    public void testProcess_WhenUpdatedConcurrently_ThenReturnCurrentRow() {
+        // given
+        OAuth2UserRequest userRequest = mock(OAuth2UserRequest.class);
+        ClientRegistration clientRegistration = mock(ClientRegistration.class);
+        when(userRequest.getClientRegistration()).thenReturn(clientRegistration);
+        when(clientRegistration.getRegistrationId()).thenReturn("google");
+        OAuth2User oAuth2User = new DefaultOAuth2User(
+                Collections.singletonList(new SimpleGrantedAuthority(RoleType.USER.getCode())),
+                Map.of("sub", "testUserId", "name", "Updated User", "email", "test@example.com", "picture", "http://test.com/profile.jpg"),
+                "sub"
+        );
+        User readUser = new User("testUserId", "Old User", "test@example.com", "Y", "http://test.com/profile.jpg",
+                ProviderType.GOOGLE, RoleType.USER, LocalDateTime.now(), LocalDateTime.now());
+        LocalDateTime modifiedAt = LocalDateTime.now();
+        User currentUser = new User("testUserId", "Updated User", "test@example.com", "Y", "http://test.com/profile.jpg",
+                ProviderType.GOOGLE, RoleType.USER, LocalDateTime.now(), modifiedAt);
+        currentUser.setUserSeq(1L);
+        when(userRepository.findCurrentByUserId("testUserId")).thenReturn(readUser);
+        when(userRepository.updateProfile(any(), any(), any(), any())).thenReturn(0);
+        when(userRepository.findForUpdateByUserId("testUserId")).thenReturn(currentUser);
+
+        // when
+        OAuth2User result = customOAuth2UserService.process(userRequest, oAuth2User);
+
+        // then
+        assertThat(((UserPrincipal) result).getProfileClaims().version()).isEqualTo(ProfileClaims.versionOf(modifiedAt));
+        verify(userRepository, never()).evictByUserId(any());
+        assertThat(customOAuth2UserService.getSkippedUpdates()).isEqualTo(1);
+        assertThat(customOAuth2UserService.getAppliedUpdates()).isZero();
+    }
+
+    @Test
+    public void testProcess_WhenProfileUnchanged_ThenSkipWrite() {
+        // given
+        OAuth2UserRequest userRequest = mock(OAuth2UserRequest.class);
+        ClientRegistration clientRegistration = mock(ClientRegistration.class);
+        when(userRequest.getClientRegistration()).thenReturn(clientRegistration);
+        when(clientRegistration.getRegistrationId()).thenReturn("google");
+        OAuth2User oAuth2User = new DefaultOAuth2User(
+                Collections.singletonList(new SimpleGrantedAuthority(RoleType.USER.getCode())),
+                Map.of("sub", "testUserId", "name", "Test User", "email", "test@example.com", "picture", "http://test.com/profile.jpg"),
+                "sub"
+        );
+        LocalDateTime modifiedAt = LocalDateTime.now().minusDays(1);
+        User savedUser = new User("testUserId", "Test User", "test@example.com", "Y", "http://test.com/profile.jpg",
+                ProviderType.GOOGLE, RoleType.USER, modifiedAt, modifiedAt);
+        when(userRepository.findCurrentByUserId("testUserId")).thenReturn(savedUser);
+
+        // when
+        customOAuth2UserService.process(userRequest, oAuth2User);
+
+        // then
+        verify(userRepository, never()).updateProfile(any(), any(), any(), any());
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+        verify(userRepository, never()).findByUserId(any());
+        verify(transactionOperations, never()).execute(any());
+        assertThat(savedUser.getModifiedAt()).isEqualTo(modifiedAt);
+        assertThat(customOAuth2UserService.getSkippedUpdates()).isEqualTo(1);
+        assertThat(customOAuth2UserService.getAppliedUpdates()).isZero();
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.jjukbbae.oauth.service;
 
-import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.api.entity.user.UserCredentials;
+import com.jjukbbae.oauth.entity.ProviderType;
 import com.jjukbbae.api.repository.user.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,18 +32,8 @@ class CustomUserDetailsServiceTest {
     @Test
     public void testLoadUserByUsername_WhenUsernameExist_ThenReturnUserDetails() {
         // given
-        User user = new User(
-                "testUserId",
-                "Test User",
-                "test@example.com",
-                "Y",
-                "http://test.com/profile.jpg",
-                null,
-                null,
-                null,
-                null
-        );
-        when(userRepository.findByUserId("testUserId")).thenReturn(user);
+        UserCredentials credentials = new UserCredentials("testUserId", "NO_PASS", ProviderType.GOOGLE);
+        when(userRepository.findCredentialsByUserId("testUserId")).thenReturn(credentials);
 
         // when
         UserDetails userDetails = customUserDetailsService.loadUserByUsername("testUserId");
@@ -50,12 +41,13 @@ class CustomUserDetailsServiceTest {
         // then
         assertThat(userDetails).isNotNull();
         assertThat(userDetails.getUsername()).isEqualTo("testUserId");
+        assertThat(userDetails.getPassword()).isEqualTo("NO_PASS");
     }
 
     @Test
     public void testLoadUserByUsername_WhenUsernameNotExist_ThenThrowUsernameNotFoundException() {
         // given
-        when(userRepository.findByUserId(anyString())).thenReturn(null);
+        when(userRepository.findCredentialsByUserId(anyString())).thenReturn(null);
 
         // when & then
         assertThatThrownBy(() -> customUserDetailsService.loadUserByUsername("invalidUser"))
@@ -66,7 +58,7 @@ class CustomUserDetailsServiceTest {
     @Test
     public void testLoadUserByUsername_WhenUsernameNull_ThenThrowUsernameNotFoundException() {
         // given
-        when(userRepository.findByUserId(null)).thenReturn(null);
+        when(userRepository.findCredentialsByUserId(null)).thenReturn(null);
 
         // when & then
         assertThatThrownBy(() -> customUserDetailsService.loadUserByUsername(null))
@@ -0,0 +1,328 @@
+package com.jjukbbae.oauth.service;
+
+import com.jjukbbae.api.entity.user.User;
+import com.jjukbbae.api.repository.user.UserRepository;
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.entity.RoleType;
+import com.jjukbbae.oauth.exception.UnknownSigningKeyException;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.IncorrectClaimException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GoogleIdTokenVerifierTest {
+
+    private static final String CLIENT_ID = "test-client-id";
+
+    private HttpServer server;
+    private final AtomicInteger jwksRequests = new AtomicInteger();
+    private final AtomicInteger userInfoRequests = new AtomicInteger();
+    private volatile String jwks;
+    private volatile long jwksDelayMillis;
+    private KeyPair keyPair;
+    private GoogleIdTokenVerifier verifier;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        keyPair = generateKeyPair();
+        jwks = jwks("k1", keyPair);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/certs", exchange -> {
+            jwksRequests.incrementAndGet();
+            sleep(jwksDelayMillis);
+            byte[] body = jwks.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/userinfo", exchange -> {
+            userInfoRequests.incrementAndGet();
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.start();
+
+        verifier = new GoogleIdTokenVerifier(uri("/certs"), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifier.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testVerify_WhenValidIdToken_ThenReturnClaims() {
+        // given
+        String idToken = idToken("k1", keyPair, "https://accounts.google.com", CLIENT_ID);
+
+        // when
+        Claims claims = verifier.verify(idToken, CLIENT_ID);
+        verifier.verify(idToken, CLIENT_ID);
+
+        // then
+        assertThat(claims.getSubject()).isEqualTo("googleUserId");
+        assertThat(claims.get("email")).isEqualTo("google@example.com");
+        assertThat(jwksRequests.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testVerify_WhenAudienceMismatched_ThenThrowException() {
+        // given
+        String idToken = idToken("k1", keyPair, "https://accounts.google.com", "other-client-id");
+
+        // when & then
+        assertThatThrownBy(() -> verifier.verify(idToken, CLIENT_ID))
+                .isInstanceOf(IncorrectClaimException.class);
+    }
+
+    @Test
+    public void testVerify_WhenIssuerMismatched_ThenThrowException() {
+        // given
+        String idToken = idToken("k1", keyPair, "https://evil.example.com", CLIENT_ID);
+
+        // when & then
+        assertThatThrownBy(() -> verifier.verify(idToken, CLIENT_ID))
+                .isInstanceOf(UnsupportedJwtException.class);
+    }
+
+    @Test
+    public void testVerify_WhenSignedWithUnknownKey_ThenThrowException() throws Exception {
+        // given
+        verifier.verify(idToken("k1", keyPair, "accounts.google.com", CLIENT_ID), CLIENT_ID);
+        String idToken = idToken("k1", generateKeyPair(), "accounts.google.com", CLIENT_ID);
+
+        // when & then
+        assertThatThrownBy(() -> verifier.verify(idToken, CLIENT_ID))
+                .isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> verifier.verify(idToken("unknown", keyPair, "accounts.google.com", CLIENT_ID), CLIENT_ID))
+                .isInstanceOf(UnknownSigningKeyException.class);
+    }
+
+    @Test
+    public void testGet_WhenRotatedKidRequestedConcurrently_ThenFetchOnce() throws Exception {
+        // given
+        try (RemoteJwks remoteJwks = new RemoteJwks(uri("/certs"), Duration.ofHours(1), Duration.ZERO)) {
+            remoteJwks.get("k1");
+            KeyPair rotated = generateKeyPair();
+            jwks = jwks("k2", rotated);
+            jwksDelayMillis = 200;
+
+            // when
+            List<PublicKey> keys = getConcurrently(remoteJwks, "k2", 20);
+
+            // then
+            assertThat(keys).hasSize(20).allMatch(rotated.getPublic()::equals);
+            assertThat(jwksRequests.get()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void testGet_WhenUnknownKidRequestedConcurrently_ThenFetchOncePerInterval() throws Exception {
+        // given
+        try (RemoteJwks remoteJwks = new RemoteJwks(uri("/certs"), Duration.ofHours(1), Duration.ofMillis(300))) {
+            remoteJwks.get("k1");
+            Thread.sleep(400);
+            jwksDelayMillis = 200;
+
+            // when
+            List<PublicKey> keys = getConcurrently(remoteJwks, "unknown", 20);
+
+            // then
+            assertThat(keys).hasSize(20).containsOnlyNulls();
+            assertThat(jwksRequests.get()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void testVerify_WhenJwksUnavailable_ThenReturnNull() {
+        // given
+        server.removeContext("/certs");
+        String idToken = idToken("k1", keyPair, "https://accounts.google.com", CLIENT_ID);
+
+        // when
+        Claims claims = verifier.verify(idToken, CLIENT_ID);
+
+        // then
+        assertThat(claims).isNull();
+    }
+
+    @Test
+    public void testLoadUser_WhenGoogleIdTokenPresent_ThenSkipUserInfoRequest() {
+        // given
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findCurrentByUserId("googleUserId")).thenReturn(new User(
+                "googleUserId", "Google User", "google@example.com", "Y", "http://test.com/google.jpg",
+                ProviderType.GOOGLE, RoleType.USER, LocalDateTime.now(), LocalDateTime.now()));
+        CustomOAuth2UserService userService = userService(userRepository);
+        String idToken = idToken("k1", keyPair, "https://accounts.google.com", CLIENT_ID);
+
+        // when
+        OAuth2User user = userService.loadUser(userRequest(Map.of("id_token", idToken)));
+
+        // then
+        assertThat(user.getName()).isEqualTo("googleUserId");
+        assertThat(user.<String>getAttribute("picture")).isEqualTo("http://test.com/google.jpg");
+        assertThat(userInfoRequests.get()).isZero();
+    }
+
+    @Test
+    public void testLoadUser_WhenIdTokenInvalid_ThenThrowOAuth2AuthenticationException() {
+        // given
+        CustomOAuth2UserService userService = userService(mock(UserRepository.class));
+        String idToken = idToken("k1", keyPair, "https://accounts.google.com", "other-client-id");
+
+        // when & then
+        assertThatThrownBy(() -> userService.loadUser(userRequest(Map.of("id_token", idToken))))
+                .isInstanceOf(OAuth2AuthenticationException.class);
+        assertThat(userInfoRequests.get()).isZero();
+    }
+
+    @Test
+    public void testLoadUser_WhenIdTokenMissing_ThenRequestUserInfo() {
+        // given
+        CustomOAuth2UserService userService = userService(mock(UserRepository.class));
+
+        // when & then
+        assertThatThrownBy(() -> userService.loadUser(userRequest(Map.of())))
+                .isInstanceOf(OAuth2AuthenticationException.class);
+        assertThat(userInfoRequests.get()).isEqualTo(1);
+    }
+
+    private CustomOAuth2UserService userService(UserRepository userRepository) {
+        ProviderCallGuard providerCallGuard = new ProviderCallGuard(20, 5, Duration.ofSeconds(30));
+        return new CustomOAuth2UserService(userRepository, verifier, providerCallGuard, null, TransactionOperations.withoutTransaction());
+    }
+
+    private OAuth2UserRequest userRequest(Map<String, Object> additionalParameters) {
+        ClientRegistration clientRegistration = ClientRegistration.withRegistrationId("google")
+                .clientId(CLIENT_ID)
+                .clientSecret("secret")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+                .authorizationUri(uri("/authorize").toString())
+                .tokenUri(uri("/token").toString())
+                .userInfoUri(uri("/userinfo").toString())
+                .userNameAttributeName("sub")
+                .build();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access-token",
+                Instant.now(), Instant.now().plusSeconds(60));
+        return new OAuth2UserRequest(clientRegistration, accessToken, additionalParameters);
+    }
+
+    private static List<PublicKey> getConcurrently(RemoteJwks remoteJwks, String kid, int requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<PublicKey>> futures = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return remoteJwks.get(kid);
+                }));
+            }
+            start.countDown();
+
+            List<PublicKey> keys = new ArrayList<>();
+            for (Future<PublicKey> future : futures) {
+                keys.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return keys;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private static String idToken(String kid, KeyPair keyPair, String issuer, String audience) {
+        return Jwts.builder()
+                .setHeaderParam("kid", kid)
+                .setIssuer(issuer)
+                .setAudience(audience)
+                .setSubject("googleUserId")
+                .claim("name", "Google User")
+                .claim("email", "google@example.com")
+                .claim("picture", "http://test.com/google.jpg")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static String jwks(String kid, KeyPair keyPair) {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        return "{\"keys\":[{\"kty\":\"RSA\",\"use\":\"sig\",\"alg\":\"RS256\",\"kid\":\"" + kid + "\","
+                + "\"n\":\"" + encode(publicKey.getModulus()) + "\",\"e\":\"" + encode(publicKey.getPublicExponent()) + "\"}]}";
+    }
+
+    private static String encode(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,226 @@
+package com.jjukbbae.oauth.service;
+
+import com.jjukbbae.api.repository.user.UserRepository;
+import com.jjukbbae.oauth.client.ProviderHttpClients;
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ProviderCallGuardTest {
+
+    @Test
+    public void testCall_WhenBulkheadFull_ThenRejectWithProviderBusy() throws Exception {
+        // given
+        ProviderCallGuard guard = guard(1, 5);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<String> inFlight = executor.submit(() -> guard.call(ProviderType.KAKAO, () -> {
+            entered.countDown();
+            await(release);
+            return "ok";
+        }));
+        entered.await(5, TimeUnit.SECONDS);
+
+        // when & then
+        assertThatThrownBy(() -> guard.call(ProviderType.KAKAO, () -> "second"))
+                .isInstanceOf(OAuth2AuthenticationException.class)
+                .satisfies(e -> assertThat(((OAuth2AuthenticationException) e).getError().getErrorCode())
+                        .isEqualTo(ProviderCallGuard.PROVIDER_BUSY));
+        assertThat(guard.call(ProviderType.NAVER, () -> "other provider")).isEqualTo("other provider");
+
+        release.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testCall_WhenFailuresReachThreshold_ThenOpenCircuit() {
+        // given
+        ProviderCallGuard guard = guard(10, 2);
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> guard.call(ProviderType.KAKAO, () -> {
+                calls.incrementAndGet();
+                throw new ResourceAccessException("Read timed out");
+            })).isInstanceOf(ResourceAccessException.class);
+        }
+
+        // when & then
+        assertThatThrownBy(() -> guard.call(ProviderType.KAKAO, () -> calls.incrementAndGet()))
+                .isInstanceOf(OAuth2AuthenticationException.class)
+                .satisfies(e -> assertThat(((OAuth2AuthenticationException) e).getError().getErrorCode())
+                        .isEqualTo(ProviderCallGuard.PROVIDER_UNAVAILABLE));
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(guard.getState(ProviderType.KAKAO)).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(guard.getState(ProviderType.NAVER)).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void testCall_WhenClientError_ThenCircuitStaysClosed() {
+        // given
+        ProviderCallGuard guard = guard(10, 1);
+
+        // when
+        assertThatThrownBy(() -> guard.call(ProviderType.KAKAO, () -> {
+            throw new HttpClientErrorException(HttpStatus.UNAUTHORIZED);
+        })).isInstanceOf(HttpClientErrorException.class);
+
+        // then
+        assertThat(guard.getState(ProviderType.KAKAO)).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void testCircuitBreaker_WhenOpenDurationElapsed_ThenAllowSingleTrial() {
+        // given
+        AtomicLong now = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, Duration.ofSeconds(30), now::get);
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+        // when
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        circuitBreaker.onSuccess();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void testLoadUser_WhenProviderHangs_ThenOnlyBulkheadHoldsWorkers() throws Exception {
+        // given
+        int bulkhead = 2;
+        CountDownLatch providerEntered = new CountDownLatch(bulkhead);
+        CountDownLatch releaseProvider = new CountDownLatch(1);
+        AtomicInteger providerCalls = new AtomicInteger();
+        ExecutorService stubExecutor = Executors.newCachedThreadPool();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(stubExecutor);
+        server.createContext("/userinfo", exchange -> {
+            providerCalls.incrementAndGet();
+            providerEntered.countDown();
+            await(releaseProvider, 30);
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.start();
+
+        ProviderHttpClients providerHttpClients = new ProviderHttpClients(50, Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofSeconds(60),
+                uri -> ProviderType.KAKAO);
+        // worker 8개가 Tomcat 요청 thread 역할을 한다.
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        try {
+            ProviderCallGuard guard = new ProviderCallGuard(bulkhead, 100, Duration.ofSeconds(30));
+            CustomOAuth2UserService guarded = new CustomOAuth2UserService(mock(UserRepository.class), null, guard, providerHttpClients, TransactionOperations.withoutTransaction());
+            guarded.configureRestOperations();
+            OAuth2UserRequest userRequest = kakaoUserRequest(server.getAddress().getPort());
+
+            List<Future<?>> blockedLogins = new ArrayList<>();
+            for (int i = 0; i < bulkhead; i++) {
+                blockedLogins.add(workers.submit(() -> guarded.loadUser(userRequest)));
+            }
+            assertThat(providerEntered.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // when
+            List<Future<?>> extraLogins = new ArrayList<>();
+            for (int i = 0; i < 14; i++) {
+                extraLogins.add(workers.submit(() -> guarded.loadUser(userRequest)));
+            }
+            List<Future<String>> apiRequests = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                apiRequests.add(workers.submit(() -> "ok"));
+            }
+
+            // then
+            for (Future<?> login : extraLogins) {
+                assertThatThrownBy(() -> login.get(10, TimeUnit.SECONDS))
+                        .hasCauseInstanceOf(OAuth2AuthenticationException.class)
+                        .satisfies(e -> assertThat(((OAuth2AuthenticationException) e.getCause()).getError().getErrorCode())
+                                .isEqualTo(ProviderCallGuard.PROVIDER_BUSY));
+            }
+            for (Future<String> apiRequest : apiRequests) {
+                assertThat(apiRequest.get(10, TimeUnit.SECONDS)).isEqualTo("ok");
+            }
+            assertThat(blockedLogins).noneMatch(Future::isDone);
+            assertThat(providerCalls.get()).isEqualTo(bulkhead);
+
+            releaseProvider.countDown();
+            for (Future<?> login : blockedLogins) {
+                assertThatThrownBy(() -> login.get(10, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+            }
+        } finally {
+            releaseProvider.countDown();
+            workers.shutdownNow();
+            providerHttpClients.destroy();
+            server.stop(0);
+            stubExecutor.shutdownNow();
+        }
+    }
+
+    private static OAuth2UserRequest kakaoUserRequest(int port) {
+        ClientRegistration clientRegistration = ClientRegistration.withRegistrationId("kakao")
+                .clientId("kakao-client-id")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+                .authorizationUri("http://127.0.0.1:" + port + "/authorize")
+                .tokenUri("http://127.0.0.1:" + port + "/token")
+                .userInfoUri("http://127.0.0.1:" + port + "/userinfo")
+                .userNameAttributeName("id")
+                .build();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access-token",
+                Instant.now(), Instant.now().plusSeconds(60));
+        return new OAuth2UserRequest(clientRegistration, accessToken);
+    }
+
+    private static ProviderCallGuard guard(int maxConcurrentCalls, int failureThreshold) {
+        return new ProviderCallGuard(maxConcurrentCalls, failureThreshold, Duration.ofSeconds(30));
+    }
+
+    private static void await(CountDownLatch latch) {
+        await(latch, 5);
+    }
+
+    private static void await(CountDownLatch latch, long seconds) {
+        try {
+            latch.await(seconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
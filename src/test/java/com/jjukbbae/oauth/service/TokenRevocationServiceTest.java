@@ -0,0 +1,178 @@
+package com.jjukbbae.oauth.service;
+
+import com.jjukbbae.api.entity.auth.RevokedToken;
+import com.jjukbbae.api.entity.auth.UserTokenEpoch;
+import com.jjukbbae.api.repository.auth.RevokedTokenRepository;
+import com.jjukbbae.api.repository.auth.UserTokenEpochRepository;
+import com.jjukbbae.config.properties.AppProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class TokenRevocationServiceTest {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserTokenEpochRepository userTokenEpochRepository;
+
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    public void setUp() {
+        revokedTokenRepository.deleteAll();
+        userTokenEpochRepository.deleteAll();
+        tokenRevocationService = newService();
+    }
+
+    @Test
+    public void testIsRevoked_WhenJtiRevoked_ThenTrue() {
+        // given
+        Claims revoked = claims("testUser", new Date());
+        Claims other = claims("testUser", new Date());
+
+        // when
+        tokenRevocationService.revoke(revoked);
+
+        // then
+        assertThat(tokenRevocationService.isRevoked(revoked)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(other)).isFalse();
+        assertThat(revokedTokenRepository.existsById(revoked.getId())).isTrue();
+    }
+
+    @Test
+    public void testIsRevoked_WhenUserEpochRaised_ThenOlderTokensRevoked() {
+        // given
+        Claims older = claims("testUser", new Date(System.currentTimeMillis() - 60_000));
+        Claims otherUser = claims("otherUser", new Date(System.currentTimeMillis() - 60_000));
+
+        // when
+        tokenRevocationService.revokeAll("testUser");
+
+        // then
+        assertThat(tokenRevocationService.isRevoked(older)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(otherUser)).isFalse();
+        assertThat(tokenRevocationService.isRevoked(claims("testUser", new Date(System.currentTimeMillis() + 2_000)))).isFalse();
+    }
+
+    @Test
+    public void testIsRevoked_WhenIssuedInSameSecondAsRevokeAll_ThenOnlyEarlierTokenRevoked() {
+        // given
+        Claims before = claims("testUser", new Date(System.currentTimeMillis() - 1));
+
+        // when
+        tokenRevocationService.revokeAll("testUser");
+        Claims after = claims("testUser", new Date());
+
+        // then
+        assertThat(tokenRevocationService.isRevoked(before)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(after)).isFalse();
+    }
+
+    @Test
+    public void testPurgeExpired_WhenRowsExpired_ThenDeleteRowsAndKeepLiveRevocations() {
+        // given
+        Claims revoked = claims("testUser", new Date());
+        tokenRevocationService.revoke(revoked);
+        revokedTokenRepository.save(new RevokedToken("expired-jti", "testUser", LocalDateTime.now().minusMinutes(1)));
+
+        // when
+        int purged = tokenRevocationService.purgeExpired();
+
+        // then
+        assertThat(purged).isEqualTo(1);
+        assertThat(revokedTokenRepository.existsById("expired-jti")).isFalse();
+        assertThat(tokenRevocationService.isRevoked(revoked)).isTrue();
+    }
+
+    @Test
+    public void testRebuild_WhenRestarted_ThenRevocationsRestoredAndExpiredPurged() {
+        // given
+        Claims revoked = claims("testUser", new Date());
+        tokenRevocationService.revoke(revoked);
+        tokenRevocationService.revokeAll("epochUser");
+        revokedTokenRepository.save(new RevokedToken("expired-jti", "testUser", LocalDateTime.now().minusMinutes(1)));
+
+        // when
+        TokenRevocationService restarted = newService();
+
+        // then
+        assertThat(restarted.isRevoked(revoked)).isTrue();
+        assertThat(restarted.isRevoked(claims("epochUser", new Date(System.currentTimeMillis() - 60_000)))).isTrue();
+        assertThat(revokedTokenRepository.existsById("expired-jti")).isFalse();
+    }
+
+    @Test
+    public void testRefreshEpochs_WhenRevokedOnOtherInstance_ThenLoadNewEpochs() {
+        // given
+        TokenRevocationService other = newService();
+        Claims older = claims("testUser", new Date(System.currentTimeMillis() - 60_000));
+        other.revokeAll("testUser");
+        assertThat(tokenRevocationService.isRevoked(older)).isFalse();
+
+        // when
+        int loaded = tokenRevocationService.refreshEpochs();
+
+        // then
+        assertThat(loaded).isEqualTo(1);
+        assertThat(tokenRevocationService.isRevoked(older)).isTrue();
+    }
+
+    @Test
+    public void testRefreshEpochs_WhenEpochOlderThanTokenExpiry_ThenDropEpoch() throws InterruptedException {
+        // given
+        TokenRevocationService service = newService(1_000);
+        long revokedBefore = System.currentTimeMillis() - 500;
+        userTokenEpochRepository.save(new UserTokenEpoch("testUser", revokedBefore));
+        Claims older = claims("testUser", new Date(revokedBefore - 100));
+        service.refreshEpochs();
+        assertThat(service.isRevoked(older)).isTrue();
+        Thread.sleep(600);
+
+        // when
+        service.refreshEpochs();
+        int purged = service.purgeExpired();
+
+        // then
+        assertThat(service.isRevoked(older)).isFalse();
+        assertThat(purged).isEqualTo(1);
+        assertThat(userTokenEpochRepository.existsById("testUser")).isFalse();
+    }
+
+    private TokenRevocationService newService() {
+        return newService(60_000);
+    }
+
+    private TokenRevocationService newService(long tokenExpiry) {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getAuth().setTokenExpiry(tokenExpiry);
+        TokenRevocationService service = new TokenRevocationService(revokedTokenRepository, userTokenEpochRepository, 1_000, 0.01,
+                Duration.ofHours(1), Duration.ofSeconds(5), appProperties);
+        service.rebuild();
+        return service;
+    }
+
+    private static Claims claims(String subject, Date issuedAt) {
+        Claims claims = Jwts.claims();
+        claims.setId(UUID.randomUUID().toString());
+        claims.setSubject(subject);
+        claims.put(Claims.ISSUED_AT, BigDecimal.valueOf(issuedAt.getTime(), 3));
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        return claims;
+    }
+}
@@ -0,0 +1,310 @@
+package com.jjukbbae.oauth.service;
+
+import com.jjukbbae.api.repository.user.UserRepository;
+import com.jjukbbae.oauth.client.ProviderHttpClients;
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 느린 provider 와 H2 위의 실제 UserRepository 로 같은 로그인 부하를 Tomcat 기본값과 같은 200개의
+ * platform thread pool 과 virtual thread 에서 실행해 처리량과 p99 를 로그로 남긴다. Kakao 로그인은 userinfo (50ms) 를 호출하고,
+ * Google 로그인은 RemoteJwks 로 받아 둔 JWKS 로 id_token 을 검증한다. 로그인을 한꺼번에 넣으므로 p99 는 대기 시간을 포함한다.
+ * 수치는 CPU 수에 크게 좌우되므로 (CPU 가 하나면 두 방식이 비슷하다)
+ * 검증은 virtual thread 쪽에서 carrier pinning (JFR jdk.VirtualThreadPinned) 이 없다는 것만 한다.
+ * 기본 test task 에서는 제외되며 ./gradlew virtualThreadLoadTest -PjavaVersion=21 로 실행한다.
+ */
+@Tag("load")
+// show-sql 은 System.out 에 쓰고 Gradle 의 출력 전달이 synchronized 라 virtual thread 를 붙잡으므로 끈다.
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Import({CustomOAuth2UserService.class, ProviderCallGuard.class, VirtualThreadLoginLoadTest.StubProviderConfig.class})
+@TestPropertySource(properties = {
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "app.user-cache.maximum-size=10000",
+        "app.oauth2.provider.max-concurrent-calls=" + VirtualThreadLoginLoadTest.LOGINS
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VirtualThreadLoginLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadLoginLoadTest.class);
+
+    static final int LOGINS = 2_000;
+    private static final int USERS = 200;
+    private static final int PLATFORM_THREADS = 200;
+    private static final long PROVIDER_LATENCY_MILLIS = 50;
+    private static final int PROVIDER_CONNECTIONS = 100;
+    private static final String CLIENT_ID = "google-client-id";
+
+    @Autowired
+    private CustomOAuth2UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StubProvider stubProvider;
+
+    @Test
+    public void testLoadUser_WhenRunOnVirtualThreads_ThenBlockingCallsDoNotPinCarrier() throws Exception {
+        // given
+        // 사용자 생성 (insert + 잠금 조회) 과 JIT warm-up 을 먼저 끝내 두면 두 실행 모두 쓰기 없는 재로그인 (USERS 조회 한 번) 이 된다.
+        run(Executors.newFixedThreadPool(PLATFORM_THREADS), USERS);
+        assertThat(userRepository.count()).isEqualTo(USERS);
+
+        Path jfr = Files.createTempFile("virtual-thread-pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            // when
+            Result platform = run(Executors.newFixedThreadPool(PLATFORM_THREADS), LOGINS);
+
+            recording.enable("jdk.VirtualThreadPinned").withStackTrace();
+            recording.start();
+            Result virtual = run(newVirtualThreadPerTaskExecutor(), LOGINS);
+            recording.stop();
+            recording.dump(jfr);
+
+            // then
+            List<RecordedEvent> pinned = RecordingFile.readAllEvents(jfr).stream()
+                    .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                    .toList();
+            log.info("Login load. logins := [{}], users := [{}], platform({}) := [{}], virtual := [{}], pinned := [{}]",
+                    LOGINS, USERS, PLATFORM_THREADS, platform, virtual, pinned.size());
+            pinned.forEach(event -> log.info("Pinned virtual thread. stack := [{}]", event.getStackTrace()));
+            assertThat(pinned).isEmpty();
+            assertThat(userRepository.count()).isEqualTo(USERS);
+        } finally {
+            Files.deleteIfExists(jfr);
+        }
+    }
+
+    private Result run(ExecutorService executor, int logins) throws Exception {
+        try {
+            // 요청 (mock) 은 미리 만들어 두어 측정에 넣지 않는다.
+            List<OAuth2UserRequest> userRequests = new ArrayList<>(logins);
+            for (int i = 0; i < logins; i++) {
+                userRequests.add(userRequest(i % USERS));
+            }
+
+            long startedAt = System.nanoTime();
+            List<Future<Long>> futures = new ArrayList<>(logins);
+            for (OAuth2UserRequest userRequest : userRequests) {
+                long submittedAt = System.nanoTime();
+                futures.add(executor.submit(() -> {
+                    userService.loadUser(userRequest);
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submittedAt);
+                }));
+            }
+
+            List<Long> latencies = new ArrayList<>(logins);
+            for (Future<Long> future : futures) {
+                latencies.add(future.get(60, TimeUnit.SECONDS));
+            }
+            long elapsedNanos = System.nanoTime() - startedAt;
+
+            Collections.sort(latencies);
+            long p99 = latencies.get((int) Math.ceil(0.99 * latencies.size()) - 1);
+            return new Result(logins * 1_000_000_000.0 / elapsedNanos, p99);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 짝수 사용자는 Kakao (userinfo 호출), 홀수 사용자는 Google (id_token 로컬 검증) 로 로그인한다.
+     */
+    private OAuth2UserRequest userRequest(int user) {
+        return user % 2 == 0 ? stubProvider.kakaoUserRequest(user) : stubProvider.googleUserRequest(user);
+    }
+
+    /**
+     * Java 17 로도 컴파일되도록 reflection 으로 부른다.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() throws ReflectiveOperationException {
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+
+    private record Result(double throughput, long p99Millis) {
+
+        @Override
+        public String toString() {
+            return String.format("%.0f logins/s, p99 %dms", throughput, p99Millis);
+        }
+    }
+
+    @TestConfiguration
+    static class StubProviderConfig {
+
+        @Bean(destroyMethod = "close")
+        StubProvider stubProvider() throws Exception {
+            return new StubProvider();
+        }
+
+        @Bean
+        GoogleIdTokenVerifier googleIdTokenVerifier(StubProvider stubProvider) {
+            return new GoogleIdTokenVerifier(stubProvider.uri("/certs"), Duration.ofHours(1));
+        }
+
+        // JDK HttpServer 는 idle 연결을 200개 (sun.net.httpserver.maxIdleConnections) 까지만 두고 닫으므로 pool 을 그보다 작게 둔다.
+        // 모든 로그인을 한꺼번에 넣으므로 연결을 기다리는 시간 (connect timeout 과 같다) 은 넉넉히 둔다.
+        @Bean
+        ProviderHttpClients providerHttpClients() {
+            return new ProviderHttpClients(PROVIDER_CONNECTIONS, Duration.ofSeconds(60), Duration.ofSeconds(5), Duration.ofSeconds(60),
+                    uri -> ProviderType.KAKAO);
+        }
+    }
+
+    /**
+     * Kakao userinfo 와 Google JWKS 를 흉내 내는 로컬 서버. userinfo 는 access token 의 사용자 번호로 응답한다.
+     */
+    static class StubProvider implements AutoCloseable {
+
+        private static final String KAKAO_TOKEN_PREFIX = "Bearer kakao-";
+
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final HttpServer server;
+        private final KeyPair keyPair;
+
+        StubProvider() throws Exception {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            keyPair = generator.generateKeyPair();
+
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), LOGINS);
+            server.setExecutor(executor);
+            server.createContext("/certs", exchange -> respond(exchange, jwks()));
+            server.createContext("/userinfo", exchange -> {
+                sleep(PROVIDER_LATENCY_MILLIS);
+                String user = exchange.getRequestHeaders().getFirst("Authorization").substring(KAKAO_TOKEN_PREFIX.length());
+                respond(exchange, "{\"id\":" + user + ",\"account_email\":\"kakao-" + user + "@example.com\",\"properties\":{\"nickname\":\"Kakao User " + user + "\","
+                        + "\"thumbnail_image\":\"http://test.com/kakao/" + user + ".jpg\"}}");
+            });
+            server.start();
+        }
+
+        OAuth2UserRequest kakaoUserRequest(int user) {
+            return new OAuth2UserRequest(registration("kakao", "id"), accessToken("kakao-" + user));
+        }
+
+        OAuth2UserRequest googleUserRequest(int user) {
+            String idToken = Jwts.builder()
+                    .setHeaderParam("kid", "k1")
+                    .setIssuer("https://accounts.google.com")
+                    .setAudience(CLIENT_ID)
+                    .setSubject("google-" + user)
+                    .claim("name", "Google User " + user)
+                    .claim("email", "google-" + user + "@example.com")
+                    .claim("picture", "http://test.com/google/" + user + ".jpg")
+                    .setIssuedAt(new Date())
+                    .setExpiration(new Date(System.currentTimeMillis() + 600_000))
+                    .signWith(keyPair.getPrivate(), SignatureAlgorithm.RS256)
+                    .compact();
+            return new OAuth2UserRequest(registration("google", "sub"), accessToken("google-" + user), Map.of("id_token", idToken));
+        }
+
+        URI uri(String path) {
+            return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+
+        private ClientRegistration registration(String registrationId, String userNameAttribute) {
+            return ClientRegistration.withRegistrationId(registrationId)
+                    .clientId(CLIENT_ID)
+                    .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                    .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+                    .authorizationUri(uri("/authorize").toString())
+                    .tokenUri(uri("/token").toString())
+                    .userInfoUri(uri("/userinfo").toString())
+                    .userNameAttributeName(userNameAttribute)
+                    .build();
+        }
+
+        private static OAuth2AccessToken accessToken(String value) {
+            return new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, value, Instant.now(), Instant.now().plusSeconds(600));
+        }
+
+        private String jwks() {
+            RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+            return "{\"keys\":[{\"kty\":\"RSA\",\"use\":\"sig\",\"alg\":\"RS256\",\"kid\":\"k1\","
+                    + "\"n\":\"" + encode(publicKey.getModulus()) + "\",\"e\":\"" + encode(publicKey.getPublicExponent()) + "\"}]}";
+        }
+
+        private static String encode(BigInteger value) {
+            byte[] bytes = value.toByteArray();
+            if (bytes[0] == 0) {
+                bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        }
+
+        private static void respond(HttpExchange exchange, String json) throws IOException {
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+
+        private static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
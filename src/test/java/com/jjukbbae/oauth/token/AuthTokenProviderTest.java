@@ -1,13 +1,24 @@
 package com.jjukbbae.oauth.token;
 
+import com.jjukbbae.oauth.entity.ProviderType;
+import com.jjukbbae.oauth.entity.RoleType;
+import com.jjukbbae.oauth.entity.TokenPrincipal;
 import com.jjukbbae.oauth.exception.TokenValidFailedException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.Authentication;
 
 import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -38,6 +49,20 @@ class AuthTokenProviderTest {
         assertThat(authToken.getToken()).isNotNull();
     }
 
+    @Test
+    public void testCreateAuthToken_WhenIssued_ThenIssuedAtHasMillisecondPrecision() {
+        // given
+        long before = System.currentTimeMillis();
+
+        // when
+        AuthToken authToken = authTokenProvider.createAuthToken("testUser", new Date(before + 60_000));
+
+        // then
+        Object issuedAt = authToken.getTokenClaims().get("iat");
+        assertThat(issuedAt).isInstanceOf(Number.class);
+        assertThat(Math.round(((Number) issuedAt).doubleValue() * 1000)).isBetween(before, System.currentTimeMillis());
+    }
+
     @Test
     public void testConvertAuthToken() {
         // given
@@ -70,6 +95,39 @@ class AuthTokenProviderTest {
         assertThat(authentication.getName()).isEqualTo(userId);
         assertThat(authentication.getAuthorities())
                 .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals(role));
+        assertThat(authentication.getPrincipal()).isEqualTo(new TokenPrincipal(userId));
+    }
+
+    @Test
+    public void testGetAuthentication_WhenTokenHasProfileClaims_ThenPrincipalCarriesThem() {
+        // given
+        ProfileClaims profileClaims = new ProfileClaims(7L, "Test User", "http://test.com/profile.jpg",
+                ProviderType.KAKAO, RoleType.USER, 1_700_000_000_123L);
+        Date expiry = new Date(System.currentTimeMillis() + 1000 * 60 * 10); // 10분 후 만료
+        AuthToken authToken = authTokenProvider.createAuthToken("testUser", profileClaims, expiry);
+
+        // when
+        Authentication authentication = authTokenProvider.getAuthentication(authToken);
+        Authentication withoutProfile = authTokenProvider.getAuthentication(
+                authTokenProvider.createAuthToken("testUser", RoleType.USER.getCode(), expiry));
+
+        // then
+        TokenPrincipal principal = (TokenPrincipal) authentication.getPrincipal();
+        assertThat(principal.getProfileClaims()).isEqualTo(profileClaims);
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly(RoleType.USER.getCode());
+        assertThat(((TokenPrincipal) withoutProfile.getPrincipal()).getProfileClaims()).isNull();
+        assertThat(withoutProfile.getPrincipal()).isEqualTo(principal);
+    }
+
+    @Test
+    public void testGetAuthentication_WhenTokenHasNoRole_ThenThrowTokenValidFailedException() {
+        // given
+        Date expiry = new Date(System.currentTimeMillis() + 1000 * 60 * 10); // 10분 후 만료
+        AuthToken authToken = authTokenProvider.createAuthToken("testUser", expiry);
+
+        // when & then
+        assertThatThrownBy(() -> authTokenProvider.getAuthentication(authToken))
+                .isInstanceOf(TokenValidFailedException.class);
     }
 
     @Test
@@ -82,4 +140,199 @@ class AuthTokenProviderTest {
         assertThatThrownBy(() -> authTokenProvider.getAuthentication(authToken))
                 .isInstanceOf(TokenValidFailedException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testVerify_WhenCalledTwice_ThenReturnCachedClaims() {
+        // given
+        Date expiry = new Date(System.currentTimeMillis() + 1000 * 60 * 10); // 10분 후 만료
+        AuthToken authToken = authTokenProvider.createAuthToken("testUser", "ROLE_USER", expiry);
+        AuthToken sameToken = authTokenProvider.convertAuthToken(authToken.getToken());
+
+        // when
+        TokenVerification first = authTokenProvider.verify(authToken);
+        TokenVerification second = authTokenProvider.verify(sameToken);
+
+        // then
+        assertThat(first.isValid()).isTrue();
+        assertThat(second.isValid()).isTrue();
+        assertThat(second.getClaims()).isSameAs(first.getClaims());
+    }
+
+    @Test
+    public void testVerify_WhenTokenMissing_ThenReturnMissing() {
+        // given
+        AuthToken authToken = authTokenProvider.convertAuthToken(null);
+
+        // when
+        TokenVerification verification = authTokenProvider.verify(authToken);
+
+        // then
+        assertThat(verification.isValid()).isFalse();
+        assertThat(verification.getFailureReason()).isEqualTo(TokenFailureReason.MISSING);
+    }
+
+    @Test
+    public void testVerify_WhenSignedWithOtherKey_ThenReturnInvalidSignature() {
+        // given
+        AuthTokenProvider otherProvider = new AuthTokenProvider("othersecretkeyothersecretkeyothersecretkey");
+        Date expiry = new Date(System.currentTimeMillis() + 1000 * 60 * 10); // 10분 후 만료
+        String foreignToken = otherProvider.createAuthToken("testUser", "ROLE_USER", expiry).getToken();
+
+        // when
+        TokenVerification verification = authTokenProvider.verify(authTokenProvider.convertAuthToken(foreignToken));
+
+        // then
+        assertThat(verification.isValid()).isFalse();
+        assertThat(verification.getFailureReason()).isEqualTo(TokenFailureReason.INVALID_SIGNATURE);
+    }
+
+    @Test
+    public void testVerify_WhenRejected_ThenCountFailureReason() {
+        // given
+        Date expired = new Date(System.currentTimeMillis() - 1000); // 이미 만료된 토큰
+        AuthToken expiredToken = authTokenProvider.createAuthToken("testUser", "ROLE_USER", expired);
+        AuthToken malformedToken = authTokenProvider.convertAuthToken("invalidTokenString");
+
+        // when
+        authTokenProvider.verify(expiredToken);
+        authTokenProvider.verify(malformedToken);
+        authTokenProvider.verify(malformedToken);
+
+        // then
+        TokenFailureCounter failureCounter = authTokenProvider.getFailureCounter();
+        assertThat(failureCounter.count(TokenFailureReason.EXPIRED)).isEqualTo(1);
+        assertThat(failureCounter.count(TokenFailureReason.MALFORMED)).isEqualTo(2);
+        assertThat(failureCounter.count(TokenFailureReason.INVALID_SIGNATURE)).isZero();
+    }
+
+    @Test
+    public void testVerify_WhenRefreshTokenUsedAsAccessToken_ThenReturnWrongType() {
+        // given
+        Date expiry = new Date(System.currentTimeMillis() + 1000 * 60 * 10); // 10분 후 만료
+        AuthToken refreshToken = authTokenProvider.createRefreshToken("testUser", "family-1", expiry);
+
+        // when
+        TokenVerification verification = authTokenProvider.verify(refreshToken);
+
+        // then
+        assertThat(verification.isValid()).isFalse();
+        assertThat(verification.getFailureReason()).isEqualTo(TokenFailureReason.WRONG_TYPE);
+        assertThatThrownBy(() -> authTokenProvider.getAuthentication(refreshToken))
+                .isInstanceOf(TokenValidFailedException.class);
+    }
+
+    @Test
+    public void testVerifyRefreshToken_WhenRefreshToken_ThenBypassClaimsCacheAndFailureCounter() {
+        // given
+        VerifiedClaimsCache claimsCache = new VerifiedClaimsCache(100);
+        AuthTokenProvider provider = new AuthTokenProvider(SECRET_KEY, claimsCache);
+        Date expiry = new Date(System.currentTimeMillis() + 1000 * 60 * 10); // 10분 후 만료
+        AuthToken refreshToken = provider.createRefreshToken("testUser", "family-1", expiry);
+        AuthToken accessToken = provider.createAuthToken("testUser", "ROLE_USER", expiry);
+        AuthToken expiredRefreshToken = provider.createRefreshToken("testUser", "family-1", new Date(System.currentTimeMillis() - 1000));
+
+        // when
+        TokenVerification valid = provider.verifyRefreshToken(refreshToken);
+        TokenVerification wrongType = provider.verifyRefreshToken(accessToken);
+        TokenVerification expired = provider.verifyRefreshToken(expiredRefreshToken);
+
+        // then
+        assertThat(valid.isValid()).isTrue();
+        assertThat(valid.getClaims().get(AuthTokenProvider.FAMILY_KEY)).isEqualTo("family-1");
+        assertThat(wrongType.getFailureReason()).isEqualTo(TokenFailureReason.WRONG_TYPE);
+        assertThat(expired.getFailureReason()).isEqualTo(TokenFailureReason.EXPIRED);
+        assertThat(claimsCache.size()).isZero();
+        assertThat(provider.getFailureCounter().count(TokenFailureReason.EXPIRED)).isZero();
+        assertThat(provider.getFailureCounter().count(TokenFailureReason.WRONG_TYPE)).isZero();
+    }
+
+    @Test
+    public void testVerify_WhenSignedWithEs256_ThenVerifyWithPublicKeyOnly() throws Exception {
+        // given
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+        AuthTokenProvider issuer = new AuthTokenProvider(
+                new TokenKeyRing(SigningKeys.of(SigningKey.of("ec-1", keyPair))), new VerifiedClaimsCache(100));
+        // 검증 측은 public key 만 가진다.
+        SigningKey publicOnly = new SigningKey("ec-1", SignatureAlgorithm.ES256, null, keyPair.getPublic());
+        AuthTokenProvider verifier = new AuthTokenProvider(
+                new TokenKeyRing(SigningKeys.of(publicOnly)), new VerifiedClaimsCache(100));
+        Date expiry = new Date(System.currentTimeMillis() + 1000 * 60 * 10); // 10분 후 만료
+
+        // when
+        AuthToken authToken = issuer.createAuthToken("testUser", "ROLE_USER", expiry);
+        TokenVerification verification = verifier.verify(verifier.convertAuthToken(authToken.getToken()));
+
+        // then
+        assertThat(verification.isValid()).isTrue();
+        assertThat(verification.getClaims().getSubject()).isEqualTo("testUser");
+    }
+
+    @Test
+    public void testGetSigningKeys_WhenEcAndHmacKeys_ThenJwksContainsOnlyEcPublicKey() throws Exception {
+        // given
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        SigningKey ecKey = SigningKey.of("ec-1", generator.generateKeyPair());
+        SigningKey hmacKey = new SigningKey("hs-1", key);
+        AuthTokenProvider provider = new AuthTokenProvider(
+                new TokenKeyRing(SigningKeys.of("ec-1", List.of(ecKey, hmacKey), null)), new VerifiedClaimsCache(100));
+
+        // when
+        JsonNode jwks = new ObjectMapper().readTree(provider.getSigningKeys().getJwks());
+
+        // then
+        assertThat(jwks.get("keys")).hasSize(1);
+        JsonNode jwk = jwks.get("keys").get(0);
+        assertThat(jwk.get("kid").asText()).isEqualTo("ec-1");
+        assertThat(jwk.get("kty").asText()).isEqualTo("EC");
+        assertThat(jwk.get("crv").asText()).isEqualTo("P-256");
+        assertThat(jwk.get("alg").asText()).isEqualTo("ES256");
+        assertThat(Base64.getUrlDecoder().decode(jwk.get("x").asText())).hasSize(32);
+        assertThat(jwk.has("k")).isFalse();
+        assertThat(provider.getSigningKeys().getJwksETag()).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    public void testVerify_WhenRevokedAfterCached_ThenReturnRevoked() {
+        // given
+        Date expiry = new Date(System.currentTimeMillis() + 1000 * 60 * 10); // 10분 후 만료
+        AuthToken authToken = authTokenProvider.createAuthToken("testUser", "ROLE_USER", expiry);
+        assertThat(authTokenProvider.verify(authToken).isValid()).isTrue();
+        String jti = authToken.getTokenClaims().getId();
+
+        // when
+        authTokenProvider.setRevocationChecker(claims -> jti.equals(claims.getId()));
+        TokenVerification verification = authTokenProvider.verify(authToken);
+
+        // then
+        assertThat(verification.isValid()).isFalse();
+        assertThat(verification.getFailureReason()).isEqualTo(TokenFailureReason.REVOKED);
+        assertThat(authTokenProvider.getFailureCounter().count(TokenFailureReason.REVOKED)).isEqualTo(1);
+    }
+
+    @Test
+    public void testCreateAuthToken_WhenLongSecret_ThenSignWithConfiguredAlgorithm() {
+        // given
+        String longSecret = SECRET_KEY + SECRET_KEY;
+        Date expiry = new Date(System.currentTimeMillis() + 1000 * 60 * 10); // 10분 후 만료
+
+        // when
+        AuthToken defaultToken = new AuthTokenProvider(longSecret).createAuthToken("testUser", expiry);
+        AuthToken hs512Token = new AuthTokenProvider(longSecret, SignatureAlgorithm.HS512, new VerifiedClaimsCache(100))
+                .createAuthToken("testUser", expiry);
+
+        // then
+        assertThat(header(defaultToken).get("alg").asText()).isEqualTo("HS256");
+        assertThat(header(hs512Token).get("alg").asText()).isEqualTo("HS512");
+    }
+
+    private static JsonNode header(AuthToken authToken) {
+        try {
+            return new ObjectMapper().readTree(Base64.getUrlDecoder().decode(authToken.getToken().split("\\.")[0]));
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -111,4 +111,31 @@ class AuthTokenTest {
         assertThat(claims).isNotNull();
         assertThat(claims.getSubject()).isEqualTo(userId);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetExpiredTokenClaims_WhenNotExpired_ThenReturnNull() {
+        // given
+        Date expiry = new Date(System.currentTimeMillis() + 1000 * 60 * 10); // 10분 후 만료
+        AuthToken authToken = new AuthToken("testUser", expiry, key);
+
+        // when
+        Claims claims = authToken.getExpiredTokenClaims();
+
+        // then
+        assertThat(claims).isNull();
+    }
+
+    @Test
+    public void testGetExpiredTokenClaims_WhenSignedWithOtherKey_ThenReturnNull() {
+        // given
+        Key otherKey = Keys.hmacShaKeyFor("othersecretkeyothersecretkeyothersecretkey".getBytes());
+        Date expiry = new Date(System.currentTimeMillis() - 1000); // 이미 만료된 토큰
+        String foreignToken = new AuthToken("testUser", expiry, otherKey).getToken();
+
+        // when
+        Claims claims = new AuthToken(foreignToken, key).getExpiredTokenClaims();
+
+        // then
+        assertThat(claims).isNull();
+    }
+}
@@ -0,0 +1,141 @@
+package com.jjukbbae.oauth.token;
+
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyStore;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenKeyStoreTest {
+
+    private static final String PASSWORD = "changeit";
+    private static final String LEGACY_SECRET = "mysecretkeymysecretkeymysecretkeymysecretkey";
+
+    @TempDir
+    Path tempDir;
+
+    private static void writeKeyStore(Path path, String... kids) throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, PASSWORD.toCharArray());
+        for (String kid : kids) {
+            byte[] secret = (kid + "-secret-" + kid + "-secret-" + kid + "-secret").getBytes();
+            keyStore.setEntry(kid,
+                    new KeyStore.SecretKeyEntry(new SecretKeySpec(secret, "HmacSHA256")),
+                    new KeyStore.PasswordProtection(PASSWORD.toCharArray()));
+        }
+        try (OutputStream out = Files.newOutputStream(path)) {
+            keyStore.store(out, PASSWORD.toCharArray());
+        }
+        // 같은 시각에 두 번 쓰더라도 변경을 감지할 수 있도록 수정 시각을 옮긴다.
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().plusSeconds(kids.length)));
+    }
+
+    private static Date tenMinutesLater() {
+        return new Date(System.currentTimeMillis() + 1000 * 60 * 10);
+    }
+
+    @Test
+    public void testLoad_ThenSignWithGreatestKid() throws Exception {
+        // given
+        Path path = tempDir.resolve("jwt.p12");
+        writeKeyStore(path, "2024-01", "2024-07");
+        TokenKeyStore keyStore = new TokenKeyStore(path, PASSWORD, null);
+
+        // when
+        SigningKeys signingKeys = keyStore.load();
+
+        // then
+        assertThat(signingKeys.getActive().getKid()).isEqualTo("2024-07");
+        assertThat(signingKeys.find("2024-01")).isNotNull();
+        assertThat(signingKeys.find("unknown")).isNull();
+        assertThat(signingKeys.find(null)).isNull();
+    }
+
+    @Test
+    public void testReloadIfChanged_WhenKeyAdded_ThenKeepVerifyingOldTokens() throws Exception {
+        // given
+        Path path = tempDir.resolve("jwt.p12");
+        writeKeyStore(path, "2024-01");
+        TokenKeyStore keyStore = new TokenKeyStore(path, PASSWORD, null);
+        AuthTokenProvider tokenProvider = new AuthTokenProvider(new TokenKeyRing(keyStore.load()), new VerifiedClaimsCache(100));
+        String oldToken = tokenProvider.createAuthToken("testUser", "ROLE_USER", tenMinutesLater()).getToken();
+
+        // when
+        writeKeyStore(path, "2024-01", "2024-07");
+        boolean reloaded = keyStore.reloadIfChanged(tokenProvider);
+        String newToken = tokenProvider.createAuthToken("testUser", "ROLE_USER", tenMinutesLater()).getToken();
+
+        // then
+        assertThat(reloaded).isTrue();
+        assertThat(keyStore.reloadIfChanged(tokenProvider)).isFalse();
+        assertThat(tokenProvider.verify(tokenProvider.convertAuthToken(oldToken)).isValid()).isTrue();
+        assertThat(tokenProvider.verify(tokenProvider.convertAuthToken(newToken)).isValid()).isTrue();
+        assertThat(newToken).isNotEqualTo(oldToken);
+    }
+
+    @Test
+    public void testReloadIfChanged_WhenKeyRemoved_ThenRejectItsTokens() throws Exception {
+        // given
+        Path path = tempDir.resolve("jwt.p12");
+        writeKeyStore(path, "2024-01");
+        TokenKeyStore keyStore = new TokenKeyStore(path, PASSWORD, null);
+        AuthTokenProvider tokenProvider = new AuthTokenProvider(new TokenKeyRing(keyStore.load()), new VerifiedClaimsCache(100));
+        AuthToken oldToken = tokenProvider.createAuthToken("testUser", "ROLE_USER", tenMinutesLater());
+        assertThat(tokenProvider.verify(oldToken).isValid()).isTrue();
+
+        // when
+        writeKeyStore(path, "2024-07");
+        keyStore.reloadIfChanged(tokenProvider);
+        TokenVerification verification = tokenProvider.verify(tokenProvider.convertAuthToken(oldToken.getToken()));
+
+        // then
+        assertThat(verification.isValid()).isFalse();
+        assertThat(verification.getFailureReason()).isEqualTo(TokenFailureReason.UNKNOWN_KEY);
+    }
+
+    @Test
+    public void testReloadIfChanged_WhenFileBroken_ThenKeepCurrentKeys() throws Exception {
+        // given
+        Path path = tempDir.resolve("jwt.p12");
+        writeKeyStore(path, "2024-01");
+        TokenKeyStore keyStore = new TokenKeyStore(path, PASSWORD, null);
+        AuthTokenProvider tokenProvider = new AuthTokenProvider(new TokenKeyRing(keyStore.load()), new VerifiedClaimsCache(100));
+
+        // when
+        Files.write(path, new byte[]{1, 2, 3});
+        boolean reloaded = keyStore.reloadIfChanged(tokenProvider);
+        AuthToken token = tokenProvider.createAuthToken("testUser", "ROLE_USER", tenMinutesLater());
+
+        // then
+        assertThat(reloaded).isFalse();
+        assertThat(tokenProvider.verify(token).isValid()).isTrue();
+    }
+
+    @Test
+    public void testLoad_WhenLegacyKeyGiven_ThenVerifyTokensWithoutKid() throws Exception {
+        // given
+        Path path = tempDir.resolve("jwt.p12");
+        writeKeyStore(path, "2024-01");
+        SigningKey legacy = new SigningKey(null, Keys.hmacShaKeyFor(LEGACY_SECRET.getBytes()));
+        TokenKeyStore keyStore = new TokenKeyStore(path, PASSWORD, legacy);
+        AuthTokenProvider tokenProvider = new AuthTokenProvider(new TokenKeyRing(keyStore.load()), new VerifiedClaimsCache(100));
+        String legacyToken = new AuthTokenProvider(LEGACY_SECRET)
+                .createAuthToken("testUser", "ROLE_USER", tenMinutesLater()).getToken();
+
+        // when
+        TokenVerification verification = tokenProvider.verify(tokenProvider.convertAuthToken(legacyToken));
+
+        // then
+        assertThat(verification.isValid()).isTrue();
+        assertThat(verification.getClaims().getSubject()).isEqualTo("testUser");
+    }
+}
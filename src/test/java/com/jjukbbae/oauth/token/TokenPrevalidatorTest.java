@@ -0,0 +1,90 @@
+package com.jjukbbae.oauth.token;
+
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenPrevalidatorTest {
+
+    private static final String SECRET_KEY = "mysecretkeymysecretkeymysecretkeymysecretkey";
+    private final Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCheck_WhenValidToken_ThenPass() {
+        // given
+        long now = System.currentTimeMillis();
+        String token = new AuthToken("testUser", "ROLE_USER", new Date(now + 1000 * 60 * 10), key).getToken();
+
+        // when & then
+        assertThat(TokenPrevalidator.check(token, now)).isNull();
+    }
+
+    @Test
+    public void testCheck_WhenExpiredToken_ThenReturnExpired() {
+        // given
+        long now = System.currentTimeMillis();
+        String token = new AuthToken("testUser", "ROLE_USER", new Date(now - 1000 * 60), key).getToken();
+
+        // when & then
+        assertThat(TokenPrevalidator.check(token, now)).isEqualTo(TokenFailureReason.EXPIRED);
+    }
+
+    @Test
+    public void testCheck_WhenMissing_ThenReturnMissing() {
+        assertThat(TokenPrevalidator.check(null, 0)).isEqualTo(TokenFailureReason.MISSING);
+        assertThat(TokenPrevalidator.check("", 0)).isEqualTo(TokenFailureReason.MISSING);
+    }
+
+    @Test
+    public void testCheck_WhenWrongShape_ThenReturnMalformed() {
+        String header = encode("{\"alg\":\"HS256\"}");
+        String payload = encode("{\"sub\":\"testUser\"}");
+
+        assertThat(TokenPrevalidator.check("invalidTokenString", 0)).isEqualTo(TokenFailureReason.MALFORMED);
+        assertThat(TokenPrevalidator.check(header + "." + payload, 0)).isEqualTo(TokenFailureReason.MALFORMED);
+        assertThat(TokenPrevalidator.check(header + ".." + "sig", 0)).isEqualTo(TokenFailureReason.MALFORMED);
+        assertThat(TokenPrevalidator.check(header + "." + payload + ".sig.extra", 0)).isEqualTo(TokenFailureReason.MALFORMED);
+        assertThat(TokenPrevalidator.check(header + "." + payload + ".si+g", 0)).isEqualTo(TokenFailureReason.MALFORMED);
+        assertThat(TokenPrevalidator.check(encode("not json") + "." + payload + ".sig", 0)).isEqualTo(TokenFailureReason.MALFORMED);
+    }
+
+    @Test
+    public void testCheck_WhenUnsigned_ThenReturnUnsupported() {
+        String payload = encode("{\"sub\":\"testUser\"}");
+
+        assertThat(TokenPrevalidator.check(encode("{\"alg\":\"HS256\"}") + "." + payload + ".", 0))
+                .isEqualTo(TokenFailureReason.UNSUPPORTED);
+        assertThat(TokenPrevalidator.check(encode("{\"alg\":\"none\"}") + "." + payload + ".sig", 0))
+                .isEqualTo(TokenFailureReason.UNSUPPORTED);
+    }
+
+    @Test
+    public void testCheck_WhenNestedExp_ThenUseTopLevelExp() {
+        // given
+        String header = encode("{\"alg\":\"HS256\"}");
+        String payload = encode("{\"meta\":{\"exp\":1},\"note\":\"\\\"exp\\\":1\",\"exp\" : 4102444800}");
+
+        // when & then
+        assertThat(TokenPrevalidator.check(header + "." + payload + ".sig", System.currentTimeMillis())).isNull();
+    }
+
+    @Test
+    public void testCheck_WhenExpNotInteger_ThenLeaveToParser() {
+        // given
+        String header = encode("{\"alg\":\"HS256\"}");
+        String payload = encode("{\"exp\":1.5e3}");
+
+        // when & then
+        assertThat(TokenPrevalidator.check(header + "." + payload + ".sig", System.currentTimeMillis())).isNull();
+    }
+}
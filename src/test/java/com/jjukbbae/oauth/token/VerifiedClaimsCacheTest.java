@@ -0,0 +1,62 @@
+package com.jjukbbae.oauth.token;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedClaimsCacheTest {
+
+    private VerifiedClaimsCache claimsCache;
+
+    @BeforeEach
+    public void setUp() {
+        claimsCache = new VerifiedClaimsCache(100);
+    }
+
+    @Test
+    public void testGet_WhenPut_ThenReturnClaims() {
+        // given
+        Claims claims = Jwts.claims().setSubject("testUser")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 10)); // 10분 후 만료
+        claimsCache.put("token", claims);
+
+        // when
+        Claims result = claimsCache.get("token");
+
+        // then
+        assertThat(result).isSameAs(claims);
+        assertThat(claimsCache.get("otherToken")).isNull();
+    }
+
+    @Test
+    public void testPut_WhenAlreadyExpired_ThenNotCached() {
+        // given
+        Claims claims = Jwts.claims().setSubject("testUser")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000)); // 이미 만료된 토큰
+
+        // when
+        claimsCache.put("token", claims);
+
+        // then
+        assertThat(claimsCache.get("token")).isNull();
+    }
+
+    @Test
+    public void testGet_WhenExpiredAfterPut_ThenReturnNull() throws InterruptedException {
+        // given
+        Claims claims = Jwts.claims().setSubject("testUser")
+                .setExpiration(new Date(System.currentTimeMillis() + 500)); // 0.5초 후 만료
+        claimsCache.put("token", claims);
+
+        // 잠시 기다려 토큰이 만료되도록 함
+        Thread.sleep(800);
+
+        // when & then
+        assertThat(claimsCache.get("token")).isNull();
+    }
+}
@@ -0,0 +1,99 @@
+package com.jjukbbae.utils;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class RequestCookiesTest {
+
+    @Test
+    public void testOf_WhenCalledRepeatedly_ThenParseCookiesOnce() {
+        // given
+        MockHttpServletRequest mockRequest = new MockHttpServletRequest();
+        mockRequest.setCookies(new Cookie("a", "1"), new Cookie("b", "2"));
+        HttpServletRequest request = spy(mockRequest);
+
+        // when
+        RequestCookies first = RequestCookies.of(request);
+        RequestCookies second = RequestCookies.of(request);
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(second.getValue("b")).contains("2");
+        verify(request, times(1)).getCookies();
+    }
+
+    @Test
+    public void testGet_WhenDuplicateNames_ThenReturnFirst() {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("a", "first"), new Cookie("a", "second"));
+
+        // when & then
+        assertThat(RequestCookies.of(request).getValue("a")).contains("first");
+        assertThat(RequestCookies.of(request).get("missing")).isEmpty();
+    }
+
+    @Test
+    public void testDelete_WhenNoCookies_ThenWriteNothing() {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        RequestCookies.of(request).delete(response, "a");
+
+        // then
+        assertThat(RequestCookies.of(request).get("a")).isEmpty();
+        assertThat(response.getCookies()).isEmpty();
+    }
+
+    @Test
+    public void testDelete_WhenSeveralNames_ThenExpireOnlyExistingCookiesOnce() {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        Cookie a = new Cookie("a", "1");
+        request.setCookies(a, new Cookie("b", "2"), new Cookie("c", "3"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestCookies cookies = RequestCookies.of(request);
+
+        // when
+        cookies.delete(response, "a", "b", "missing");
+        cookies.delete(response, "a");
+
+        // then
+        assertThat(response.getCookies())
+                .extracting(Cookie::getName, Cookie::getValue, Cookie::getMaxAge, Cookie::getPath)
+                .containsExactly(
+                        tuple("a", "", 0, "/"),
+                        tuple("b", "", 0, "/"));
+        assertThat(a.getValue()).isEqualTo("1");
+        assertThat(cookies.get("a")).isEmpty();
+        assertThat(cookies.getValue("c")).contains("3");
+    }
+
+    @Test
+    public void testDelete_WhenCookieReissuedInSameRequest_ThenNotExpiredAgain() {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("refresh_token", "old"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        RequestCookies.of(request).delete(response, "refresh_token");
+        CookieUtil.addCookie(response, "refresh_token", "new", 3600);
+        CookieUtil.deleteCookie(request, response, "refresh_token");
+
+        // then
+        assertThat(response.getCookies()).hasSize(2);
+        assertThat(response.getCookies()[1].getValue()).isEqualTo("new");
+    }
+}